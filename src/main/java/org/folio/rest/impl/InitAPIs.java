@@ -1,30 +1,157 @@
 package org.folio.rest.impl;
 
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+
 import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Context;
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.serviceproxy.ServiceBinder;
+import io.vertx.sqlclient.Row;
+import org.apache.commons.lang.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.resource.interfaces.InitAPI;
-import org.folio.services.validator.engine.ValidationEngineService;
-import org.folio.services.validator.registry.ValidatorRegistryService;
+import org.folio.services.validator.ValidationServicesVerticle;
+import org.folio.services.validator.engine.EnabledRulesCache;
+import org.folio.services.validator.engine.ValidationRequest;
+import org.folio.services.validator.engine.ValidationRequestCodec;
+import org.folio.services.validator.engine.ValidationResult;
+import org.folio.services.validator.engine.ValidationResultCodec;
+import org.folio.services.validator.history.PasswordHistoryService;
+import org.folio.services.validator.strength.PasswordStrengthEstimator;
 import org.folio.services.validator.util.ValidatorHelper;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
 /**
  * Performs preprocessing operations before the verticle is deployed,
  * e.g. components registration, initializing, binding.
+ * <p>
+ * Optionally warms the engine up before the module reports readiness:
+ * enabled rules of the tenants listed in <code>warmup.tenants</code> (or of all tenants if it is <code>*</code>)
+ * are loaded and compiled, and <code>warmup.connections</code> connections to <code>warmup.okapi.url</code> are opened.
  */
 public class InitAPIs implements InitAPI {
+
+  private static final String ALL_TENANTS = "*";
+  private static final String SCHEMAS_SQL = "SELECT nspname FROM pg_namespace";
+
+  private final Logger logger = LogManager.getLogger(InitAPIs.class);
+
   @Override
   public void init(Vertx vertx, Context context, Handler<AsyncResult<Boolean>> handler) {
     new ServiceBinder(vertx)
-      .setAddress(ValidatorHelper.REGISTRY_SERVICE_ADDRESS)
-      .register(ValidatorRegistryService.class, ValidatorRegistryService.create(vertx));
-    new ServiceBinder(vertx)
-      .setAddress(ValidatorHelper.VALIDATOR_ENGINE_ADDRESS)
-      .register(ValidationEngineService.class, ValidationEngineService.create(vertx));
+      .setAddress(ValidatorHelper.PASSWORD_HISTORY_SERVICE_ADDRESS)
+      .register(PasswordHistoryService.class, PasswordHistoryService.create(vertx));
+
+    // Validation requests and results travel over the event bus in their compact binary form
+    vertx.eventBus()
+      .registerDefaultCodec(ValidationRequest.class, new ValidationRequestCodec())
+      .registerDefaultCodec(ValidationResult.class, new ValidationResultCodec());
+
+    // Engine and registry are deployed as several verticles on the same addresses to use every event loop
+    EnabledRulesCache rulesCache = EnabledRulesCache.create(vertx);
+    List<ValidationServicesVerticle> verticles = new CopyOnWriteArrayList<>();
+    int instances = Integer.parseInt(MODULE_SPECIFIC_ARGS
+      .getOrDefault("validation.instances", String.valueOf(Runtime.getRuntime().availableProcessors())));
+    Promise<String> deploymentPromise = Promise.promise();
+    vertx.deployVerticle(() -> {
+      ValidationServicesVerticle verticle = new ValidationServicesVerticle(rulesCache);
+      verticles.add(verticle);
+      return verticle;
+    }, new DeploymentOptions().setInstances(instances), deploymentPromise);
+
+    // Load strength estimator dictionaries once at startup rather than on the first validation
+    Promise<Void> dictionariesPromise = Promise.promise();
+    vertx.executeBlocking(promise -> {
+      PasswordStrengthEstimator.getInstance();
+      promise.complete();
+    }, dictionariesPromise);
+    CompositeFuture.all(deploymentPromise.future(), dictionariesPromise.future())
+      .compose(v -> warmUp(vertx, rulesCache, verticles))
+      .onComplete(ar -> handler.handle(ar.map(true)));
+  }
+
+  /**
+   * Loads rules of the warm-up tenants and opens connections to Okapi,
+   * failures are logged and do not prevent the module from starting
+   */
+  private Future<Void> warmUp(Vertx vertx, EnabledRulesCache rulesCache, List<ValidationServicesVerticle> verticles) {
+    long start = System.nanoTime();
+    Future<Void> rulesFuture = getWarmUpTenants(vertx).compose(tenants -> {
+      List<Future> tenantFutures = new ArrayList<>(tenants.size());
+      for (String tenantId : tenants) {
+        tenantFutures.add(rulesCache.warmUp(tenantId)
+          .onFailure(e -> logger.warn("Failed to warm up rules of tenant {}", tenantId, e)));
+      }
+      return CompositeFuture.join(tenantFutures)
+        .onComplete(ar -> {
+          if (!tenants.isEmpty()) {
+            logger.info("Rules of {} tenants warmed up in {} ms", tenants.size(), elapsedMillis(start));
+          }
+        })
+        .<Void>mapEmpty()
+        .otherwiseEmpty();
+    });
+
+    String okapiUrl = MODULE_SPECIFIC_ARGS.getOrDefault("warmup.okapi.url", System.getenv("OKAPI_URL"));
+    Future<Void> connectionsFuture = Future.succeededFuture();
+    if (StringUtils.isNotEmpty(okapiUrl)) {
+      int connections = Integer.parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("warmup.connections", "4"));
+      // every engine instance has its own http client
+      List<Future> instanceFutures = new ArrayList<>(verticles.size());
+      for (ValidationServicesVerticle verticle : verticles) {
+        instanceFutures.add(verticle.getValidationEngine().openConnections(okapiUrl, connections));
+      }
+      connectionsFuture = CompositeFuture.join(instanceFutures)
+        .onComplete(ar -> logger.info("{} connections per engine instance to {} opened in {} ms",
+          connections, okapiUrl, elapsedMillis(start)))
+        .mapEmpty();
+    }
+    return CompositeFuture.join(rulesFuture, connectionsFuture).<Void>mapEmpty().otherwiseEmpty();
+  }
+
+  private Future<List<String>> getWarmUpTenants(Vertx vertx) {
+    String tenants = MODULE_SPECIFIC_ARGS.getOrDefault("warmup.tenants", "");
+    if (!ALL_TENANTS.equals(tenants)) {
+      return Future.succeededFuture(Arrays.stream(tenants.split(","))
+        .map(String::trim)
+        .filter(StringUtils::isNotEmpty)
+        .collect(Collectors.toList()));
+    }
+    // every tenant the module is enabled for has its own schema
+    String schemaSuffix = "_" + PostgresClient.getModuleName();
+    Promise<List<String>> promise = Promise.promise();
+    PostgresClient.getInstance(vertx).select(SCHEMAS_SQL, reply -> {
+      if (reply.failed()) {
+        logger.warn("Failed to discover tenants to warm up", reply.cause());
+        promise.complete(new ArrayList<>());
+        return;
+      }
+      List<String> tenantIds = new ArrayList<>();
+      for (Row row : reply.result()) {
+        String schema = row.getString(0);
+        if (schema.endsWith(schemaSuffix)) {
+          tenantIds.add(schema.substring(0, schema.length() - schemaSuffix.length()));
+        }
+      }
+      promise.complete(tenantIds);
+    });
+    return promise.future();
+  }
 
-    handler.handle(Future.succeededFuture(true));
+  private static long elapsedMillis(long start) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
   }
 }
@@ -4,43 +4,111 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
-import io.vertx.core.logging.Logger;
-import io.vertx.core.logging.LoggerFactory;
-import org.folio.rest.jaxrs.model.ValidationTemplate;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.jaxrs.model.AdmissionMetrics;
 import org.folio.rest.jaxrs.resource.Password;
-import org.folio.services.validator.engine.ValidationEngineService;
+import org.folio.rest.tools.utils.TenantTool;
+import org.folio.services.validator.admission.AdmissionController;
+import org.folio.services.validator.engine.PasswordChars;
+import org.folio.services.validator.engine.RequestContext;
+import org.folio.services.validator.engine.ValidationRequest;
+import org.folio.services.validator.engine.ValidationResult;
+import org.folio.services.validator.history.PasswordHistoryService;
+import org.folio.services.validator.tracing.Span;
+import org.folio.services.validator.tracing.Tracer;
 import org.folio.services.validator.util.ValidatorHelper;
 
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.util.Map;
 
 public class PasswordImpl implements Password {
 
-  private final Logger logger = LoggerFactory.getLogger(PasswordImpl.class);
+  private final Logger logger = LogManager.getLogger(PasswordImpl.class);
+  private final AdmissionController admissionController = AdmissionController.getInstance();
 
   @Override
   public void postPasswordValidate(org.folio.rest.jaxrs.model.Password entity,
                                    Map<String, String> okapiHeaders,
                                    Handler<AsyncResult<Response>> asyncResultHandler,
                                    Context vertxContext)  {
+    String tenantId = TenantTool.tenantId(okapiHeaders);
+    long retryAfter = admissionController.tryAcquire(tenantId);
+    if (retryAfter > 0) {
+      asyncResultHandler.handle(Future.succeededFuture(PostPasswordValidateResponse.respond429WithTextPlain(
+        Response.Status.TOO_MANY_REQUESTS.getReasonPhrase(), PostPasswordValidateResponse.headersFor429().withRetryAfter(String.valueOf(retryAfter)))));
+      return;
+    }
+    RequestContext headersContext = RequestContext.fromHeaders(okapiHeaders);
+    Span span = Tracer.startSpan("POST /password/validate", headersContext.getTraceparent())
+      .setAttribute("tenant", tenantId);
     try {
-      ValidationEngineService validationEngineProxy =
-        ValidationEngineService.createProxy(vertxContext.owner(), ValidatorHelper.VALIDATOR_ENGINE_ADDRESS);
-      validationEngineProxy.validatePassword(entity.getUserId(), entity.getPassword(), okapiHeaders, result -> {
+      // only Okapi URL, tenant, token and the trace context are forwarded to the engine
+      RequestContext context = headersContext.withSpan(span);
+      // the chars are evaluated and wiped by the engine, the entity keeps no reference to the password
+      ValidationRequest request = new ValidationRequest(entity.getUserId(), PasswordChars.of(entity.getPassword()), context);
+      entity.setPassword(null);
+      vertxContext.owner().eventBus().<ValidationResult>request(ValidatorHelper.VALIDATION_REQUEST_ADDRESS, request, result -> {
+        admissionController.release();
+        span.end(result);
         Response response;
         if (result.succeeded()) {
-          response = PostPasswordValidateResponse.respond200WithApplicationJson(result.result().mapTo(ValidationTemplate.class));
+          // the result is written as is, rather than mapped to ValidationTemplate and serialized by Jackson
+          response = Response.ok(result.result().body().encode(), MediaType.APPLICATION_JSON_TYPE).build();
         } else {
-          String errorMessage = "Failed to validate password: " + result.cause().getLocalizedMessage();
-          logger.error(errorMessage, result.cause());
+          logger.error("Failed to validate password: {}", result.cause().getLocalizedMessage(), result.cause());
           response = PostPasswordValidateResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase());
         }
         asyncResultHandler.handle(Future.succeededFuture(response));
       });
     } catch (Exception e) {
-      logger.error("Failed to validate password: " + e.getLocalizedMessage(), e);
+      admissionController.release();
+      span.end();
+      logger.error("Failed to validate password: {}", e.getLocalizedMessage(), e);
       asyncResultHandler.handle(Future.succeededFuture(
         PostPasswordValidateResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())));
     }
   }
+
+  @Override
+  public void getPasswordValidateAdmission(Map<String, String> okapiHeaders,
+                                           Handler<AsyncResult<Response>> asyncResultHandler,
+                                           Context vertxContext) {
+    try {
+      String tenantId = TenantTool.tenantId(okapiHeaders);
+      AdmissionMetrics metrics = admissionController.getMetrics(tenantId).mapTo(AdmissionMetrics.class);
+      asyncResultHandler.handle(Future.succeededFuture(GetPasswordValidateAdmissionResponse.respond200WithApplicationJson(metrics)));
+    } catch (Exception e) {
+      logger.error("Failed to get admission metrics: {}", e.getLocalizedMessage(), e);
+      asyncResultHandler.handle(Future.succeededFuture(
+        GetPasswordValidateAdmissionResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())));
+    }
+  }
+
+  @Override
+  public void postPasswordHistory(org.folio.rest.jaxrs.model.Password entity,
+                                  Map<String, String> okapiHeaders,
+                                  Handler<AsyncResult<Response>> asyncResultHandler,
+                                  Context vertxContext) {
+    try {
+      PasswordHistoryService passwordHistoryProxy =
+        PasswordHistoryService.createProxy(vertxContext.owner(), ValidatorHelper.PASSWORD_HISTORY_SERVICE_ADDRESS);
+      String tenantId = TenantTool.tenantId(okapiHeaders);
+      passwordHistoryProxy.addPassword(tenantId, entity.getUserId(), entity.getPassword(), result -> {
+        Response response;
+        if (result.succeeded()) {
+          response = PostPasswordHistoryResponse.respond204();
+        } else {
+          logger.error("Failed to add password to the history: {}", result.cause().getLocalizedMessage(), result.cause());
+          response = PostPasswordHistoryResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase());
+        }
+        asyncResultHandler.handle(Future.succeededFuture(response));
+      });
+    } catch (Exception e) {
+      logger.error("Failed to add password to the history: {}", e.getLocalizedMessage(), e);
+      asyncResultHandler.handle(Future.succeededFuture(
+        PostPasswordHistoryResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())));
+    }
+  }
 }
@@ -0,0 +1,60 @@
+package org.folio.rest.impl;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.Response;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.jaxrs.model.TenantAttributes;
+import org.folio.rest.tools.utils.TenantTool;
+import org.folio.services.validator.tenant.DefaultRulesInitializer;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+/**
+ * Tenant API populating the default rules after the tenant schema is created,
+ * reports how long the initialization of every tenant takes
+ */
+public class TenantRefAPI extends TenantAPI {
+
+  private final Logger logger = LogManager.getLogger(TenantRefAPI.class);
+
+  @Override
+  public void postTenant(TenantAttributes entity, Map<String, String> headers,
+                         Handler<AsyncResult<Response>> handlers, Context context) {
+    String tenantId = TenantTool.tenantId(headers);
+    long start = System.nanoTime();
+    super.postTenant(entity, headers, reply -> {
+      long schemaTime = elapsedMillis(start);
+      // default rules are added when the module is enabled or upgraded from a version without them,
+      // other upgrades keep the rules of the tenant
+      if (reply.failed() || reply.result().getStatus() >= 300
+        || !DefaultRulesInitializer.shouldPopulate(entity == null ? null : entity.getModuleFrom())) {
+        logger.info("Tenant {} schema processed in {} ms", tenantId, schemaTime);
+        handlers.handle(reply);
+        return;
+      }
+      long rulesStart = System.nanoTime();
+      DefaultRulesInitializer.getInstance().populate(context.owner(), tenantId).onComplete(populateReply -> {
+        if (populateReply.failed()) {
+          logger.error("Failed to populate default rules of tenant {}", tenantId, populateReply.cause());
+          handlers.handle(Future.succeededFuture(
+            PostTenantResponse.respond500WithTextPlain(populateReply.cause().getMessage())));
+          return;
+        }
+        logger.info("Tenant {} initialized in {} ms: schema {} ms, default rules {} ms",
+          tenantId, elapsedMillis(start), schemaTime, elapsedMillis(rulesStart));
+        handlers.handle(reply);
+      });
+    }, context);
+  }
+
+  private static long elapsedMillis(long start) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+  }
+}
@@ -6,34 +6,47 @@ import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
-import io.vertx.core.logging.Logger;
-import io.vertx.core.logging.LoggerFactory;
 import org.apache.commons.lang.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.folio.rest.jaxrs.model.Rule;
+import org.folio.rest.jaxrs.model.RuleBenchmark;
+import org.folio.rest.jaxrs.model.RuleBenchmarkRequest;
 import org.folio.rest.jaxrs.model.RuleCollection;
+import org.folio.rest.jaxrs.model.RuleStatsCollection;
 import org.folio.rest.jaxrs.resource.TenantRules;
+import org.folio.services.validator.engine.ValidationEngineService;
 import org.folio.services.validator.registry.ValidatorRegistryService;
 import org.folio.services.validator.util.ValidatorHelper;
 
 import javax.ws.rs.core.Response;
+import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 public class TenantRulesImpl implements TenantRules {
 
-  private final Logger logger = LoggerFactory.getLogger(TenantRulesImpl.class);
+  private final Logger logger = LogManager.getLogger(TenantRulesImpl.class);
 
   private static final String ORDER_NUMBER_ERROR = "Order number cannot be negative";
   private static final String RULE_ID_EMPTY_ERROR = "Entity id and ruleId cannot be null or empty";
   private static final String RULE_ID_MATCH_ERROR = "Entity id and ruleId cannot be different";
   private static final String VALIDATION_TYPE_ERROR = "In case of RegExp rule Validation Type can only be Strong";
+  private static final String LOCAL_RULE_VALIDATION_TYPE_ERROR = "In case of Strength or Similarity rule Validation Type can only be Strong";
+  private static final String BULK_RULE_ERROR = "Rule %d: %s";
   private static final String IMPLEMENTATION_REFERENCE_REQUIRED_ERROR = "In case of Programmatic rule Implementation reference should be provided";
+  private static final String USER_NAME_PLACEHOLDER = "<USER_NAME>";
+  private static final String BENCHMARK_RULE_TYPE_ERROR = "Only RegExp rules with an expression can be benchmarked";
 
   private final ValidatorRegistryService validatorRegistryService;
+  private final ValidationEngineService validationEngineService;
   private String tenantId;
 
   public TenantRulesImpl(Vertx vertx, String tenantId) {
     this.tenantId = tenantId;
     this.validatorRegistryService = ValidatorRegistryService.createProxy(vertx, ValidatorHelper.REGISTRY_SERVICE_ADDRESS);
+    this.validationEngineService = ValidationEngineService.createProxy(vertx, ValidatorHelper.VALIDATOR_ENGINE_ADDRESS);
   }
 
   @Override
@@ -53,12 +66,72 @@ public class TenantRulesImpl implements TenantRules {
         }
       });
     } catch (Exception e) {
-      logger.error("Error running on verticle for getTenantRules: " + e.getMessage(), e);
+      logger.error("Error running on verticle for getTenantRules: {}", e.getMessage(), e);
       asyncResultHandler.handle(Future.succeededFuture(
         GetTenantRulesResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())));
     }
   }
 
+  @Override
+  public void getTenantRulesStats(int limit, Map<String, String> okapiHeaders,
+                                  Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    try {
+      validationEngineService.getRuleStatistics(tenantId, limit, reply -> {
+        if (reply.succeeded()) {
+          RuleStatsCollection stats = reply.result().mapTo(RuleStatsCollection.class);
+          asyncResultHandler.handle(
+            Future.succeededFuture(GetTenantRulesStatsResponse.respond200WithApplicationJson(stats)));
+        } else {
+          String message = "Failed to get tenant rule statistics";
+          logger.error(message, reply.cause());
+          asyncResultHandler.handle(
+            Future.succeededFuture(GetTenantRulesStatsResponse.respond500WithTextPlain(message)));
+        }
+      });
+    } catch (Exception e) {
+      logger.error("Error running on verticle for getTenantRulesStats: {}", e.getMessage(), e);
+      asyncResultHandler.handle(Future.succeededFuture(
+        GetTenantRulesStatsResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())));
+    }
+  }
+
+  @Override
+  public void postTenantRulesBenchmark(final RuleBenchmarkRequest entity,
+                                       final Map<String, String> okapiHeaders,
+                                       final Handler<AsyncResult<Response>> asyncResultHandler,
+                                       final Context vertxContext) {
+    try {
+      Rule rule = entity.getRule();
+      String errorMessage = validateRule(rule);
+      if (errorMessage == null && (!Rule.Type.REG_EXP.equals(rule.getType()) || StringUtils.isEmpty(rule.getExpression()))) {
+        errorMessage = BENCHMARK_RULE_TYPE_ERROR;
+      }
+      if (errorMessage == null) {
+        errorMessage = validateExpression(rule.getExpression());
+      }
+      if (errorMessage != null) {
+        asyncResultHandler.handle(
+          Future.succeededFuture(PostTenantRulesBenchmarkResponse.respond400WithTextPlain(errorMessage)));
+        return;
+      }
+      validationEngineService.benchmarkRule(JsonObject.mapFrom(entity), reply -> {
+        if (reply.succeeded()) {
+          asyncResultHandler.handle(Future.succeededFuture(
+            PostTenantRulesBenchmarkResponse.respond200WithApplicationJson(reply.result().mapTo(RuleBenchmark.class))));
+        } else {
+          String message = "Failed to benchmark the rule";
+          logger.error(message, reply.cause());
+          asyncResultHandler.handle(
+            Future.succeededFuture(PostTenantRulesBenchmarkResponse.respond500WithTextPlain(message)));
+        }
+      });
+    } catch (Exception e) {
+      logger.error("Error running on verticle for postTenantRulesBenchmark: {}", e.getMessage(), e);
+      asyncResultHandler.handle(Future.succeededFuture(
+        PostTenantRulesBenchmarkResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())));
+    }
+  }
+
   @Override
   public void postTenantRules(final Rule entity,
                               final Map<String, String> okapiHeaders,
@@ -83,7 +156,7 @@ public class TenantRulesImpl implements TenantRules {
         });
       }
     } catch (Exception e) {
-      logger.error("Error running on verticle for postTenantRules: " + e.getMessage(), e);
+      logger.error("Error running on verticle for postTenantRules: {}", e.getMessage(), e);
       asyncResultHandler.handle(Future.succeededFuture(
         PostTenantRulesResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())));
     }
@@ -121,12 +194,72 @@ public class TenantRulesImpl implements TenantRules {
         });
       }
     } catch (Exception e) {
-      logger.error("Error running on verticle for putTenantRules: " + e.getMessage(), e);
+      logger.error("Error running on verticle for putTenantRules: {}", e.getMessage(), e);
       asyncResultHandler.handle(Future.succeededFuture(
         PutTenantRulesResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())));
     }
   }
 
+  @Override
+  public void postTenantRulesBulk(final RuleCollection entity,
+                                  final Map<String, String> okapiHeaders,
+                                  final Handler<AsyncResult<Response>> asyncResultHandler,
+                                  final Context vertxContext) {
+    try {
+      String errorMessage = validateRules(entity);
+      if (errorMessage != null) {
+        asyncResultHandler.handle(
+          Future.succeededFuture(PostTenantRulesBulkResponse.respond400WithTextPlain(errorMessage)));
+      } else {
+        validatorRegistryService.createTenantRules(tenantId, JsonObject.mapFrom(entity), reply -> {
+          if (reply.succeeded()) {
+            asyncResultHandler.handle(Future.succeededFuture(
+              PostTenantRulesBulkResponse.respond201WithApplicationJson(reply.result().mapTo(RuleCollection.class))));
+          } else {
+            String message = "Failed to create new rules";
+            logger.error(message, reply.cause());
+            asyncResultHandler.handle(
+              Future.succeededFuture(PostTenantRulesBulkResponse.respond500WithTextPlain(message)));
+          }
+        });
+      }
+    } catch (Exception e) {
+      logger.error("Error running on verticle for postTenantRulesBulk: {}", e.getMessage(), e);
+      asyncResultHandler.handle(Future.succeededFuture(
+        PostTenantRulesBulkResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())));
+    }
+  }
+
+  @Override
+  public void putTenantRulesBulk(final RuleCollection entity,
+                                 final Map<String, String> okapiHeaders,
+                                 final Handler<AsyncResult<Response>> asyncResultHandler,
+                                 final Context vertxContext) {
+    try {
+      String errorMessage = validateRules(entity);
+      if (errorMessage != null) {
+        asyncResultHandler.handle(
+          Future.succeededFuture(PutTenantRulesBulkResponse.respond400WithTextPlain(errorMessage)));
+      } else {
+        validatorRegistryService.replaceTenantRules(tenantId, JsonObject.mapFrom(entity), reply -> {
+          if (reply.succeeded()) {
+            asyncResultHandler.handle(Future.succeededFuture(
+              PutTenantRulesBulkResponse.respond200WithApplicationJson(reply.result().mapTo(RuleCollection.class))));
+          } else {
+            String message = "Failed to replace tenant rules";
+            logger.error(message, reply.cause());
+            asyncResultHandler.handle(
+              Future.succeededFuture(PutTenantRulesBulkResponse.respond500WithTextPlain(message)));
+          }
+        });
+      }
+    } catch (Exception e) {
+      logger.error("Error running on verticle for putTenantRulesBulk: {}", e.getMessage(), e);
+      asyncResultHandler.handle(Future.succeededFuture(
+        PutTenantRulesBulkResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())));
+    }
+  }
+
   @Override
   public void getTenantRulesByRuleId(final String ruleId,
                                      final Map<String, String> okapiHeaders,
@@ -153,7 +286,7 @@ public class TenantRulesImpl implements TenantRules {
         }
       });
     } catch (Exception e) {
-      logger.error("Error running on verticle for getTenantRulesByRuleId: " + e.getMessage(), e);
+      logger.error("Error running on verticle for getTenantRulesByRuleId: {}", e.getMessage(), e);
       asyncResultHandler.handle(Future.succeededFuture(
         GetTenantRulesByRuleIdResponse.respond500WithTextPlain(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())));
     }
@@ -173,6 +306,10 @@ public class TenantRulesImpl implements TenantRules {
     } else if (Rule.Type.REG_EXP.equals(entity.getType()) && !Rule.ValidationType.STRONG.equals(entity.getValidationType())) {
       logger.debug("Invalid validationType parameter");
       errorMessage = VALIDATION_TYPE_ERROR;
+    } else if ((Rule.Type.STRENGTH.equals(entity.getType()) || Rule.Type.SIMILARITY.equals(entity.getType()))
+      && !Rule.ValidationType.STRONG.equals(entity.getValidationType())) {
+      logger.debug("Invalid validationType parameter");
+      errorMessage = LOCAL_RULE_VALIDATION_TYPE_ERROR;
     } else if (Rule.Type.PROGRAMMATIC.equals(entity.getType())
       && (entity.getImplementationReference() == null || entity.getImplementationReference().isEmpty())) {
       logger.debug("Implementation reference is not specified for type Programmatic");
@@ -181,6 +318,33 @@ public class TenantRulesImpl implements TenantRules {
     return errorMessage;
   }
 
+  /**
+   * Validates every Rule entity of the collection
+   *
+   * @param entity - Rule collection to validate
+   * @return error message of the first invalid rule
+   */
+  private String validateRules(RuleCollection entity) {
+    List<Rule> rules = entity.getRules();
+    for (int i = 0; i < rules.size(); i++) {
+      String errorMessage = validateRule(rules.get(i));
+      if (errorMessage != null) {
+        return String.format(BULK_RULE_ERROR, i, errorMessage);
+      }
+    }
+    return null;
+  }
+
+  private String validateExpression(String expression) {
+    try {
+      Pattern.compile(expression.replace(USER_NAME_PLACEHOLDER, "user"));
+      return null;
+    } catch (PatternSyntaxException e) {
+      logger.debug("Invalid expression");
+      return e.getMessage();
+    }
+  }
+
   private String validateRuleOnPut(Rule entity) {
     if (StringUtils.isEmpty(entity.getId()) && StringUtils.isEmpty(entity.getRuleId())) {
       logger.debug("Rule id cannot be null or empty");
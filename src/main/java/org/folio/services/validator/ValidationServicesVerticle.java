@@ -0,0 +1,57 @@
+package org.folio.services.validator;
+
+import org.folio.HttpStatus;
+import org.folio.services.validator.engine.EnabledRulesCache;
+import org.folio.services.validator.engine.ValidationEngineService;
+import org.folio.services.validator.engine.ValidationEngineServiceImpl;
+import org.folio.services.validator.engine.ValidationRequest;
+import org.folio.services.validator.registry.ValidatorRegistryService;
+import org.folio.services.validator.util.ValidatorHelper;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.serviceproxy.ServiceBinder;
+
+/**
+ * Binds the validation engine and the validator registry to their event bus addresses,
+ * the engine also consumes binary validation requests.
+ * Several instances of the verticle are deployed on the same addresses,
+ * each one on its own event loop, and the event bus spreads requests between them.
+ * The instances share the cache of the compiled enabled rules.
+ */
+public class ValidationServicesVerticle extends AbstractVerticle {
+
+  private final EnabledRulesCache rulesCache;
+  private ValidationEngineServiceImpl validationEngine;
+
+  public ValidationServicesVerticle(EnabledRulesCache rulesCache) {
+    this.rulesCache = rulesCache;
+  }
+
+  @Override
+  public void start() {
+    validationEngine = new ValidationEngineServiceImpl(vertx, rulesCache);
+    new ServiceBinder(vertx)
+      .setAddress(ValidatorHelper.REGISTRY_SERVICE_ADDRESS)
+      .register(ValidatorRegistryService.class, ValidatorRegistryService.create(vertx));
+    new ServiceBinder(vertx)
+      .setAddress(ValidatorHelper.VALIDATOR_ENGINE_ADDRESS)
+      .register(ValidationEngineService.class, validationEngine);
+    vertx.eventBus().<ValidationRequest>consumer(ValidatorHelper.VALIDATION_REQUEST_ADDRESS, message ->
+      validationEngine.validate(message.body()).onComplete(ar -> {
+        if (ar.succeeded()) {
+          message.reply(ar.result());
+        } else {
+          message.fail(HttpStatus.HTTP_INTERNAL_SERVER_ERROR.toInt(), ar.cause().getMessage());
+        }
+      }));
+  }
+
+  /**
+   * Returns the validation engine bound by this instance, available once the verticle is started
+   *
+   * @return validation engine
+   */
+  public ValidationEngineServiceImpl getValidationEngine() {
+    return validationEngine;
+  }
+}
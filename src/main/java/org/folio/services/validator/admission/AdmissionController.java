@@ -0,0 +1,124 @@
+package org.folio.services.validator.admission;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Admission control of the password validation requests.
+ * <p>
+ * Every tenant has its own token bucket, so a tenant exceeding its rate does not take the capacity of the others,
+ * and the number of validations in progress is bounded for the whole module.
+ * Rate and burst of a tenant are configured by the module arguments
+ * {@code admission.rate.<tenant>} and {@code admission.burst.<tenant>},
+ * falling back to {@code admission.rate} and {@code admission.burst}.
+ */
+public final class AdmissionController {
+
+  private static final long RETRY_AFTER_CONCURRENCY_SECONDS = 1;
+
+  private final Map<String, TenantLimit> tenantLimits = new ConcurrentHashMap<>();
+  private final Function<String, TokenBucket> bucketFactory;
+  // Maximum number of validations in progress for all tenants
+  private final int maxConcurrency;
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  AdmissionController(int maxConcurrency, Function<String, TokenBucket> bucketFactory) {
+    this.maxConcurrency = maxConcurrency;
+    this.bucketFactory = bucketFactory;
+  }
+
+  /**
+   * Returns the admission controller shared by all the requests of the module
+   *
+   * @return admission controller
+   */
+  public static AdmissionController getInstance() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * Admits the validation request of the tenant if the tenant rate and the module concurrency are not exceeded,
+   * an admitted request must be released by {@link #release()} once it is completed
+   *
+   * @param tenantId tenant id
+   * @return 0 if the request is admitted, otherwise number of seconds to retry after
+   */
+  public long tryAcquire(String tenantId) {
+    TenantLimit limit = tenantLimits.computeIfAbsent(tenantId, id -> new TenantLimit(bucketFactory.apply(id)));
+    if (inFlight.incrementAndGet() > maxConcurrency) {
+      inFlight.decrementAndGet();
+      limit.rejectedByConcurrency.increment();
+      return RETRY_AFTER_CONCURRENCY_SECONDS;
+    }
+    long waitNanos = limit.bucket.tryAcquire();
+    if (waitNanos > 0) {
+      inFlight.decrementAndGet();
+      limit.rejectedByRate.increment();
+      return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+    limit.admitted.increment();
+    return 0;
+  }
+
+  /**
+   * Releases the admitted request
+   */
+  public void release() {
+    inFlight.decrementAndGet();
+  }
+
+  /**
+   * Returns admission metrics of the tenant and of the module
+   *
+   * @param tenantId tenant id
+   * @return metrics as json
+   */
+  public JsonObject getMetrics(String tenantId) {
+    TenantLimit limit = tenantLimits.computeIfAbsent(tenantId, id -> new TenantLimit(bucketFactory.apply(id)));
+    return new JsonObject()
+      .put("tenantId", tenantId)
+      .put("ratePerSecond", limit.bucket.getRatePerSecond())
+      .put("burst", limit.bucket.getCapacity())
+      .put("availableTokens", (int) limit.bucket.getAvailableTokens())
+      .put("admitted", limit.admitted.sum())
+      .put("rejectedByRate", limit.rejectedByRate.sum())
+      .put("rejectedByConcurrency", limit.rejectedByConcurrency.sum())
+      .put("inFlight", inFlight.get())
+      .put("maxConcurrency", maxConcurrency);
+  }
+
+  static Function<String, TokenBucket> configuredBuckets(Map<String, String> args, LongSupplier clock) {
+    String defaultRate = args.getOrDefault("admission.rate", "200");
+    String defaultBurst = args.getOrDefault("admission.burst", "400");
+    return tenantId -> new TokenBucket(
+      Double.parseDouble(args.getOrDefault("admission.rate." + tenantId, defaultRate)),
+      Integer.parseInt(args.getOrDefault("admission.burst." + tenantId, defaultBurst)),
+      clock);
+  }
+
+  private static final class TenantLimit {
+    private final TokenBucket bucket;
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejectedByRate = new LongAdder();
+    private final LongAdder rejectedByConcurrency = new LongAdder();
+
+    private TenantLimit(TokenBucket bucket) {
+      this.bucket = bucket;
+    }
+  }
+
+  private static final class Holder {
+    private static final AdmissionController INSTANCE = new AdmissionController(
+      Integer.parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("admission.concurrency", "1000")),
+      configuredBuckets(MODULE_SPECIFIC_ARGS, System::nanoTime));
+  }
+}
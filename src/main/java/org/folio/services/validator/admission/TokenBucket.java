@@ -0,0 +1,60 @@
+package org.folio.services.validator.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket refilled at a constant rate up to its capacity,
+ * every admitted request takes one token.
+ */
+final class TokenBucket {
+
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final double ratePerSecond;
+  private final int capacity;
+  private final LongSupplier clock;
+  private double tokens;
+  private long lastRefill;
+
+  TokenBucket(double ratePerSecond, int capacity, LongSupplier clock) {
+    this.ratePerSecond = ratePerSecond;
+    this.capacity = capacity;
+    this.clock = clock;
+    this.tokens = capacity;
+    this.lastRefill = clock.getAsLong();
+  }
+
+  /**
+   * Takes a token if the bucket is not empty
+   *
+   * @return 0 if the token is taken, otherwise nanoseconds until the next token is available
+   */
+  synchronized long tryAcquire() {
+    refill();
+    if (tokens >= 1) {
+      tokens--;
+      return 0;
+    }
+    return Math.max(1, (long) Math.ceil((1 - tokens) / ratePerSecond * NANOS_PER_SECOND));
+  }
+
+  synchronized double getAvailableTokens() {
+    refill();
+    return tokens;
+  }
+
+  double getRatePerSecond() {
+    return ratePerSecond;
+  }
+
+  int getCapacity() {
+    return capacity;
+  }
+
+  private void refill() {
+    long now = clock.getAsLong();
+    tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerSecond / NANOS_PER_SECOND);
+    lastRefill = now;
+  }
+}
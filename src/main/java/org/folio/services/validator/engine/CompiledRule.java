@@ -0,0 +1,101 @@
+package org.folio.services.validator.engine;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+
+import org.folio.rest.jaxrs.model.Rule;
+import org.folio.services.validator.regex.CompiledExpression;
+import org.folio.services.validator.regex.ExpressionCompiler;
+
+/**
+ * Enabled rule prepared for validation: the expression of a RegExp rule is compiled once,
+ * unless it refers to the user name, such expressions are compiled for every validation.
+ * The expression is compiled by the backend of the rule or by the module default one, set by validation.regex.backend.
+ * Instances are shared between validations and must not be changed.
+ */
+final class CompiledRule {
+
+  static final String USER_NAME_PLACEHOLDER = "<USER_NAME>";
+
+  private static final Rule.RegexBackend DEFAULT_REGEX_BACKEND = Rule.RegexBackend
+    .fromValue(MODULE_SPECIFIC_ARGS.getOrDefault("validation.regex.backend", Rule.RegexBackend.DFA.value()));
+  private static final String SAMPLE_USER_NAME = "user";
+
+  private final Rule rule;
+  private final Rule.RegexBackend preferredBackend;
+  private final CompiledExpression expression;
+  private final Rule.RegexBackend regexBackend;
+  private final int mergedIndex;
+
+  private CompiledRule(Rule rule, Rule.RegexBackend preferredBackend, CompiledExpression expression,
+                       Rule.RegexBackend regexBackend) {
+    this(rule, preferredBackend, expression, regexBackend, -1);
+  }
+
+  private CompiledRule(Rule rule, Rule.RegexBackend preferredBackend, CompiledExpression expression,
+                       Rule.RegexBackend regexBackend, int mergedIndex) {
+    this.rule = rule;
+    this.preferredBackend = preferredBackend;
+    this.expression = expression;
+    this.regexBackend = regexBackend;
+    this.mergedIndex = mergedIndex;
+  }
+
+  static CompiledRule compile(Rule rule) {
+    if (!Rule.Type.REG_EXP.equals(rule.getType())) {
+      return new CompiledRule(rule, null, null, null);
+    }
+    Rule.RegexBackend preferredBackend = rule.getRegexBackend() == null ? DEFAULT_REGEX_BACKEND : rule.getRegexBackend();
+    if (rule.getExpression().contains(USER_NAME_PLACEHOLDER)) {
+      // the backend of the expression with a sample user name is reported, actual user names are usually alike
+      Rule.RegexBackend regexBackend = ExpressionCompiler
+        .compileForSingleUse(rule.getExpression().replace(USER_NAME_PLACEHOLDER, SAMPLE_USER_NAME), preferredBackend).getBackend();
+      return new CompiledRule(rule, preferredBackend, null, regexBackend);
+    }
+    CompiledExpression expression = ExpressionCompiler.compile(rule.getExpression(), preferredBackend);
+    return new CompiledRule(rule, preferredBackend, expression, expression.getBackend());
+  }
+
+  /**
+   * Returns the same rule whose expression is merged into the expression set of the tenant rules
+   *
+   * @param index index of the expression in the set
+   * @return merged rule
+   */
+  CompiledRule merged(int index) {
+    return new CompiledRule(rule, preferredBackend, expression, regexBackend, index);
+  }
+
+  Rule getRule() {
+    return rule;
+  }
+
+  /**
+   * Returns the index of the expression in the expression set of the tenant rules
+   *
+   * @return index or -1 if the expression is not merged
+   */
+  int getMergedIndex() {
+    return mergedIndex;
+  }
+
+  /**
+   * Returns the expression of a RegExp rule
+   *
+   * @param userName name of the user whose password is validated
+   * @return compiled expression
+   */
+  CompiledExpression getExpression(String userName) {
+    return expression != null ? expression
+      : ExpressionCompiler
+        .compileForSingleUse(rule.getExpression().replace(USER_NAME_PLACEHOLDER, userName), preferredBackend);
+  }
+
+  /**
+   * Returns the backend matching the expression of a RegExp rule
+   *
+   * @return regex backend or null if the rule is not a RegExp one
+   */
+  Rule.RegexBackend getRegexBackend() {
+    return regexBackend;
+  }
+}
@@ -0,0 +1,138 @@
+package org.folio.services.validator.engine;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.folio.rest.jaxrs.model.Rule;
+import org.folio.services.validator.regex.ExpressionSet;
+
+import io.vertx.core.json.Json;
+
+/**
+ * Compiled enabled rules of a tenant sorted by order number.
+ * <p>
+ * Expressions of the RegExp rules matched by the {@link Rule.RegexBackend#DFA} backend are also merged
+ * into one {@link ExpressionSet}, so a single scan of the password evaluates all of them.
+ * Rules referring to the user name and rules falling back to java.util.regex are evaluated one by one.
+ * <p>
+ * Reloaded rules are compiled against the rules compiled before: an unchanged rule keeps its compiled expression,
+ * an unchanged rule set is not compiled at all, so the warm automaton states and matchers are kept.
+ */
+final class CompiledRules {
+
+  private final List<CompiledRule> rules;
+  private final ExpressionSet expressionSet;
+  // Rule json the rules are compiled from, in the order of the rules
+  private final List<String> sources;
+  // Compiled rules before merging by their json
+  private final Map<String, CompiledRule> compiledBySource;
+
+  private CompiledRules(List<CompiledRule> rules, ExpressionSet expressionSet, List<String> sources,
+                        Map<String, CompiledRule> compiledBySource) {
+    this.rules = rules;
+    this.expressionSet = expressionSet;
+    this.sources = sources;
+    this.compiledBySource = compiledBySource;
+  }
+
+  static CompiledRules compile(List<Rule> rules) {
+    return compile(rules, null);
+  }
+
+  /**
+   * Compiles the rules reusing the compiled rules of the previous rule set
+   *
+   * @param rules    rules sorted by order number
+   * @param previous rules compiled before, null if there are none
+   * @return compiled rules, the previous ones if no rule is changed
+   */
+  static CompiledRules compile(List<Rule> rules, CompiledRules previous) {
+    List<String> sources = new ArrayList<>(rules.size());
+    for (Rule rule : rules) {
+      sources.add(Json.encode(rule));
+    }
+    if (previous != null && previous.sources.equals(sources)) {
+      return previous;
+    }
+    List<CompiledRule> compiledRules = new ArrayList<>(rules.size());
+    Map<String, CompiledRule> compiledBySource = new HashMap<>();
+    ExpressionSet.Builder expressionSet = ExpressionSet.builder();
+    for (int i = 0; i < rules.size(); i++) {
+      Rule rule = rules.get(i);
+      String source = sources.get(i);
+      CompiledRule compiledRule = previous == null ? null : previous.compiledBySource.get(source);
+      if (compiledRule == null) {
+        compiledRule = CompiledRule.compile(rule);
+      }
+      compiledBySource.put(source, compiledRule);
+      if (Rule.RegexBackend.DFA.equals(compiledRule.getRegexBackend())
+        && !rule.getExpression().contains(CompiledRule.USER_NAME_PLACEHOLDER)) {
+        int index = expressionSet.add(rule.getExpression());
+        if (index >= 0) {
+          compiledRule = compiledRule.merged(index);
+        }
+      }
+      compiledRules.add(compiledRule);
+    }
+    return new CompiledRules(Collections.unmodifiableList(compiledRules), expressionSet.build(),
+      Collections.unmodifiableList(sources), compiledBySource);
+  }
+
+  List<CompiledRule> getRules() {
+    return rules;
+  }
+
+  /**
+   * Matches the password against the merged expressions in a single scan
+   *
+   * @param password password to match
+   * @return matches of the merged expressions
+   */
+  MergedMatches matchMergedExpressions(CharSequence password) {
+    if (expressionSet.size() == 0) {
+      return MergedMatches.NONE;
+    }
+    long start = System.nanoTime();
+    BitSet matched = expressionSet.match(password);
+    return new MergedMatches(matched, System.nanoTime() - start);
+  }
+
+  /**
+   * Result of the scan of a password by the merged expressions
+   */
+  static final class MergedMatches {
+
+    private static final MergedMatches NONE = new MergedMatches(new BitSet(), 0);
+
+    private final BitSet matched;
+    private final long scanNanos;
+
+    private MergedMatches(BitSet matched, long scanNanos) {
+      this.matched = matched;
+      this.scanNanos = scanNanos;
+    }
+
+    /**
+     * Tells whether the password matches the expression of the merged rule
+     *
+     * @param rule rule whose expression is merged
+     * @return true if the entire password matches
+     */
+    boolean matches(CompiledRule rule) {
+      return matched.get(rule.getMergedIndex());
+    }
+
+    /**
+     * Returns the time of the scan shared by the merged rules
+     *
+     * @return scan time in nanoseconds
+     */
+    long getScanNanos() {
+      return scanNanos;
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package org.folio.services.validator.engine;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import org.folio.rest.jaxrs.model.RuleCollection;
+import org.folio.services.validator.registry.ValidatorRegistryService;
+import org.folio.services.validator.util.ValidatorHelper;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Cache of the compiled enabled rules of every tenant.
+ * <p>
+ * The rules of a tenant are loaded from the registry once and kept for the configured time,
+ * the entry is expired as soon as the registry publishes a change of the tenant rule set.
+ * Concurrent validations of a tenant whose rules are not cached wait for the same load,
+ * traced in the trace of the validation starting it.
+ * Reloaded rules are compiled against the expired ones, so the unchanged rules keep their compiled expressions.
+ */
+public final class EnabledRulesCache {
+
+  // Loads the enabled rules of the tenant by tenant id and trace context of the caller
+  private final BiFunction<String, String, Future<JsonObject>> loader;
+  private final long ttlNanos;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  EnabledRulesCache(BiFunction<String, String, Future<JsonObject>> loader) {
+    this(loader, Long.parseLong(MODULE_SPECIFIC_ARGS.getOrDefault("validation.rules.cache.ttl", "60000")));
+  }
+
+  EnabledRulesCache(BiFunction<String, String, Future<JsonObject>> loader, long ttlMillis) {
+    this.loader = loader;
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+  }
+
+  /**
+   * Creates the cache loading rules through the registry service proxy,
+   * tenant entries are invalidated by the rule set change notifications of the registry
+   *
+   * @param vertx vertx instance
+   * @return enabled rules cache
+   */
+  public static EnabledRulesCache create(Vertx vertx) {
+    ValidatorRegistryService registryProxy = ValidatorRegistryService
+      .createProxy(vertx, ValidatorHelper.REGISTRY_SERVICE_ADDRESS);
+    EnabledRulesCache cache = new EnabledRulesCache((tenantId, traceparent) -> {
+      Promise<JsonObject> promise = Promise.promise();
+      registryProxy.getEnabledTenantRules(tenantId, traceparent, promise);
+      return promise.future();
+    });
+    vertx.eventBus().<String>consumer(ValidatorHelper.RULES_CHANGED_ADDRESS, message -> cache.invalidate(message.body()));
+    return cache;
+  }
+
+  /**
+   * Loads and compiles the enabled rules of the tenant ahead of the first validation
+   *
+   * @param tenantId tenant id
+   * @return future completed once the rules are cached
+   */
+  public Future<Void> warmUp(String tenantId) {
+    return get(tenantId, null).mapEmpty();
+  }
+
+  /**
+   * Expires the cached rules of the tenant, the next validation loads them again
+   *
+   * @param tenantId tenant id
+   */
+  public void invalidate(String tenantId) {
+    entries.computeIfPresent(tenantId, (id, entry) -> entry.expire());
+  }
+
+  /**
+   * Returns the compiled enabled rules of the tenant sorted by order number
+   *
+   * @param tenantId    tenant id
+   * @param traceparent trace context of the caller, the parent of the registry spans if the rules are loaded
+   * @return compiled rules
+   */
+  Future<CompiledRules> get(String tenantId, String traceparent) {
+    long now = System.nanoTime();
+    Entry cached = entries.get(tenantId);
+    if (cached != null && !cached.expired && now - cached.loadedAt < ttlNanos) {
+      return cached.rules;
+    }
+    Promise<CompiledRules> promise = Promise.promise();
+    Entry loading = new Entry(promise.future(), now);
+    Entry current = cached == null ? entries.putIfAbsent(tenantId, loading)
+      : entries.replace(tenantId, cached, loading) ? null : entries.get(tenantId);
+    if (current != null) {
+      return current.rules;
+    }
+    CompiledRules previous = cached != null && cached.rules.succeeded() ? cached.rules.result() : null;
+    loader.apply(tenantId, traceparent).map(ruleCollection -> compile(ruleCollection, previous)).onComplete(reply -> {
+      if (reply.failed()) {
+        entries.remove(tenantId, loading);
+      }
+      promise.handle(reply);
+    });
+    return promise.future();
+  }
+
+  private CompiledRules compile(JsonObject ruleCollection, CompiledRules previous) {
+    return CompiledRules.compile(ruleCollection.mapTo(RuleCollection.class).getRules(), previous);
+  }
+
+  private static final class Entry {
+    private final Future<CompiledRules> rules;
+    private final long loadedAt;
+    private final boolean expired;
+
+    private Entry(Future<CompiledRules> rules, long loadedAt) {
+      this(rules, loadedAt, false);
+    }
+
+    private Entry(Future<CompiledRules> rules, long loadedAt, boolean expired) {
+      this.rules = rules;
+      this.loadedAt = loadedAt;
+      this.expired = expired;
+    }
+
+    private Entry expire() {
+      return new Entry(rules, loadedAt, true);
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package org.folio.services.validator.engine;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Builds keys of the validations in flight as HMAC-SHA256 of tenant, user, password, Okapi URL and token,
+ * so the password is never kept in plain text as a map key. The evaluation calls other modules
+ * with the URL and the token of the request, so only requests of the same caller share an evaluation.
+ * The secret key is random and lives only in memory of the process; instances are not thread safe.
+ */
+final class InFlightKeys {
+
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final byte[] SECRET = new byte[32];
+  private static final byte SEPARATOR = 0;
+
+  static {
+    new SecureRandom().nextBytes(SECRET);
+  }
+
+  private final Mac mac;
+
+  InFlightKeys() {
+    try {
+      mac = Mac.getInstance(ALGORITHM);
+      mac.init(new SecretKeySpec(SECRET, ALGORITHM));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Error while initializing " + ALGORITHM, e);
+    }
+  }
+
+  String keyOf(ValidationRequest request) {
+    RequestContext context = request.getContext();
+    update(context.getTenantId());
+    update(context.getOkapiUrl());
+    update(context.getToken());
+    update(request.getUserId());
+    byte[] password = request.getPassword().encode();
+    try {
+      mac.update(password);
+      return Base64.getEncoder().encodeToString(mac.doFinal());
+    } finally {
+      Arrays.fill(password, (byte) 0);
+    }
+  }
+
+  private void update(String value) {
+    if (value != null) {
+      mac.update(value.getBytes(StandardCharsets.UTF_8));
+    }
+    mac.update(SEPARATOR);
+  }
+}
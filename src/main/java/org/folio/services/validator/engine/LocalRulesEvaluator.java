@@ -0,0 +1,153 @@
+package org.folio.services.validator.engine;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+/**
+ * Evaluates rules which do not need remote calls (RegExp, Strength, Similarity).
+ * Small rule sets are evaluated sequentially on the calling thread,
+ * rule sets above the configured threshold are split across the shared ForkJoin pool.
+ * In both cases error messages are returned in the order of the given rules.
+ * A failure is reported only once no other task is evaluating a rule,
+ * so the caller may release what the rules read, e.g. wipe the password.
+ */
+class LocalRulesEvaluator {
+
+  // Size of the rule chunk evaluated by a single ForkJoin task
+  private static final int CHUNK_SIZE = 8;
+
+  private static final ForkJoinPool POOL = new ForkJoinPool(Integer.parseInt(MODULE_SPECIFIC_ARGS
+    .getOrDefault("validation.parallel.parallelism", String.valueOf(Runtime.getRuntime().availableProcessors()))));
+
+  // Minimal number of local rules to evaluate them in parallel
+  private final int parallelThreshold;
+
+  LocalRulesEvaluator() {
+    this(Integer.parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("validation.parallel.threshold", "32")));
+  }
+
+  LocalRulesEvaluator(int parallelThreshold) {
+    this.parallelThreshold = parallelThreshold;
+  }
+
+  /**
+   * Evaluates rules
+   *
+   * @param rules      rules sorted by order number
+   * @param <T>        type of the rules
+   * @param evaluation function returning error message id if the password does not satisfy the rule, null otherwise
+   * @return error message ids in the order of the rules
+   */
+  <T> Future<List<String>> evaluate(List<T> rules, Function<T, String> evaluation) {
+    String[] results = new String[rules.size()];
+    if (rules.size() < parallelThreshold) {
+      try {
+        new EvaluationTask<>(rules, evaluation, results, 0, rules.size()).evaluateSequentially();
+      } catch (Exception e) {
+        return Future.failedFuture(e);
+      }
+      return Future.succeededFuture(collectErrorMessages(results));
+    }
+
+    Promise<List<String>> promise = Promise.promise();
+    Context context = Vertx.currentContext();
+    POOL.execute(new EvaluationTask<>(rules, evaluation, results, 0, rules.size(), failure -> {
+      Runnable completion = () -> {
+        if (failure != null) {
+          promise.fail(failure);
+        } else {
+          promise.complete(collectErrorMessages(results));
+        }
+      };
+      // return to the caller's event loop, results are published by the task completion
+      if (context == null) {
+        completion.run();
+      } else {
+        context.runOnContext(v -> completion.run());
+      }
+    }));
+    return promise.future();
+  }
+
+  private List<String> collectErrorMessages(String[] results) {
+    List<String> errorMessages = new ArrayList<>();
+    for (String result : results) {
+      if (result != null) {
+        errorMessages.add(result);
+      }
+    }
+    return errorMessages;
+  }
+
+  private static final class EvaluationTask<T> extends RecursiveAction {
+    private final transient List<T> rules;
+    private final transient Function<T, String> evaluation;
+    private final String[] results;
+    private final int from;
+    private final int to;
+    // Called by the root task once all the rules are evaluated, with the failure or null
+    private final transient Consumer<Throwable> onCompletion;
+
+    private EvaluationTask(List<T> rules, Function<T, String> evaluation, String[] results, int from, int to) {
+      this(rules, evaluation, results, from, to, null);
+    }
+
+    private EvaluationTask(List<T> rules, Function<T, String> evaluation, String[] results, int from, int to,
+                           Consumer<Throwable> onCompletion) {
+      this.rules = rules;
+      this.evaluation = evaluation;
+      this.results = results;
+      this.from = from;
+      this.to = to;
+      this.onCompletion = onCompletion;
+    }
+
+    @Override
+    protected void compute() {
+      if (onCompletion == null) {
+        evaluate();
+        return;
+      }
+      Throwable failure = null;
+      try {
+        evaluate();
+      } catch (RuntimeException | Error e) {
+        failure = e;
+      }
+      onCompletion.accept(failure);
+    }
+
+    private void evaluate() {
+      if (to - from <= CHUNK_SIZE) {
+        evaluateSequentially();
+      } else {
+        int middle = (from + to) >>> 1;
+        EvaluationTask<T> left = new EvaluationTask<>(rules, evaluation, results, from, middle);
+        EvaluationTask<T> right = new EvaluationTask<>(rules, evaluation, results, middle, to);
+        // unlike invokeAll, waits for both halves before rethrowing the failure of one of them
+        right.fork();
+        left.quietlyInvoke();
+        right.quietlyJoin();
+        left.join();
+        right.join();
+      }
+    }
+
+    private void evaluateSequentially() {
+      for (int i = from; i < to; i++) {
+        results[i] = evaluation.apply(rules.get(i));
+      }
+    }
+  }
+}
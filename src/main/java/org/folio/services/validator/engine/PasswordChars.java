@@ -0,0 +1,120 @@
+package org.folio.services.validator.engine;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Password held in a char array the engine evaluates the rules against, the way {@link String} is never made
+ * of it unless a rule needs one, e.g. to send the password to another module.
+ * The array is zeroed by {@link #wipe()} as soon as the validation completes, so the plain text does not wait
+ * for the garbage collector. Sub sequences are views of the same array and are wiped with it.
+ * <p>
+ * RegExp, Similarity and Strength rules read the chars, the local history hashes a copy zeroed once hashed.
+ * A string copy is still made for Programmatic rules, sent the password as json, and by the request parsing:
+ * the entity of <code>POST /password/validate</code> and <code>POST /password/history</code> holds the password
+ * as a string until collected, the chars only keep the validation from adding copies of its own.
+ */
+public final class PasswordChars implements CharSequence {
+
+  private static final PasswordChars EMPTY = new PasswordChars(new char[0], 0, 0);
+
+  private final char[] chars;
+  private final int offset;
+  private final int length;
+
+  private PasswordChars(char[] chars, int offset, int length) {
+    this.chars = chars;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /**
+   * Copies the password into a new array, the caller should drop its own reference to the string
+   *
+   * @param password password, null is taken as empty
+   * @return password chars
+   */
+  public static PasswordChars of(String password) {
+    return password == null || password.isEmpty() ? EMPTY : wrap(password.toCharArray());
+  }
+
+  /**
+   * Takes the array without copying, it is wiped with the password
+   *
+   * @param chars password chars
+   * @return password chars
+   */
+  public static PasswordChars wrap(char[] chars) {
+    return new PasswordChars(chars, 0, chars.length);
+  }
+
+  /**
+   * Decodes UTF-8 bytes, the intermediate buffer is wiped
+   *
+   * @param bytes UTF-8 bytes of the password, left to the caller to wipe
+   * @return password chars
+   */
+  static PasswordChars decode(byte[] bytes) {
+    CharBuffer decoded = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(bytes));
+    try {
+      return wrap(Arrays.copyOfRange(decoded.array(), decoded.arrayOffset(), decoded.arrayOffset() + decoded.limit()));
+    } finally {
+      Arrays.fill(decoded.array(), '\0');
+    }
+  }
+
+  /**
+   * Encodes the password as UTF-8 bytes, the caller must wipe them once used
+   *
+   * @return UTF-8 bytes
+   */
+  byte[] encode() {
+    ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(chars, offset, length));
+    try {
+      return Arrays.copyOfRange(encoded.array(), encoded.arrayOffset(), encoded.arrayOffset() + encoded.limit());
+    } finally {
+      Arrays.fill(encoded.array(), (byte) 0);
+    }
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (index < 0 || index >= length) {
+      throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+    }
+    return chars[offset + index];
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    if (start < 0 || end > length || start > end) {
+      throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+    }
+    return new PasswordChars(chars, offset + start, end - start);
+  }
+
+  /**
+   * Zeroes the chars, the password reads as NUL characters afterwards
+   */
+  public void wipe() {
+    Arrays.fill(chars, offset, offset + length, '\0');
+  }
+
+  /**
+   * Returns a string copy of the password which stays in memory until collected,
+   * only for the rules which cannot work on the chars
+   *
+   * @return password as string
+   */
+  @Override
+  public String toString() {
+    return new String(chars, offset, length);
+  }
+}
@@ -0,0 +1,86 @@
+package org.folio.services.validator.engine;
+
+import static org.folio.rest.RestVerticle.OKAPI_HEADER_TENANT;
+import static org.folio.rest.RestVerticle.OKAPI_HEADER_TOKEN;
+
+import java.util.Map;
+
+import org.folio.services.validator.tracing.Span;
+import org.folio.services.validator.tracing.Tracer;
+
+/**
+ * Okapi request headers the validation engine needs to call other modules: Okapi URL, tenant and token,
+ * and the trace context of the request. Built once per request from the incoming headers,
+ * the rest of the headers is not forwarded.
+ */
+public final class RequestContext {
+
+  private static final String OKAPI_URL_HEADER = "x-okapi-url";
+
+  private final String okapiUrl;
+  private final String tenantId;
+  private final String token;
+  private final String traceparent;
+
+  public RequestContext(String okapiUrl, String tenantId, String token) {
+    this(okapiUrl, tenantId, token, null);
+  }
+
+  public RequestContext(String okapiUrl, String tenantId, String token, String traceparent) {
+    this.okapiUrl = okapiUrl;
+    this.tenantId = tenantId;
+    this.token = token;
+    this.traceparent = traceparent;
+  }
+
+  /**
+   * Creates request context from the request headers without copying them
+   *
+   * @param headers request headers, names are case insensitive
+   * @return request context
+   */
+  public static RequestContext fromHeaders(Map<String, String> headers) {
+    return new RequestContext(getHeader(headers, OKAPI_URL_HEADER), getHeader(headers, OKAPI_HEADER_TENANT),
+      getHeader(headers, OKAPI_HEADER_TOKEN), getHeader(headers, Tracer.TRACEPARENT_HEADER));
+  }
+
+  /**
+   * Returns the same context in the trace of the given span
+   *
+   * @param span span the engine spans are children of
+   * @return request context
+   */
+  public RequestContext withSpan(Span span) {
+    return new RequestContext(okapiUrl, tenantId, token, span.getTraceparent());
+  }
+
+  public String getOkapiUrl() {
+    return okapiUrl;
+  }
+
+  public String getTenantId() {
+    return tenantId;
+  }
+
+  public String getToken() {
+    return token;
+  }
+
+  public String getTraceparent() {
+    return traceparent;
+  }
+
+  private static String getHeader(Map<String, String> headers, String name) {
+    String value = headers.get(name);
+    if (value != null) {
+      return value;
+    }
+    // the exact name is found at once in the usual case, other spellings need a scan
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      if (name.equalsIgnoreCase(header.getKey())) {
+        return header.getValue();
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,381 @@
+package org.folio.services.validator.engine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.rest.jaxrs.model.Rule;
+import org.folio.services.validator.regex.CompiledExpression;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Dry run of a candidate RegExp rule: evaluates the rule through {@link CompiledRule} against sample passwords,
+ * measures evaluation time and estimates the risk of catastrophic backtracking of its expression.
+ * <p>
+ * The risk is estimated twice: by looking for nested and overlapping unbounded quantifiers in the expression,
+ * and by timing adversarial inputs of growing length, an evaluation is abandoned once it exceeds the deadline.
+ * The samples of a run share a time budget, the samples left once it is spent are skipped.
+ * Constructs found in an expression matched by the {@link Rule.RegexBackend#DFA} backend are reported
+ * without raising the risk, the automaton does not backtrack.
+ * Nothing is stored, the rule is never seen by the validations.
+ */
+final class RuleBenchmark {
+
+  static final String RISK_LOW = "Low";
+  static final String RISK_MEDIUM = "Medium";
+  static final String RISK_HIGH = "High";
+
+  private static final String DEFAULT_USER_NAME = "user";
+  private static final int GENERATED_RANDOM_SAMPLES = 200;
+  private static final int[] GROWTH_LENGTHS = {16, 32, 64};
+  // Time growth from the shortest to the longest adversarial input expected of a linear match, with a margin
+  private static final double LINEAR_GROWTH_LIMIT = 16;
+  // Adversarial inputs faster than this are too short to judge the growth by
+  private static final long MIN_GROWTH_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  // Every adversarial input is timed by its fastest run, a pause of the collector or the compiler is not growth
+  private static final int GROWTH_RUNS = 3;
+  private static final List<String> COMMON_PASSWORDS = Arrays.asList("password", "123456", "12345678", "qwerty",
+    "abc123", "Password1", "P@ssw0rd!", "letmein", "iloveyou", "admin", "welcome1", "Zażółć-gęślą-1");
+  private static final String[] ADVERSARIAL_UNITS = {"a", "A", "1", " ", "!", "aA1!", "ab", "\t"};
+  private static final String ADVERSARIAL_SUFFIX = "\u0000";
+  private static final String RANDOM_ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789!@#$%^&*()-_=+ ";
+
+  private static final long DEFAULT_BUDGET_MILLIS = 5_000;
+
+  private final long deadlineNanos;
+  private final long budgetNanos;
+
+  RuleBenchmark(long deadlineMillis) {
+    this(deadlineMillis, DEFAULT_BUDGET_MILLIS);
+  }
+
+  RuleBenchmark(long deadlineMillis, long budgetMillis) {
+    this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+    this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+  }
+
+  /**
+   * Runs the rule against the given or generated passwords
+   *
+   * @param rule      candidate RegExp rule
+   * @param passwords sample passwords, generated ones including adversarial inputs are used if empty
+   * @param userName  user name substituted into the expression, a sample one is used if null
+   * @return benchmark result as json
+   */
+  JsonObject run(Rule rule, List<String> passwords, String userName) {
+    CompiledRule compiledRule = CompiledRule.compile(rule);
+    CompiledExpression expression = compiledRule.getExpression(userName == null ? DEFAULT_USER_NAME : userName);
+    List<String> samples = passwords == null || passwords.isEmpty() ? generateSamples() : passwords;
+
+    long[] durations = new long[samples.size()];
+    int evaluated = 0;
+    int passed = 0;
+    int timedOut = 0;
+    int skipped = 0;
+    long totalNanos = 0;
+    long budgetEnd = System.nanoTime() + budgetNanos;
+    for (String sample : samples) {
+      long start = System.nanoTime();
+      long deadline = start + deadlineNanos;
+      if (start >= budgetEnd) {
+        skipped++;
+        continue;
+      }
+      Boolean matches = matches(expression, sample, Math.min(deadline, budgetEnd));
+      long duration = System.nanoTime() - start;
+      if (matches == null) {
+        if (deadline > budgetEnd) {
+          skipped++;
+        } else {
+          timedOut++;
+        }
+        continue;
+      }
+      durations[evaluated++] = duration;
+      totalNanos += duration;
+      if (matches) {
+        passed++;
+      }
+    }
+    Arrays.sort(durations, 0, evaluated);
+
+    List<String> riskReasons = new ArrayList<>(analyzeExpression(rule.getExpression()));
+    if (timedOut > 0) {
+      riskReasons.add(String.format("%d sample(s) exceeded the %d ms evaluation deadline", timedOut,
+        TimeUnit.NANOSECONDS.toMillis(deadlineNanos)));
+    }
+    String growthReason = measureGrowth(expression);
+    if (growthReason != null) {
+      riskReasons.add(growthReason);
+    }
+
+    return new JsonObject()
+      .put("samples", samples.size())
+      .put("generatedSamples", passwords == null || passwords.isEmpty())
+      .put("passed", passed)
+      .put("passRate", evaluated == 0 ? 0.0 : (double) passed / evaluated)
+      .put("timedOut", timedOut)
+      .put("skipped", skipped)
+      .put("meanMillis", evaluated == 0 ? 0.0 : toMillis(totalNanos) / evaluated)
+      .put("p99Millis", evaluated == 0 ? 0.0 : toMillis(durations[(int) Math.ceil(0.99 * evaluated) - 1]))
+      .put("maxMillis", evaluated == 0 ? 0.0 : toMillis(durations[evaluated - 1]))
+      .put("regexBackend", expression.getBackend().value())
+      .put("backtrackingRisk", riskOf(riskReasons, timedOut > 0 || growthReason != null, expression.getBackend()))
+      .put("riskReasons", new JsonArray(riskReasons));
+  }
+
+  /**
+   * Looks for the expression constructs known to backtrack: a repeated group containing an unbounded quantifier,
+   * a group with an alternation repeated without bound and adjacent unbounded quantifiers
+   *
+   * @param expression regular expression
+   * @return reasons of the risk, empty if none found
+   */
+  static List<String> analyzeExpression(String expression) {
+    List<String> reasons = new ArrayList<>();
+    // for every open group: whether it contains an unbounded quantifier and whether it contains an alternation
+    Deque<boolean[]> groups = new ArrayDeque<>();
+    groups.push(new boolean[2]);
+    boolean previousUnbounded = false;
+    int i = 0;
+    while (i < expression.length()) {
+      char c = expression.charAt(i);
+      if (c == '(') {
+        groups.push(new boolean[2]);
+        previousUnbounded = false;
+        i++;
+        continue;
+      }
+      if (c == '|') {
+        groups.peek()[1] = true;
+        previousUnbounded = false;
+        i++;
+        continue;
+      }
+      if (c == '^' || c == '$') {
+        i++;
+        continue;
+      }
+      int tokenEnd = tokenEnd(expression, i);
+      int quantifierEnd = unboundedQuantifierEnd(expression, tokenEnd);
+      boolean unbounded = quantifierEnd > 0;
+      if (c == ')' && groups.size() > 1) {
+        boolean[] group = groups.pop();
+        if (group[0] && repeatingQuantifierEnd(expression, tokenEnd, false) > 0) {
+          reasons.add("Nested quantifiers at " + i + ": a repeated group contains an unbounded quantifier");
+        } else if (unbounded && group[1]) {
+          reasons.add("Alternation repeated without bound at " + i + ": overlapping branches backtrack");
+        }
+        if (group[0]) {
+          groups.peek()[0] = true;
+        }
+      } else if (unbounded && previousUnbounded) {
+        reasons.add("Adjacent unbounded quantifiers at " + i + ": the input can be split between them in many ways");
+      }
+      if (unbounded) {
+        groups.peek()[0] = true;
+      }
+      previousUnbounded = unbounded;
+      i = unbounded ? quantifierEnd : tokenEnd;
+    }
+    return reasons;
+  }
+
+  /**
+   * Returns the index after the token starting at the index: an escaped character, a character class or a character
+   */
+  private static int tokenEnd(String expression, int index) {
+    char c = expression.charAt(index);
+    if (c == '\\') {
+      return Math.min(index + 2, expression.length());
+    }
+    if (c == '[') {
+      int i = index + 1;
+      while (i < expression.length() && expression.charAt(i) != ']') {
+        i += expression.charAt(i) == '\\' ? 2 : 1;
+      }
+      return Math.min(i + 1, expression.length());
+    }
+    return index + 1;
+  }
+
+  /**
+   * Returns the index after the unbounded quantifier (*, +, {n,}) starting at the index, 0 if there is none there
+   */
+  private static int unboundedQuantifierEnd(String expression, int index) {
+    return repeatingQuantifierEnd(expression, index, true);
+  }
+
+  /**
+   * Returns the index after the quantifier starting at the index which may repeat the token more than once,
+   * 0 if there is none there
+   *
+   * @param unboundedOnly true to accept only the quantifiers without upper bound
+   */
+  private static int repeatingQuantifierEnd(String expression, int index, boolean unboundedOnly) {
+    if (index >= expression.length()) {
+      return 0;
+    }
+    char c = expression.charAt(index);
+    int end = 0;
+    if (c == '*' || c == '+') {
+      end = index + 1;
+    } else if (c == '{') {
+      int close = expression.indexOf('}', index);
+      String[] bounds = close > 0 ? expression.substring(index + 1, close).split(",", -1) : new String[0];
+      String max = bounds.length == 0 ? null : bounds[bounds.length - 1].trim();
+      if (max != null && (max.isEmpty() ? bounds.length == 2 : !unboundedOnly && isRepeatingBound(max))) {
+        end = close + 1;
+      }
+    }
+    // possessive quantifiers never backtrack
+    if (end > 0 && end < expression.length() && expression.charAt(end) == '+') {
+      return 0;
+    }
+    if (end > 0 && end < expression.length() && expression.charAt(end) == '?') {
+      end++;
+    }
+    return end;
+  }
+
+  private static boolean isRepeatingBound(String max) {
+    try {
+      return Integer.parseInt(max) > 1;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Times adversarial inputs of growing length, a match time growing much faster than the input reveals backtracking
+   *
+   * @return reason of the risk or null if the time grows linearly
+   */
+  private String measureGrowth(CompiledExpression expression) {
+    for (String unit : ADVERSARIAL_UNITS) {
+      long[] nanos = new long[GROWTH_LENGTHS.length];
+      for (int i = 0; i < GROWTH_LENGTHS.length; i++) {
+        String input = repeat(unit, GROWTH_LENGTHS[i]) + ADVERSARIAL_SUFFIX;
+        nanos[i] = Long.MAX_VALUE;
+        for (int run = 0; run < GROWTH_RUNS; run++) {
+          long start = System.nanoTime();
+          if (matches(expression, input, start + deadlineNanos) == null) {
+            return String.format("Input of %d repeated '%s' exceeded the evaluation deadline", GROWTH_LENGTHS[i], unit);
+          }
+          nanos[i] = Math.min(nanos[i], System.nanoTime() - start);
+        }
+      }
+      long longest = nanos[nanos.length - 1];
+      if (longest > MIN_GROWTH_NANOS && longest > LINEAR_GROWTH_LIMIT * Math.max(1, nanos[0])) {
+        return String.format("Evaluation time of repeated '%s' grows from %.3f ms to %.3f ms for %d times longer input",
+          unit, toMillis(nanos[0]), toMillis(longest), GROWTH_LENGTHS[GROWTH_LENGTHS.length - 1] / GROWTH_LENGTHS[0]);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Matches the input abandoning the match after the deadline
+   *
+   * @return match result or null if the deadline is exceeded
+   */
+  private static Boolean matches(CompiledExpression expression, String input, long deadline) {
+    try {
+      return expression.matches(new DeadlineCharSequence(input, deadline));
+    } catch (DeadlineExceededException e) {
+      return null;
+    }
+  }
+
+  private static String riskOf(List<String> riskReasons, boolean measured, Rule.RegexBackend backend) {
+    if (measured) {
+      return RISK_HIGH;
+    }
+    if (Rule.RegexBackend.DFA.equals(backend)) {
+      return RISK_LOW;
+    }
+    if (riskReasons.stream().anyMatch(reason -> reason.startsWith("Nested"))) {
+      return RISK_HIGH;
+    }
+    return riskReasons.isEmpty() ? RISK_LOW : RISK_MEDIUM;
+  }
+
+  private static List<String> generateSamples() {
+    List<String> samples = new ArrayList<>(COMMON_PASSWORDS);
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int i = 0; i < GENERATED_RANDOM_SAMPLES; i++) {
+      int length = 4 + random.nextInt(29);
+      StringBuilder sample = new StringBuilder(length);
+      for (int j = 0; j < length; j++) {
+        sample.append(RANDOM_ALPHABET.charAt(random.nextInt(RANDOM_ALPHABET.length())));
+      }
+      samples.add(sample.toString());
+    }
+    for (String unit : ADVERSARIAL_UNITS) {
+      samples.add(repeat(unit, 32) + ADVERSARIAL_SUFFIX);
+    }
+    return samples;
+  }
+
+  private static String repeat(String unit, int length) {
+    StringBuilder result = new StringBuilder(length);
+    while (result.length() < length) {
+      result.append(unit);
+    }
+    return result.substring(0, length);
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+
+  /**
+   * Input failing the match once the deadline is exceeded, the matcher reads the input on every step
+   */
+  private static final class DeadlineCharSequence implements CharSequence {
+    private final String value;
+    private final long deadline;
+
+    private DeadlineCharSequence(String value, long deadline) {
+      this.value = value;
+      this.deadline = deadline;
+    }
+
+    @Override
+    public int length() {
+      return value.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+      if (System.nanoTime() > deadline) {
+        throw new DeadlineExceededException();
+      }
+      return value.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return new DeadlineCharSequence(value.substring(start, end), deadline);
+    }
+
+    @Override
+    public String toString() {
+      return value;
+    }
+  }
+
+  private static final class DeadlineExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private DeadlineExceededException() {
+      super(null, null, false, false);
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package org.folio.services.validator.engine;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.jaxrs.model.Rule;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Evaluation time histograms, rejection and error counters of the rules by tenant and rule id.
+ * Counters are updated without locks, so rules evaluated in parallel record their time concurrently.
+ * A rule whose evaluation exceeds the warning threshold is logged once.
+ * The statistics of a tenant are dropped once its rule set changes, so deleted and replaced rules are not kept.
+ */
+final class RuleStatistics {
+
+  // Upper bounds of the histogram buckets in microseconds, the last bucket has no upper bound
+  private static final long[] BUCKET_BOUNDS_MICROS = {10, 50, 100, 500, 1_000, 5_000, 10_000, 50_000, 100_000, 500_000, 1_000_000};
+  private static final double MICROS_PER_MILLI = 1_000.0;
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  private final Logger logger = LogManager.getLogger(RuleStatistics.class);
+
+  private final Map<String, Map<String, Stats>> tenantStats = new ConcurrentHashMap<>();
+  private final long warningThresholdNanos;
+
+  RuleStatistics(long warningThresholdMillis) {
+    this.warningThresholdNanos = TimeUnit.MILLISECONDS.toNanos(warningThresholdMillis);
+  }
+
+  /**
+   * Records evaluation of the rule
+   *
+   * @param tenantId tenant id
+   * @param rule     evaluated rule
+   * @param backend  backend matching the expression of a RegExp rule, null for other rules
+   * @param nanos    evaluation time
+   * @param rejected true if the rule rejected the password
+   * @param failed   true if the evaluation failed with an error
+   */
+  void record(String tenantId, Rule rule, Rule.RegexBackend backend, long nanos, boolean rejected, boolean failed) {
+    // looked up before computeIfAbsent, its lambda capturing this would be allocated on every evaluation
+    Map<String, Stats> rules = tenantStats.get(tenantId);
+    if (rules == null) {
+      rules = tenantStats.computeIfAbsent(tenantId, id -> new ConcurrentHashMap<>());
+    }
+    Stats stats = rules.get(rule.getRuleId());
+    if (stats == null) {
+      stats = rules.computeIfAbsent(rule.getRuleId(), id -> new Stats(rule, backend));
+    }
+    stats.evaluations.increment();
+    stats.totalNanos.add(nanos);
+    stats.maxNanos.accumulate(nanos);
+    stats.buckets[bucketOf(nanos)].increment();
+    if (rejected) {
+      stats.rejected.increment();
+    }
+    if (failed) {
+      stats.errors.increment();
+    }
+    if (nanos > warningThresholdNanos && stats.warned.compareAndSet(false, true)) {
+      logger.warn("Evaluation of rule {} ({}) of tenant {} took {} ms",
+        rule.getRuleId(), rule.getName(), tenantId, TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+  }
+
+  /**
+   * Removes the statistics of the tenant rules
+   *
+   * @param tenantId tenant id
+   */
+  void removeTenant(String tenantId) {
+    tenantStats.remove(tenantId);
+  }
+
+  /**
+   * Returns statistics of the slowest rules of the tenant ordered by the 99th percentile and the mean evaluation time
+   *
+   * @param tenantId tenant id
+   * @param limit    maximum number of rules to return
+   * @return rule statistics collection as json
+   */
+  JsonObject getSlowestRules(String tenantId, int limit) {
+    List<JsonObject> rules = new ArrayList<>();
+    tenantStats.getOrDefault(tenantId, Map.of()).forEach((ruleId, stats) -> rules.add(stats.toJson(ruleId)));
+    rules.sort(Comparator.<JsonObject>comparingDouble(rule -> rule.getDouble("p99Millis"))
+      .thenComparingDouble(rule -> rule.getDouble("meanMillis"))
+      .reversed());
+    return new JsonObject()
+      .put("rules", new JsonArray(new ArrayList<>(rules.subList(0, Math.min(limit, rules.size())))))
+      .put("warningThresholdMillis", warningThresholdNanos / NANOS_PER_MILLI)
+      .put("totalRecords", rules.size());
+  }
+
+  private static int bucketOf(long nanos) {
+    long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+    int bucket = 0;
+    while (bucket < BUCKET_BOUNDS_MICROS.length && micros > BUCKET_BOUNDS_MICROS[bucket]) {
+      bucket++;
+    }
+    return bucket;
+  }
+
+  private final class Stats {
+    private final String name;
+    private final String type;
+    private final String regexBackend;
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MICROS.length + 1];
+    private final AtomicBoolean warned = new AtomicBoolean();
+
+    private Stats(Rule rule, Rule.RegexBackend backend) {
+      name = rule.getName();
+      type = rule.getType() == null ? null : rule.getType().value();
+      regexBackend = backend == null ? null : backend.value();
+      for (int i = 0; i < buckets.length; i++) {
+        buckets[i] = new LongAdder();
+      }
+    }
+
+    private JsonObject toJson(String ruleId) {
+      long[] counts = new long[buckets.length];
+      long count = 0;
+      for (int i = 0; i < buckets.length; i++) {
+        counts[i] = buckets[i].sum();
+        count += counts[i];
+      }
+      double maxMillis = maxNanos.get() / NANOS_PER_MILLI;
+      double p99Millis = percentile(counts, count, 0.99, maxMillis);
+      JsonArray histogram = new JsonArray();
+      for (int i = 0; i < counts.length; i++) {
+        JsonObject bucket = new JsonObject();
+        if (i < BUCKET_BOUNDS_MICROS.length) {
+          bucket.put("upperBoundMillis", BUCKET_BOUNDS_MICROS[i] / MICROS_PER_MILLI);
+        }
+        histogram.add(bucket.put("count", counts[i]));
+      }
+      return new JsonObject()
+        .put("ruleId", ruleId)
+        .put("name", name)
+        .put("type", type)
+        .put("regexBackend", regexBackend)
+        .put("evaluations", count)
+        .put("rejected", rejected.sum())
+        .put("errors", errors.sum())
+        .put("rejectionRate", count == 0 ? 0.0 : (double) rejected.sum() / count)
+        .put("errorRate", count == 0 ? 0.0 : (double) errors.sum() / count)
+        .put("meanMillis", count == 0 ? 0.0 : totalNanos.sum() / NANOS_PER_MILLI / count)
+        .put("p50Millis", percentile(counts, count, 0.5, maxMillis))
+        .put("p99Millis", p99Millis)
+        .put("maxMillis", maxMillis)
+        .put("slow", p99Millis * NANOS_PER_MILLI > warningThresholdNanos)
+        .put("histogram", histogram);
+    }
+
+    private double percentile(long[] counts, long count, double quantile, double maxMillis) {
+      long rank = (long) Math.ceil(quantile * count);
+      long cumulative = 0;
+      for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+        cumulative += counts[i];
+        if (cumulative >= rank && cumulative > 0) {
+          return Math.min(BUCKET_BOUNDS_MICROS[i] / MICROS_PER_MILLI, maxMillis);
+        }
+      }
+      return maxMillis;
+    }
+  }
+}
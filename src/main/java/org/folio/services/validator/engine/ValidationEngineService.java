@@ -41,4 +41,21 @@ public interface ValidationEngineService {
    */
   void validatePassword(String userId, String password, Map<String, String> headers,
                         Handler<AsyncResult<JsonObject>> resultHandler);
+
+  /**
+   * Returns evaluation statistics of the slowest rules of the tenant
+   *
+   * @param tenantId      tenant id
+   * @param limit         maximum number of rules to return
+   * @param resultHandler handler with rule statistics collection
+   */
+  void getRuleStatistics(String tenantId, int limit, Handler<AsyncResult<JsonObject>> resultHandler);
+
+  /**
+   * Runs a candidate RegExp rule against sample passwords without saving it
+   *
+   * @param benchmarkRequest candidate rule, sample passwords and user name
+   * @param resultHandler    handler with pass rate, evaluation time and backtracking risk of the rule
+   */
+  void benchmarkRule(JsonObject benchmarkRequest, Handler<AsyncResult<JsonObject>> resultHandler);
 }
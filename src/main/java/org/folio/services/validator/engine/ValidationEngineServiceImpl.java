@@ -5,32 +5,38 @@ import static org.folio.rest.RestVerticle.OKAPI_HEADER_TENANT;
 import static org.folio.rest.RestVerticle.OKAPI_HEADER_TOKEN;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.ws.rs.core.MediaType;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.folio.HttpStatus;
 import org.folio.rest.jaxrs.model.Rule;
-import org.folio.rest.jaxrs.model.RuleCollection;
+import org.folio.services.validator.history.PasswordHistoryServiceImpl;
 import org.folio.services.validator.registry.ValidatorRegistryService;
+import org.folio.services.validator.similarity.ApproximateMatcher;
+import org.folio.services.validator.strength.PasswordStrengthEstimator;
+import org.folio.services.validator.strength.StrengthEstimate;
+import org.folio.services.validator.tracing.Span;
+import org.folio.services.validator.tracing.Tracer;
 import org.folio.services.validator.util.ValidatorHelper;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
-import io.vertx.core.MultiMap;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
-import io.vertx.core.logging.Logger;
-import io.vertx.core.logging.LoggerFactory;
 import io.vertx.ext.web.client.HttpRequest;
 import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.ext.web.client.WebClient;
@@ -47,27 +53,58 @@ import io.vertx.ext.web.client.WebClientOptions;
  */
 public class ValidationEngineServiceImpl implements ValidationEngineService {
 
-  private static final String OKAPI_URL_HEADER = "x-okapi-url";
-  private static final String REGEXP_USER_NAME_PLACEHOLDER = "<USER_NAME>";
+  private static final String OKAPI_HEALTH_PATH = "/_/proxy/health";
+  private static final int DEFAULT_MIN_STRENGTH_SCORE = 3;
+  private static final int DEFAULT_MAX_EDIT_DISTANCE = 1;
+  private static final int MIN_SIMILARITY_FIELD_LENGTH = 3;
 
   // Logger
-  private final Logger logger = LoggerFactory
+  private final Logger logger = LogManager
     .getLogger(ValidationEngineServiceImpl.class);
   // Timeout to wait for response
   private int lookupTimeout = Integer
     .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("lookup.timeout", "1000"));
   // Repository component to validation obtain rules
   private ValidatorRegistryService validatorRegistryProxy;
+  // Local password history to check LocalHistory rules
+  private PasswordHistoryServiceImpl passwordHistory;
   // Http client to call programmatic rules as internal OKAPI endpoints
   private WebClient webClient;
+  // Worker pool running the rule benchmarks, kept apart from the pool hashing the password history
+  private WorkerExecutor benchmarkExecutor;
+  // Evaluator of the rules which do not need remote calls, switches to parallel evaluation for large rule sets
+  private final LocalRulesEvaluator localRulesEvaluator = new LocalRulesEvaluator();
+  // Compiled enabled rules of the tenants
+  private final EnabledRulesCache rulesCache;
+  // Validations in flight by the keyed hash of the request, shared by the engine instances
+  private static final Map<String, Future<ValidationResult>> IN_FLIGHT_VALIDATIONS = new ConcurrentHashMap<>();
+  private static final ThreadLocal<InFlightKeys> IN_FLIGHT_KEYS = ThreadLocal.withInitial(InFlightKeys::new);
+  // Evaluation statistics of the rules, shared by the engine instances
+  private static final RuleStatistics RULE_STATISTICS = new RuleStatistics(Long
+    .parseLong(MODULE_SPECIFIC_ARGS.getOrDefault("validation.rule.slow.threshold", "10")));
+  private static final RuleBenchmark RULE_BENCHMARK = new RuleBenchmark(
+    Long.parseLong(MODULE_SPECIFIC_ARGS.getOrDefault("validation.benchmark.deadline", "100")),
+    Long.parseLong(MODULE_SPECIFIC_ARGS.getOrDefault("validation.benchmark.budget", "5000")));
+  private static final String RULE_BENCHMARK_POOL = "rule-benchmark";
 
   public ValidationEngineServiceImpl() {
+    this.rulesCache = new EnabledRulesCache(this::getEnabledTenantRules);
   }
 
   public ValidationEngineServiceImpl(final Vertx vertx) {
+    this(vertx, EnabledRulesCache.create(vertx));
+  }
+
+  public ValidationEngineServiceImpl(final Vertx vertx, final EnabledRulesCache rulesCache) {
     this.validatorRegistryProxy = ValidatorRegistryService
       .createProxy(vertx, ValidatorHelper.REGISTRY_SERVICE_ADDRESS);
+    this.passwordHistory = new PasswordHistoryServiceImpl(vertx);
+    this.rulesCache = rulesCache;
+    this.benchmarkExecutor = vertx.createSharedWorkerExecutor(RULE_BENCHMARK_POOL,
+      Integer.parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("validation.benchmark.pool.size", "1")));
     initWebClient(vertx);
+    vertx.eventBus().<String>consumer(ValidatorHelper.RULES_CHANGED_ADDRESS,
+      message -> RULE_STATISTICS.removeTenant(message.body()));
   }
 
   private void initWebClient(final Vertx vertx) {
@@ -77,77 +114,236 @@ public class ValidationEngineServiceImpl implements ValidationEngineService {
 
   /**
    * Validates received password.
-   * Calls ValidationRegistry service to obtain rules specific to tenant,
-   * runs rules to validate password in one loop,
-   * pushes validation result into result handler to return.
    *
    * @param password       received password for validation
    * @param requestHeaders request headers needed for access backend FOLIO services to perform programmatic rules validation
    * @param resultHandler  handler with validation results in format <Status, Message>
+   * @see #validate(ValidationRequest)
    */
-
   @Override
   public void validatePassword(final String userId,
                                final String password,
                                final Map<String, String> requestHeaders,
                                final Handler<AsyncResult<JsonObject>> resultHandler) {
-    MultiMap caseInsensitiveHeaders = MultiMap.caseInsensitiveMultiMap().addAll(requestHeaders);
-    String tenantId = caseInsensitiveHeaders.get(OKAPI_HEADER_TENANT);
-    validatorRegistryProxy.getAllTenantRules(tenantId, 500, 0, "query=state=Enabled", rulesResponse -> {
+    validate(ValidationRequest.of(userId, password, requestHeaders))
+      .map(ValidationResult::toJson)
+      .onComplete(resultHandler);
+  }
+
+  /**
+   * Validates received password.
+   * Concurrent requests with the same tenant, user, password, Okapi URL and token share one evaluation:
+   * the request joins the evaluation in flight, if any, otherwise starts a new one.
+   * The password chars of the request are wiped once every rule reading them completed.
+   *
+   * @param request validation request
+   * @return future with validation result
+   */
+  public Future<ValidationResult> validate(final ValidationRequest request) {
+    String key = IN_FLIGHT_KEYS.get().keyOf(request);
+    Promise<ValidationResult> promise = Promise.promise();
+    Future<ValidationResult> inFlight = IN_FLIGHT_VALIDATIONS.putIfAbsent(key, promise.future());
+    if (inFlight != null) {
+      request.getPassword().wipe();
+      return onCurrentContext(inFlight);
+    }
+    evaluate(request).onComplete(ar -> {
+      request.getPassword().wipe();
+      // later requests must see changes of the rules and of the password history
+      IN_FLIGHT_VALIDATIONS.remove(key, promise.future());
+      promise.handle(ar);
+    });
+    return promise.future();
+  }
+
+  /**
+   * Returns the future completed on the context of the caller:
+   * the joined evaluation may run on another engine instance and complete on its event loop
+   */
+  private static <T> Future<T> onCurrentContext(Future<T> future) {
+    Context context = Vertx.currentContext();
+    if (context == null) {
+      return future;
+    }
+    Promise<T> promise = Promise.promise();
+    future.onComplete(ar -> {
+      if (Vertx.currentContext() == context) {
+        promise.handle(ar);
+      } else {
+        context.runOnContext(v -> promise.handle(ar));
+      }
+    });
+    return promise.future();
+  }
+
+  /**
+   * Takes enabled rules specific to tenant sorted by order number from the cache,
+   * which calls ValidationRegistry service when the rules of the tenant are not cached,
+   * runs rules to validate password in one loop.
+   */
+  private Future<ValidationResult> evaluate(final ValidationRequest request) {
+    Promise<ValidationResult> promise = Promise.promise();
+    RequestContext context = request.getContext();
+    Span span = Tracer.startSpan("validation-engine validate", context.getTraceparent())
+      .setAttribute("tenant", context.getTenantId());
+    promise.future().onComplete(span::end);
+    Span rulesSpan = span.child("validation-engine enabled rules");
+    rulesCache.get(context.getTenantId(), rulesSpan.getTraceparent()).onComplete(rulesResponse -> {
+      rulesSpan.end(rulesResponse);
       if (rulesResponse.failed()) {
-        resultHandler.handle(Future.failedFuture(rulesResponse.cause().getMessage()));
+        promise.fail(rulesResponse.cause().getMessage());
         return;
       }
-      lookupUser(userId, caseInsensitiveHeaders).onComplete(lookupUserHandler -> {
+      lookupUser(request.getUserId(), context, span).onComplete(lookupUserHandler -> {
         if (lookupUserHandler.failed()) {
-          resultHandler.handle(Future.failedFuture(lookupUserHandler.cause().getMessage()));
+          promise.fail(lookupUserHandler.cause().getMessage());
           return;
         }
-        List<Rule> rules = rulesResponse.result().mapTo(RuleCollection.class).getRules();
-        prepareRulesBeforeValidation(rules, lookupUserHandler);
-        Future<List<String>> errorMessagesFuture = validatePasswordByRules(rules, userId, password, caseInsensitiveHeaders);
-        errorMessagesFuture.onComplete(asyncResult -> {
-          if (asyncResult.failed()) {
-            resultHandler.handle(Future.failedFuture(asyncResult.cause()));
-            return;
-          }
-          prepareResponse(asyncResult.result(), resultHandler);
-        });
+        CompiledRules rules = rulesResponse.result();
+        JsonObject user = lookupUserHandler.result();
+        StrengthEstimate strengthEstimate = estimateStrength(rules.getRules(), request.getPassword(), user);
+        List<String> userFields = getUserFields(user);
+        validatePasswordByRules(rules, request, span, user.getString("username"), strengthEstimate, userFields)
+          .onComplete(asyncResult -> {
+            if (asyncResult.failed()) {
+              promise.fail(asyncResult.cause());
+              return;
+            }
+            promise.complete(new ValidationResult(asyncResult.result(),
+              strengthEstimate == null ? null : strengthEstimate.getScore()));
+          });
       });
     });
+    return promise.future();
   }
 
-  private List<Rule> prepareRulesBeforeValidation(List<Rule> rules, AsyncResult<JsonObject> lookupUserHandler) {
-    JsonObject user = lookupUserHandler.result();
-    String userName = user.getString("username");
-    for (Rule rule : rules) {
-      if (Rule.Type.REG_EXP.equals(rule.getType())) {
-        rule.setExpression(rule.getExpression().replace(REGEXP_USER_NAME_PLACEHOLDER, userName));
+  @Override
+  public void getRuleStatistics(final String tenantId,
+                                final int limit,
+                                final Handler<AsyncResult<JsonObject>> resultHandler) {
+    resultHandler.handle(Future.succeededFuture(RULE_STATISTICS.getSlowestRules(tenantId, limit)));
+  }
+
+  /**
+   * Runs the benchmark on a thread of the benchmark worker pool, the samples may take up to the deadline each
+   * and up to the time budget of the run together
+   */
+  @Override
+  public void benchmarkRule(final JsonObject benchmarkRequest,
+                            final Handler<AsyncResult<JsonObject>> resultHandler) {
+    Context context = Vertx.currentContext();
+    Handler<Promise<JsonObject>> benchmark = promise -> {
+      try {
+        JsonArray passwords = benchmarkRequest.getJsonArray("passwords", new JsonArray());
+        List<String> samples = new ArrayList<>(passwords.size());
+        for (int i = 0; i < passwords.size(); i++) {
+          samples.add(passwords.getString(i));
+        }
+        Rule rule = benchmarkRequest.getJsonObject("rule").mapTo(Rule.class);
+        promise.complete(RULE_BENCHMARK.run(rule, samples, benchmarkRequest.getString("userName")));
+      } catch (Exception e) {
+        promise.fail(e);
       }
+    };
+    if (context == null || benchmarkExecutor == null) {
+      Promise<JsonObject> promise = Promise.promise();
+      benchmark.handle(promise);
+      promise.future().onComplete(resultHandler);
+    } else {
+      benchmarkExecutor.executeBlocking(benchmark, false, resultHandler);
+    }
+  }
+
+  /**
+   * Opens connections to Okapi ahead of the first validations;
+   * responses are ignored, the connections stay in the pool of the http client
+   *
+   * @param okapiUrl    Okapi URL
+   * @param connections number of connections to open
+   * @return future completed once every request is answered or failed
+   */
+  public Future<Void> openConnections(String okapiUrl, int connections) {
+    List<Future> requestFutures = new ArrayList<>(connections);
+    for (int i = 0; i < connections; i++) {
+      Promise<Void> promise = Promise.promise();
+      webClient.getAbs(okapiUrl + OKAPI_HEALTH_PATH).send(ar -> promise.complete());
+      requestFutures.add(promise.future());
     }
-    return rules.stream().sorted(Comparator.comparing(Rule::getOrderNo)).collect(Collectors.toList());
+    return CompositeFuture.join(requestFutures).mapEmpty();
   }
 
-  private Future<List<String>> validatePasswordByRules(final List<Rule> rules,
-                                                       final String userId,
-                                                       final String password,
-                                                       final MultiMap headers) {
-    List<String> errorMessages = new ArrayList<>(rules.size());
-    rules.sort(Comparator.comparing(Rule::getOrderNo));
+  private Future<JsonObject> getEnabledTenantRules(String tenantId, String traceparent) {
+    Promise<JsonObject> promise = Promise.promise();
+    validatorRegistryProxy.getEnabledTenantRules(tenantId, traceparent, promise);
+    return promise.future();
+  }
 
-    Promise<List<String>> promise = Promise.promise();
+  /**
+   * Estimates password strength once per validation if there is at least one Strength rule
+   *
+   * @return strength estimate or null if there are no Strength rules
+   */
+  private StrengthEstimate estimateStrength(List<CompiledRule> rules, PasswordChars password, JsonObject user) {
+    if (rules.stream().noneMatch(rule -> Rule.Type.STRENGTH.equals(rule.getRule().getType()))) {
+      return null;
+    }
+    return PasswordStrengthEstimator.getInstance().estimate(password, getUserFields(user));
+  }
+
+  /**
+   * Returns user specific values a password should not be based on:
+   * username, first and last name and local part of the email
+   */
+  private List<String> getUserFields(JsonObject user) {
+    JsonObject personal = user.getJsonObject("personal", new JsonObject());
+    String email = personal.getString("email");
+    String emailLocalPart = email == null || email.indexOf('@') < 0 ? email : email.substring(0, email.indexOf('@'));
+    List<String> userFields = new ArrayList<>(4);
+    for (String field : Arrays.asList(user.getString("username"), personal.getString("firstName"),
+      personal.getString("lastName"), emailLocalPart)) {
+      if (field != null && !field.isEmpty()) {
+        userFields.add(field);
+      }
+    }
+    return userFields;
+  }
+
+  private Future<List<String>> validatePasswordByRules(final CompiledRules rules,
+                                                       final ValidationRequest request,
+                                                       final Span span,
+                                                       final String userName,
+                                                       final StrengthEstimate strengthEstimate,
+                                                       final List<String> userFields) {
+    List<CompiledRule> localRules = new ArrayList<>(rules.getRules().size());
+    List<String> remoteErrorMessages = new ArrayList<>();
     List<Future> programmaticRulesFutures = new ArrayList<>();
-    for (Rule rule : rules) {
-      if (Rule.Type.REG_EXP.equals(rule.getType())) {
-        validatePasswordByRexExpRule(password, rule, errorMessages);
-      } else if (Rule.Type.PROGRAMMATIC.equals(rule.getType())) {
+    for (CompiledRule compiledRule : rules.getRules()) {
+      Rule rule = compiledRule.getRule();
+      if (Rule.Type.PROGRAMMATIC.equals(rule.getType())) {
         programmaticRulesFutures
-          .add(getValidatePasswordByProgrammaticRuleFuture(userId, password, rule, errorMessages, headers));
+          .add(getValidatePasswordByProgrammaticRuleFuture(request, span, rule, remoteErrorMessages));
+      } else if (Rule.Type.LOCAL_HISTORY.equals(rule.getType())) {
+        programmaticRulesFutures
+          .add(getValidatePasswordByLocalHistoryRuleFuture(request, span, rule, remoteErrorMessages));
+      } else {
+        localRules.add(compiledRule);
       }
     }
-    // Notify external method future handler when all programmatic rule futures complete
-    CompositeFuture.all(programmaticRulesFutures).onComplete(compositeFutureAsyncResult -> {
+    String tenantId = request.getContext().getTenantId();
+    CompiledRules.MergedMatches mergedMatches = rules.matchMergedExpressions(request.getPassword());
+    Future<List<String>> localErrorMessagesFuture = localRulesEvaluator.evaluate(localRules,
+      rule -> validatePasswordByLocalRule(tenantId, request.getPassword(), userName, strengthEstimate, userFields,
+        mergedMatches, rule));
+
+    Promise<List<String>> promise = Promise.promise();
+    // Notify external method future handler when local rules and all programmatic rule futures complete;
+    // join waits for all of them even if one fails, the password is wiped once the result is handled
+    List<Future> ruleFutures = new ArrayList<>(programmaticRulesFutures);
+    ruleFutures.add(localErrorMessagesFuture);
+    CompositeFuture.join(ruleFutures).onComplete(compositeFutureAsyncResult -> {
       if (compositeFutureAsyncResult.succeeded()) {
+        List<String> errorMessages = new ArrayList<>(localErrorMessagesFuture.result());
+        errorMessages.addAll(remoteErrorMessages);
         promise.complete(errorMessages);
       } else {
         promise.fail(compositeFutureAsyncResult.cause().getMessage());
@@ -156,23 +352,75 @@ public class ValidationEngineServiceImpl implements ValidationEngineService {
     return promise.future();
   }
 
-  private void validatePasswordByRexExpRule(final String password,
-                                            final Rule rule,
-                                            final List<String> errorMessages) {
-    String expression = rule.getExpression();
-    if (!Pattern.compile(expression).matcher(password).matches()) {
-      errorMessages.add(rule.getErrMessageId());
+  /**
+   * Validates password by the rule which does not need remote calls;
+   * may be called from the ForkJoin pool threads, so it must not change the engine state.
+   * A RegExp rule merged into the expression set of the tenant takes the result and the time of the shared scan
+   *
+   * @return error message id if the password does not satisfy the rule, null otherwise
+   */
+  private String validatePasswordByLocalRule(final String tenantId,
+                                             final CharSequence password,
+                                             final String userName,
+                                             final StrengthEstimate strengthEstimate,
+                                             final List<String> userFields,
+                                             final CompiledRules.MergedMatches mergedMatches,
+                                             final CompiledRule compiledRule) {
+    Rule rule = compiledRule.getRule();
+    if (compiledRule.getMergedIndex() >= 0) {
+      boolean valid = mergedMatches.matches(compiledRule);
+      RULE_STATISTICS.record(tenantId, rule, compiledRule.getRegexBackend(), mergedMatches.getScanNanos(), !valid, false);
+      return valid ? null : rule.getErrMessageId();
+    }
+    long start = System.nanoTime();
+    boolean valid = true;
+    try {
+      if (Rule.Type.REG_EXP.equals(rule.getType())) {
+        valid = isValidByRegExpRule(password, userName, compiledRule);
+      } else if (Rule.Type.STRENGTH.equals(rule.getType())) {
+        valid = isValidByStrengthRule(strengthEstimate, rule);
+      } else if (Rule.Type.SIMILARITY.equals(rule.getType())) {
+        valid = isValidBySimilarityRule(password, userFields, rule);
+      }
+    } catch (RuntimeException e) {
+      RULE_STATISTICS.record(tenantId, rule, compiledRule.getRegexBackend(), System.nanoTime() - start, false, true);
+      throw e;
+    }
+    RULE_STATISTICS.record(tenantId, rule, compiledRule.getRegexBackend(), System.nanoTime() - start, !valid, false);
+    return valid ? null : rule.getErrMessageId();
+  }
+
+  private boolean isValidByRegExpRule(final CharSequence password, final String userName, final CompiledRule compiledRule) {
+    return compiledRule.getExpression(userName).matches(password);
+  }
+
+  private boolean isValidByStrengthRule(final StrengthEstimate strengthEstimate, final Rule rule) {
+    int minScore = rule.getMinScore() == null ? DEFAULT_MIN_STRENGTH_SCORE : rule.getMinScore();
+    return strengthEstimate.getScore() >= minScore;
+  }
+
+  private boolean isValidBySimilarityRule(final CharSequence password, final List<String> userFields, final Rule rule) {
+    int maxEditDistance = rule.getMaxEditDistance() == null ? DEFAULT_MAX_EDIT_DISTANCE : rule.getMaxEditDistance();
+    for (String field : userFields) {
+      // too short values would be found in almost any password
+      if (field.length() >= MIN_SIMILARITY_FIELD_LENGTH && field.length() > 2 * maxEditDistance
+        && ApproximateMatcher.containsApproximately(password, field, maxEditDistance)) {
+        return false;
+      }
     }
+    return true;
   }
 
-  private Future<JsonObject> lookupUser(String userId, MultiMap headers) {
+  private Future<JsonObject> lookupUser(String userId, RequestContext context, Span parentSpan) {
     Promise<JsonObject> promise = Promise.promise();
-    String okapiUrl = headers.get(OKAPI_URL_HEADER);
-    String userNameRequestUrl = String.format("%s/users?query=id==%s", okapiUrl, userId);
+    Span span = startHttpSpan(parentSpan, "GET", "/users");
+    promise.future().onComplete(span::end);
+    String userNameRequestUrl = String.format("%s/users?query=id==%s", context.getOkapiUrl(), userId);
     HttpRequest<Buffer> request = webClient.getAbs(userNameRequestUrl);
     request
-      .putHeader(OKAPI_HEADER_TOKEN, headers.get(OKAPI_HEADER_TOKEN))
-      .putHeader(OKAPI_HEADER_TENANT, headers.get(OKAPI_HEADER_TENANT))
+      .putHeader(Tracer.TRACEPARENT_HEADER, span.getTraceparent())
+      .putHeader(OKAPI_HEADER_TOKEN, context.getToken())
+      .putHeader(OKAPI_HEADER_TENANT, context.getTenantId())
       .putHeader(HttpHeaders.CONTENT_TYPE.toString(), MediaType.APPLICATION_JSON)
       .putHeader(HttpHeaders.ACCEPT.toString(), MediaType.APPLICATION_JSON)
       .send(ar -> {
@@ -181,6 +429,7 @@ public class ValidationEngineServiceImpl implements ValidationEngineService {
           return;
         }
         HttpResponse<Buffer> response = ar.result();
+        span.setAttribute("http.status_code", response.statusCode());
         if (response.statusCode() != HttpStatus.HTTP_OK.toInt()) {
           promise.fail("Error getting user by user id : " + userId);
           return;
@@ -207,36 +456,48 @@ public class ValidationEngineServiceImpl implements ValidationEngineService {
     return promise.future();
   }
 
-  private Future<String> getValidatePasswordByProgrammaticRuleFuture(final String userId,
-                                                                     final String password,
+  private Future<String> getValidatePasswordByProgrammaticRuleFuture(final ValidationRequest request,
+                                                                     final Span parentSpan,
                                                                      final Rule rule,
-                                                                     final List<String> errorMessages,
-                                                                     final MultiMap headers) {
-    String okapiURL = headers.get(OKAPI_URL_HEADER);
-    String remoteModuleUrl = okapiURL + rule.getImplementationReference();
+                                                                     final List<String> errorMessages) {
+    RequestContext context = request.getContext();
+    String remoteModuleUrl = context.getOkapiUrl() + rule.getImplementationReference();
 
     Promise<String> promise = Promise.promise();
+    Span span = startHttpSpan(parentSpan, "POST", rule.getImplementationReference())
+      .setAttribute("rule.id", rule.getRuleId());
+    long start = System.nanoTime();
+    promise.future().onComplete(ar -> {
+      span.end(ar);
+      RULE_STATISTICS.record(context.getTenantId(), rule, null, System.nanoTime() - start,
+        ar.succeeded() && ar.result() != null, ar.failed());
+    });
     HttpRequest<Buffer> passwordValidationRequest = webClient.postAbs(remoteModuleUrl);
     passwordValidationRequest
-      .putHeader(OKAPI_HEADER_TOKEN, headers.get(OKAPI_HEADER_TOKEN))
-      .putHeader(OKAPI_HEADER_TENANT, headers.get(OKAPI_HEADER_TENANT))
+      .putHeader(Tracer.TRACEPARENT_HEADER, span.getTraceparent())
+      .putHeader(OKAPI_HEADER_TOKEN, context.getToken())
+      .putHeader(OKAPI_HEADER_TENANT, context.getTenantId())
       .putHeader(HttpHeaders.CONTENT_TYPE.toString(), MediaType.APPLICATION_JSON)
       .putHeader(HttpHeaders.ACCEPT.toString(), MediaType.APPLICATION_JSON)
-      .sendJsonObject(buildResetPasswordAction(userId, password), ar -> {
+      // the remote module takes the password in json, the only copy a Programmatic rule makes
+      .sendJsonObject(buildResetPasswordAction(request.getUserId(), request.getPassword().toString()), ar -> {
         if (ar.failed()) {
           promise.fail(ar.cause().getMessage());
           return;
         }
         HttpResponse<Buffer> validationResponse = ar.result();
+        span.setAttribute("http.status_code", validationResponse.statusCode());
         if (validationResponse.statusCode() == HttpStatus.HTTP_OK.toInt()) {
             String validationResult = validationResponse.bodyAsJsonObject().getString(ValidatorHelper.RESPONSE_VALIDATION_RESULT_KEY);
             if (ValidatorHelper.VALIDATION_INVALID_RESULT.equals(validationResult)) {
               errorMessages.add(rule.getErrMessageId());
+              promise.complete(rule.getErrMessageId());
+            } else {
+              promise.complete();
             }
-            promise.complete();
         } else {
           // TODO Inform administrator that remote module is down
-          logger.error("FOLIO module by the address " + remoteModuleUrl + " is not available.");
+          logger.error("FOLIO module by the address {} is not available.", remoteModuleUrl);
           String errorMessage;
           switch (rule.getValidationType()) {
             case STRONG:
@@ -261,21 +522,47 @@ public class ValidationEngineServiceImpl implements ValidationEngineService {
     return promise.future();
   }
 
+  private Future<Boolean> getValidatePasswordByLocalHistoryRuleFuture(final ValidationRequest request,
+                                                                      final Span parentSpan,
+                                                                      final Rule rule,
+                                                                      final List<String> errorMessages) {
+    Promise<Boolean> promise = Promise.promise();
+    Span span = parentSpan.child("password-history isPasswordUsed").setAttribute("rule.id", rule.getRuleId());
+    long start = System.nanoTime();
+    promise.future().onComplete(ar -> RULE_STATISTICS.record(request.getContext().getTenantId(), rule, null,
+      System.nanoTime() - start, ar.succeeded() && Boolean.TRUE.equals(ar.result()), ar.failed()));
+    // checked in this instance rather than through the service proxy, which would take the password as a string
+    Future<Boolean> used = passwordHistory
+      .isPasswordUsed(request.getContext().getTenantId(), request.getUserId(), request.getPassword());
+    used.onComplete(ar -> {
+      span.end(ar);
+      if (ar.failed()) {
+        if (Rule.ValidationType.SOFT.equals(rule.getValidationType())) {
+          promise.complete(false);
+          return;
+        }
+        String errorMessage = "Local history rule " + rule.getName() + " failed: " + ar.cause().getMessage();
+        logger.error(errorMessage);
+        promise.fail(errorMessage);
+        return;
+      }
+      if (Boolean.TRUE.equals(ar.result())) {
+        errorMessages.add(rule.getErrMessageId());
+      }
+      promise.complete(ar.result());
+    });
+    return promise.future();
+  }
+
+  private Span startHttpSpan(Span parentSpan, String method, String path) {
+    return parentSpan.child("HTTP " + method + " " + path)
+      .setAttribute("http.method", method)
+      .setAttribute("http.target", path);
+  }
+
   private JsonObject buildResetPasswordAction(final String userId, final String password) {
     return new JsonObject()
       .put(ValidatorHelper.REQUEST_PARAM_KEY, password)
       .put(ValidatorHelper.REQUEST_USER_ID_KEY, userId);
   }
-
-  private void prepareResponse(final List<String> errorMessages,
-                               final Handler<AsyncResult<JsonObject>> resultHandler) {
-    JsonObject validationResult = new JsonObject();
-    if (errorMessages.isEmpty()) {
-      validationResult.put(ValidatorHelper.RESPONSE_VALIDATION_RESULT_KEY, ValidatorHelper.VALIDATION_VALID_RESULT);
-    } else {
-      validationResult.put(ValidatorHelper.RESPONSE_VALIDATION_RESULT_KEY, ValidatorHelper.VALIDATION_INVALID_RESULT);
-    }
-    validationResult.put(ValidatorHelper.RESPONSE_ERROR_MESSAGES_KEY, errorMessages);
-    resultHandler.handle(Future.succeededFuture(validationResult));
-  }
 }
@@ -0,0 +1,53 @@
+package org.folio.services.validator.engine;
+
+import java.util.Map;
+
+/**
+ * Password validation request sent to the validation engine over the event bus.
+ * Carries only the request context the engine needs to call other modules;
+ * the fields are final and local delivery passes instances without copying,
+ * but the password chars are wiped in place by the engine once the validation completes,
+ * so an instance is not to be read after it was sent.
+ *
+ * @see ValidationRequestCodec
+ */
+public final class ValidationRequest {
+
+  private final String userId;
+  private final PasswordChars password;
+  private final RequestContext context;
+
+  public ValidationRequest(String userId, String password, RequestContext context) {
+    this(userId, PasswordChars.of(password), context);
+  }
+
+  public ValidationRequest(String userId, PasswordChars password, RequestContext context) {
+    this.userId = userId;
+    this.password = password;
+    this.context = context;
+  }
+
+  /**
+   * Creates validation request taking the request context from the request headers
+   *
+   * @param userId   user id
+   * @param password password to validate
+   * @param headers  request headers, names are case insensitive
+   * @return validation request
+   */
+  public static ValidationRequest of(String userId, String password, Map<String, String> headers) {
+    return new ValidationRequest(userId, password, RequestContext.fromHeaders(headers));
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public PasswordChars getPassword() {
+    return password;
+  }
+
+  public RequestContext getContext() {
+    return context;
+  }
+}
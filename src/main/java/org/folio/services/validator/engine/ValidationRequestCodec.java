@@ -0,0 +1,50 @@
+package org.folio.services.validator.engine;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Event bus codec of the validation request. Local delivery passes the request itself,
+ * clustered delivery writes its six strings one after another, preceded by the total length.
+ */
+public class ValidationRequestCodec implements MessageCodec<ValidationRequest, ValidationRequest> {
+
+  public static final String NAME = "validation-request";
+
+  @Override
+  public void encodeToWire(Buffer buffer, ValidationRequest request) {
+    int start = buffer.length();
+    buffer.appendInt(0);
+    WireFormat.writeString(buffer, request.getUserId());
+    WireFormat.writePassword(buffer, request.getPassword());
+    WireFormat.writeString(buffer, request.getContext().getOkapiUrl());
+    WireFormat.writeString(buffer, request.getContext().getTenantId());
+    WireFormat.writeString(buffer, request.getContext().getToken());
+    WireFormat.writeString(buffer, request.getContext().getTraceparent());
+    buffer.setInt(start, buffer.length() - start - Integer.BYTES);
+  }
+
+  @Override
+  public ValidationRequest decodeFromWire(int pos, Buffer buffer) {
+    int[] position = {pos + Integer.BYTES};
+    String userId = WireFormat.readString(buffer, position);
+    PasswordChars password = WireFormat.readPassword(buffer, position);
+    return new ValidationRequest(userId, password, new RequestContext(WireFormat.readString(buffer, position),
+      WireFormat.readString(buffer, position), WireFormat.readString(buffer, position), WireFormat.readString(buffer, position)));
+  }
+
+  @Override
+  public ValidationRequest transform(ValidationRequest request) {
+    return request;
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+}
@@ -0,0 +1,78 @@
+package org.folio.services.validator.engine;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.folio.services.validator.util.ValidatorHelper;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Result of the password validation returned by the validation engine over the event bus;
+ * instances are immutable, so local delivery passes them without copying.
+ *
+ * @see ValidationResultCodec
+ */
+public final class ValidationResult {
+
+  private final List<String> messages;
+  private final Integer score;
+  // encoded once, coalesced validations share the result
+  private volatile String encoded;
+
+  ValidationResult(List<String> messages, Integer score) {
+    this.messages = Collections.unmodifiableList(messages);
+    this.score = score;
+  }
+
+  /**
+   * @return true if the password satisfies every rule
+   */
+  public boolean isValid() {
+    return messages.isEmpty();
+  }
+
+  /**
+   * @return error message ids of the failed rules in the order of the rules
+   */
+  public List<String> getMessages() {
+    return messages;
+  }
+
+  /**
+   * @return password strength score, null if the tenant has no Strength rules
+   */
+  public Integer getScore() {
+    return score;
+  }
+
+  /**
+   * Returns the result in the format of the validation template: result, messages and optional score
+   *
+   * @return validation result as json
+   */
+  public JsonObject toJson() {
+    JsonObject validationResult = new JsonObject()
+      .put(ValidatorHelper.RESPONSE_VALIDATION_RESULT_KEY,
+        isValid() ? ValidatorHelper.VALIDATION_VALID_RESULT : ValidatorHelper.VALIDATION_INVALID_RESULT)
+      .put(ValidatorHelper.RESPONSE_ERROR_MESSAGES_KEY, messages);
+    if (score != null) {
+      validationResult.put(ValidatorHelper.RESPONSE_STRENGTH_SCORE_KEY, score);
+    }
+    return validationResult;
+  }
+
+  /**
+   * Returns the result in the format of the validation template encoded as json text
+   *
+   * @return validation result as json text
+   */
+  public String encode() {
+    String json = encoded;
+    if (json == null) {
+      json = toJson().encode();
+      encoded = json;
+    }
+    return json;
+  }
+}
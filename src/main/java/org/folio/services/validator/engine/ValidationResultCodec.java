@@ -0,0 +1,57 @@
+package org.folio.services.validator.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Event bus codec of the validation result. Local delivery passes the immutable result itself,
+ * clustered delivery writes the total length, the score (-1 if absent), the number of messages and the messages.
+ */
+public class ValidationResultCodec implements MessageCodec<ValidationResult, ValidationResult> {
+
+  public static final String NAME = "validation-result";
+
+  private static final int NO_SCORE = -1;
+
+  @Override
+  public void encodeToWire(Buffer buffer, ValidationResult result) {
+    int start = buffer.length();
+    buffer.appendInt(0);
+    buffer.appendInt(result.getScore() == null ? NO_SCORE : result.getScore());
+    buffer.appendInt(result.getMessages().size());
+    for (String message : result.getMessages()) {
+      WireFormat.writeString(buffer, message);
+    }
+    buffer.setInt(start, buffer.length() - start - Integer.BYTES);
+  }
+
+  @Override
+  public ValidationResult decodeFromWire(int pos, Buffer buffer) {
+    int score = buffer.getInt(pos + Integer.BYTES);
+    int count = buffer.getInt(pos + 2 * Integer.BYTES);
+    int[] position = {pos + 3 * Integer.BYTES};
+    List<String> messages = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      messages.add(WireFormat.readString(buffer, position));
+    }
+    return new ValidationResult(messages, score == NO_SCORE ? null : score);
+  }
+
+  @Override
+  public ValidationResult transform(ValidationResult result) {
+    return result;
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+}
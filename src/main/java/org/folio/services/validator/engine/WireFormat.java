@@ -0,0 +1,77 @@
+package org.folio.services.validator.engine;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Compact binary encoding of strings used by the event bus codecs of the engine:
+ * the length of the UTF-8 bytes followed by the bytes, -1 for null.
+ * Passwords take the same format, their intermediate bytes are wiped.
+ */
+final class WireFormat {
+
+  private static final int NULL_LENGTH = -1;
+
+  private WireFormat() {
+  }
+
+  static void writeString(Buffer buffer, String value) {
+    if (value == null) {
+      buffer.appendInt(NULL_LENGTH);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    buffer.appendInt(bytes.length).appendBytes(bytes);
+  }
+
+  static void writePassword(Buffer buffer, PasswordChars password) {
+    byte[] bytes = password.encode();
+    try {
+      buffer.appendInt(bytes.length).appendBytes(bytes);
+    } finally {
+      Arrays.fill(bytes, (byte) 0);
+    }
+  }
+
+  /**
+   * Reads password written at the position without making a string of it
+   *
+   * @param buffer   buffer to read from
+   * @param position position of the password, updated to the position after it
+   * @return password chars, empty for null
+   */
+  static PasswordChars readPassword(Buffer buffer, int[] position) {
+    int length = buffer.getInt(position[0]);
+    position[0] += Integer.BYTES;
+    if (length == NULL_LENGTH) {
+      return PasswordChars.wrap(new char[0]);
+    }
+    byte[] bytes = buffer.getBytes(position[0], position[0] + length);
+    position[0] += length;
+    try {
+      return PasswordChars.decode(bytes);
+    } finally {
+      Arrays.fill(bytes, (byte) 0);
+    }
+  }
+
+  /**
+   * Reads string written at the position
+   *
+   * @param buffer   buffer to read from
+   * @param position position of the string, updated to the position after it
+   * @return string or null
+   */
+  static String readString(Buffer buffer, int[] position) {
+    int length = buffer.getInt(position[0]);
+    position[0] += Integer.BYTES;
+    if (length == NULL_LENGTH) {
+      return null;
+    }
+    String value = buffer.getString(position[0], position[0] + length, StandardCharsets.UTF_8.name());
+    position[0] += length;
+    return value;
+  }
+}
@@ -0,0 +1,46 @@
+package org.folio.services.validator.history;
+
+import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.ProxyGen;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+/**
+ * Password History service interface, keeps salted hashes of the last passwords of the user
+ * to check the password against them locally instead of calling mod-login
+ */
+@ProxyGen
+public interface PasswordHistoryService {
+
+  static PasswordHistoryService create(Vertx vertx) {
+    return new PasswordHistoryServiceImpl(vertx);
+  }
+
+  static PasswordHistoryService createProxy(Vertx vertx, String address) {
+    return new PasswordHistoryServiceVertxEBProxy(vertx, address);
+  }
+
+  /**
+   * Checks whether the password is one of the last passwords of the user
+   *
+   * @param tenantId           tenant id
+   * @param userId             user id
+   * @param password           password to check
+   * @param asyncResultHandler result handler with true if the password has been used before
+   */
+  @Fluent
+  PasswordHistoryService isPasswordUsed(String tenantId, String userId, String password, Handler<AsyncResult<Boolean>> asyncResultHandler);
+
+  /**
+   * Adds the password to the history of the user, the oldest password is removed when the history is full
+   *
+   * @param tenantId           tenant id
+   * @param userId             user id
+   * @param password           new password of the user
+   * @param asyncResultHandler result handler
+   */
+  @Fluent
+  PasswordHistoryService addPassword(String tenantId, String userId, String password, Handler<AsyncResult<Void>> asyncResultHandler);
+
+}
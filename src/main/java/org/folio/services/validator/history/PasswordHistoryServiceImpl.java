@@ -0,0 +1,217 @@
+package org.folio.services.validator.history;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.jaxrs.model.PasswordHash;
+import org.folio.rest.persist.PostgresClient;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * Implementation of Password History Service,
+ * stores the last password hashes of every user as a single row of the password_history table
+ * keyed by the user id, so the history is read by a single primary key lookup.
+ * <p>
+ * Passwords are hashed with PBKDF2 and random salt on the worker pool, the event loop is never blocked.
+ * The chars handed to PBKDF2 are zeroed as soon as the hashes are computed.
+ */
+public class PasswordHistoryServiceImpl implements PasswordHistoryService {
+
+  private static final String PASSWORD_HISTORY_TABLE_NAME = "password_history";
+  private static final String PASSWORD_HASHES_FIELD = "passwordHashes";
+  private static final String HASH_ALGORITHM = "PBKDF2WithHmacSHA256";
+  private static final int SALT_LENGTH = 16;
+  private static final int HASH_LENGTH = 256;
+  // Prepends the new hash to the history of the user, or creates the history, and keeps the last $3 hashes
+  private static final String ADD_PASSWORD_HASH_SQL = "INSERT INTO %s." + PASSWORD_HISTORY_TABLE_NAME + " AS history (id, jsonb)"
+    + " VALUES ($1::uuid, jsonb_build_object('id', $1::uuid, '" + PASSWORD_HASHES_FIELD + "', jsonb_build_array($2::jsonb)))"
+    + " ON CONFLICT (id) DO UPDATE SET jsonb = jsonb_set(history.jsonb, '{" + PASSWORD_HASHES_FIELD + "}',"
+    + " (SELECT jsonb_agg(hash ORDER BY position) FROM jsonb_array_elements(jsonb_build_array($2::jsonb)"
+    + " || COALESCE(history.jsonb->'" + PASSWORD_HASHES_FIELD + "', '[]'::jsonb)) WITH ORDINALITY AS hashes(hash, position)"
+    + " WHERE position <= $3::integer))";
+
+  private final Logger logger = LogManager.getLogger(PasswordHistoryServiceImpl.class);
+  private final SecureRandom secureRandom = new SecureRandom();
+
+  // Number of the last passwords to keep for every user
+  private final int historySize = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("password.history.size", "10"));
+  // Number of PBKDF2 iterations for the new hashes, the stored hashes keep their own number
+  private final int hashIterations = Integer
+    .parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("password.history.iterations", "10000"));
+
+  private final Vertx vertx;
+
+  public PasswordHistoryServiceImpl(Vertx vertx) {
+    this.vertx = vertx;
+  }
+
+  /**
+   * Checks whether the password is one of the last passwords of the user
+   *
+   * @param tenantId           tenant id
+   * @param userId             user id
+   * @param password           password to check
+   * @param asyncResultHandler result handler with true if the password has been used before
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Override
+  public PasswordHistoryService isPasswordUsed(String tenantId, String userId, String password,
+                                               Handler<AsyncResult<Boolean>> asyncResultHandler) {
+    isPasswordUsed(tenantId, userId, (CharSequence) password).onComplete(asyncResultHandler);
+    return this;
+  }
+
+  /**
+   * Checks whether the password is one of the last passwords of the user,
+   * for the callers holding the password in chars rather than in a string
+   *
+   * @param tenantId tenant id
+   * @param userId   user id
+   * @param password password to check, read on the worker pool until the returned future completes
+   * @return future with true if the password has been used before
+   */
+  public Future<Boolean> isPasswordUsed(String tenantId, String userId, CharSequence password) {
+    return getPasswordHashes(tenantId, userId)
+      .recover(e -> {
+        logger.error("Error while querying the db to get the password history", e);
+        return Future.failedFuture(e);
+      })
+      .compose(passwordHashes -> {
+        if (passwordHashes.isEmpty()) {
+          return Future.succeededFuture(false);
+        }
+        Promise<Boolean> usedPromise = Promise.promise();
+        vertx.executeBlocking(promise -> {
+          char[] chars = toChars(password);
+          try {
+            for (int i = 0; i < passwordHashes.size(); i++) {
+              JsonObject passwordHash = passwordHashes.getJsonObject(i);
+              byte[] salt = Base64.getDecoder().decode(passwordHash.getString("salt"));
+              byte[] expected = Base64.getDecoder().decode(passwordHash.getString("hash"));
+              if (MessageDigest.isEqual(expected, hash(chars, salt, passwordHash.getInteger("iterations")))) {
+                promise.complete(true);
+                return;
+              }
+            }
+            promise.complete(false);
+          } finally {
+            Arrays.fill(chars, '\0');
+          }
+        }, false, usedPromise);
+        return usedPromise.future();
+      });
+  }
+
+  /**
+   * Adds the password to the history of the user, the oldest password is removed when the history is full
+   *
+   * @param tenantId           tenant id
+   * @param userId             user id
+   * @param password           new password of the user
+   * @param asyncResultHandler result handler
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Override
+  public PasswordHistoryService addPassword(String tenantId, String userId, String password,
+                                            Handler<AsyncResult<Void>> asyncResultHandler) {
+    Promise<PasswordHash> hashPromise = Promise.promise();
+    vertx.executeBlocking(promise -> {
+      byte[] salt = new byte[SALT_LENGTH];
+      secureRandom.nextBytes(salt);
+      char[] chars = toChars(password);
+      try {
+        promise.complete(new PasswordHash()
+          .withSalt(Base64.getEncoder().encodeToString(salt))
+          .withHash(Base64.getEncoder().encodeToString(hash(chars, salt, hashIterations)))
+          .withIterations(hashIterations));
+      } finally {
+        Arrays.fill(chars, '\0');
+      }
+    }, false, hashPromise);
+
+    hashPromise.future()
+      .compose(passwordHash -> {
+        // the history is read and written by one statement, concurrent changes of the password
+        // of the same user are serialized by the row lock of the upsert and none of them is lost
+        String sql = String.format(ADD_PASSWORD_HASH_SQL, PostgresClient.convertToPsqlStandard(tenantId));
+        Promise<RowSet<Row>> upsertPromise = Promise.promise();
+        PostgresClient.getInstance(vertx, tenantId).execute(sql,
+          Tuple.of(UUID.fromString(userId), JsonObject.mapFrom(passwordHash), historySize), upsertPromise);
+        return upsertPromise.future();
+      })
+      .onComplete(reply -> {
+        if (reply.failed()) {
+          logger.error("Error while saving the password history to the db", reply.cause());
+          asyncResultHandler.handle(Future.failedFuture(reply.cause()));
+        } else {
+          asyncResultHandler.handle(Future.succeededFuture());
+        }
+      });
+    return this;
+  }
+
+  /**
+   * Reads the password hashes of the user straight from the stored json, without mapping them to {@link PasswordHash}
+   */
+  private Future<JsonArray> getPasswordHashes(String tenantId, String userId) {
+    Promise<JsonArray> promise = Promise.promise();
+    try {
+      PostgresClient.getInstance(vertx, tenantId).getById(PASSWORD_HISTORY_TABLE_NAME, userId, getReply -> {
+        if (getReply.failed()) {
+          promise.fail(getReply.cause());
+        } else if (getReply.result() == null) {
+          promise.complete(new JsonArray());
+        } else {
+          promise.complete(getReply.result().getJsonArray(PASSWORD_HASHES_FIELD, new JsonArray()));
+        }
+      });
+    } catch (Exception e) {
+      promise.fail(e);
+    }
+    return promise.future();
+  }
+
+  private static char[] toChars(CharSequence password) {
+    char[] chars = new char[password.length()];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = password.charAt(i);
+    }
+    return chars;
+  }
+
+  /**
+   * Hashes the chars, the copy kept by the key spec is cleared, the chars are left to the caller to wipe
+   */
+  private byte[] hash(char[] password, byte[] salt, int iterations) {
+    PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, HASH_LENGTH);
+    try {
+      return SecretKeyFactory.getInstance(HASH_ALGORITHM).generateSecret(spec).getEncoded();
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Error while hashing the password", e);
+    } finally {
+      spec.clearPassword();
+    }
+  }
+}
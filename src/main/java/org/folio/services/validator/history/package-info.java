@@ -0,0 +1,4 @@
+@ModuleGen(groupPackage = "org.folio.services.validator.history", name = "password-history")
+package org.folio.services.validator.history;
+
+import io.vertx.codegen.annotations.ModuleGen;
@@ -0,0 +1,105 @@
+package org.folio.services.validator.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable set of code points kept as sorted disjoint ranges
+ */
+final class CharRanges {
+
+  static final CharRanges DIGIT = builder().add('0', '9').build();
+  static final CharRanges WORD = builder().add('a', 'z').add('A', 'Z').add('_', '_').add('0', '9').build();
+  static final CharRanges SPACE = builder().add(' ', ' ').add('\t', '\r').build();
+  // '.' matches anything but the line terminators
+  static final CharRanges DOT = builder().add('\n', '\n').add('\r', '\r').add('\u0085', '\u0085')
+    .add('\u2028', '\u2029').build().negate();
+
+  // from0, to0, from1, to1... both bounds inclusive
+  private final int[] ranges;
+
+  private CharRanges(int[] ranges) {
+    this.ranges = ranges;
+  }
+
+  static Builder builder() {
+    return new Builder();
+  }
+
+  static CharRanges of(int codePoint) {
+    return new CharRanges(new int[]{codePoint, codePoint});
+  }
+
+  boolean contains(int codePoint) {
+    int low = 0;
+    int high = ranges.length / 2 - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      if (codePoint < ranges[2 * middle]) {
+        high = middle - 1;
+      } else if (codePoint > ranges[2 * middle + 1]) {
+        low = middle + 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the only code point of the set
+   *
+   * @return code point or -1 if the set has more code points
+   */
+  int singleCodePoint() {
+    return ranges.length == 2 && ranges[0] == ranges[1] ? ranges[0] : -1;
+  }
+
+  CharRanges negate() {
+    Builder builder = builder();
+    int next = 0;
+    for (int i = 0; i < ranges.length; i += 2) {
+      if (ranges[i] > next) {
+        builder.add(next, ranges[i] - 1);
+      }
+      next = ranges[i + 1] + 1;
+    }
+    if (next <= Character.MAX_CODE_POINT) {
+      builder.add(next, Character.MAX_CODE_POINT);
+    }
+    return builder.build();
+  }
+
+  static final class Builder {
+    private final List<int[]> ranges = new ArrayList<>();
+
+    Builder add(int from, int to) {
+      ranges.add(new int[]{from, to});
+      return this;
+    }
+
+    Builder add(CharRanges charRanges) {
+      for (int i = 0; i < charRanges.ranges.length; i += 2) {
+        add(charRanges.ranges[i], charRanges.ranges[i + 1]);
+      }
+      return this;
+    }
+
+    CharRanges build() {
+      ranges.sort(Comparator.comparingInt(range -> range[0]));
+      int[] merged = new int[ranges.size() * 2];
+      int size = 0;
+      for (int[] range : ranges) {
+        if (size > 0 && range[0] <= merged[size - 1] + 1) {
+          merged[size - 1] = Math.max(merged[size - 1], range[1]);
+        } else {
+          merged[size++] = range[0];
+          merged[size++] = range[1];
+        }
+      }
+      return new CharRanges(Arrays.copyOf(merged, size));
+    }
+  }
+}
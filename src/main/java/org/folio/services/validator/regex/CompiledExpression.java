@@ -0,0 +1,27 @@
+package org.folio.services.validator.regex;
+
+import org.folio.rest.jaxrs.model.Rule;
+
+/**
+ * Regular expression of a RegExp rule compiled by one of the backends.
+ * Instances are thread safe and shared between validations.
+ *
+ * @see ExpressionCompiler
+ */
+public interface CompiledExpression {
+
+  /**
+   * Tells whether the entire input matches the expression, as {@link java.util.regex.Matcher#matches()} does
+   *
+   * @param input input to match
+   * @return true if the entire input matches
+   */
+  boolean matches(CharSequence input);
+
+  /**
+   * Returns the backend matching the expression
+   *
+   * @return regex backend
+   */
+  Rule.RegexBackend getBackend();
+}
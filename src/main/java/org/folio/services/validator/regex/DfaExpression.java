@@ -0,0 +1,31 @@
+package org.folio.services.validator.regex;
+
+import org.folio.rest.jaxrs.model.Rule;
+
+/**
+ * Expression matched by a lazily built deterministic automaton, in time linear in the input length
+ *
+ * @see LazyDfa
+ */
+final class DfaExpression implements CompiledExpression {
+
+  private final LazyDfa dfa;
+
+  private DfaExpression(Nfa nfa) {
+    this.dfa = new LazyDfa(nfa);
+  }
+
+  static DfaExpression compile(String expression) {
+    return new DfaExpression(ExpressionParser.parse(expression));
+  }
+
+  @Override
+  public boolean matches(CharSequence input) {
+    return dfa.run(input).isAccepting();
+  }
+
+  @Override
+  public Rule.RegexBackend getBackend() {
+    return Rule.RegexBackend.DFA;
+  }
+}
@@ -0,0 +1,64 @@
+package org.folio.services.validator.regex;
+
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.jaxrs.model.Rule;
+
+/**
+ * Compiles expressions of RegExp rules.
+ * <p>
+ * The {@link Rule.RegexBackend#DFA} backend matches in time linear in the input length whatever the expression is,
+ * expressions using features an automaton cannot match, such as backreferences and lookarounds,
+ * fall back to {@link Rule.RegexBackend#JDK}. Every expression is compiled by {@link Pattern} first,
+ * so both backends reject invalid expressions the same way.
+ * <p>
+ * Expressions are compiled to be shared between validations, expressions compiled for a single validation,
+ * e.g. with the user name substituted, should be compiled by {@link #compileForSingleUse(String, Rule.RegexBackend)}.
+ */
+public final class ExpressionCompiler {
+
+  private static final Logger logger = LogManager.getLogger(ExpressionCompiler.class);
+
+  private ExpressionCompiler() {
+  }
+
+  /**
+   * Compiles the expression
+   *
+   * @param expression regular expression
+   * @param backend    preferred backend
+   * @return compiled expression
+   * @throws java.util.regex.PatternSyntaxException if the expression is invalid
+   */
+  public static CompiledExpression compile(String expression, Rule.RegexBackend backend) {
+    return compile(expression, backend, true);
+  }
+
+  /**
+   * Compiles the expression to match a single input, no per thread state is kept for it
+   *
+   * @param expression regular expression
+   * @param backend    preferred backend
+   * @return compiled expression
+   * @throws java.util.regex.PatternSyntaxException if the expression is invalid
+   */
+  public static CompiledExpression compileForSingleUse(String expression, Rule.RegexBackend backend) {
+    return compile(expression, backend, false);
+  }
+
+  private static CompiledExpression compile(String expression, Rule.RegexBackend backend, boolean shared) {
+    Pattern pattern = Pattern.compile(expression);
+    if (Rule.RegexBackend.DFA.equals(backend)) {
+      try {
+        return DfaExpression.compile(expression);
+      } catch (UnsupportedExpressionException e) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Expression {} is matched by java.util.regex: {}", expression, e.getMessage());
+        }
+      }
+    }
+    return shared ? JdkExpression.shared(pattern) : JdkExpression.singleUse(pattern);
+  }
+}
@@ -0,0 +1,377 @@
+package org.folio.services.validator.regex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the subset of the {@link java.util.regex.Pattern} syntax an automaton can match into a {@link Nfa}:
+ * literals, escapes, character classes with ranges and negation, the predefined classes \d \w \s and their negations,
+ * '.', groups, alternation and greedy or reluctant quantifiers.
+ * '^' and '$' are accepted at the start and the end of a top level alternative only, where they match
+ * the boundaries of the entire input. Anything else, e.g. backreferences, lookarounds, possessive quantifiers,
+ * flags, boundaries, nested classes and Unicode properties, is rejected with {@link UnsupportedExpressionException}.
+ * <p>
+ * The expression must be valid for {@link java.util.regex.Pattern}, it is not checked again.
+ */
+final class ExpressionParser {
+
+  private static final int UNBOUNDED = -1;
+  // Largest counted repetition expanded into the automaton
+  private static final int MAX_REPETITION = 1000;
+
+  private final int[] codePoints;
+  private int position;
+
+  private ExpressionParser(String expression) {
+    this.codePoints = expression.codePoints().toArray();
+  }
+
+  /**
+   * Builds the automaton matching the entire input against the expression
+   *
+   * @param expression valid regular expression
+   * @return automaton
+   */
+  static Nfa parse(String expression) {
+    Nfa nfa = new Nfa();
+    nfa.setStart(parse(expression, nfa, 0));
+    return nfa;
+  }
+
+  /**
+   * Adds the states matching the entire input against the expression to the automaton
+   *
+   * @param expression      valid regular expression
+   * @param nfa             automaton to add the states to
+   * @param expressionIndex index reported by the match state of the expression
+   * @return start state of the expression
+   */
+  static int parse(String expression, Nfa nfa, int expressionIndex) {
+    ExpressionParser parser = new ExpressionParser(expression);
+    Node node = parser.parseAlternation(true);
+    if (parser.position < parser.codePoints.length) {
+      throw new UnsupportedExpressionException("unexpected '" + new String(Character.toChars(parser.peek())) + "'");
+    }
+    return node.build(nfa, nfa.addMatch(expressionIndex));
+  }
+
+  private Node parseAlternation(boolean topLevel) {
+    List<Node> alternatives = new ArrayList<>();
+    alternatives.add(parseConcatenation(topLevel));
+    while (position < codePoints.length && peek() == '|') {
+      position++;
+      alternatives.add(parseConcatenation(topLevel));
+    }
+    return alternatives.size() == 1 ? alternatives.get(0) : new Alternation(alternatives);
+  }
+
+  private Node parseConcatenation(boolean topLevel) {
+    List<Node> nodes = new ArrayList<>();
+    if (topLevel && position < codePoints.length && peek() == '^') {
+      position++;
+    }
+    while (position < codePoints.length && peek() != '|' && peek() != ')') {
+      if (peek() == '$') {
+        position++;
+        if (!topLevel || position < codePoints.length && peek() != '|') {
+          throw new UnsupportedExpressionException("'$' inside the expression");
+        }
+        continue;
+      }
+      nodes.add(parseQuantified(parseAtom()));
+    }
+    return nodes.size() == 1 ? nodes.get(0) : new Concatenation(nodes);
+  }
+
+  private Node parseQuantified(Node atom) {
+    if (position >= codePoints.length) {
+      return atom;
+    }
+    int c = peek();
+    int min;
+    int max;
+    if (c == '*') {
+      min = 0;
+      max = UNBOUNDED;
+      position++;
+    } else if (c == '+') {
+      min = 1;
+      max = UNBOUNDED;
+      position++;
+    } else if (c == '?') {
+      min = 0;
+      max = 1;
+      position++;
+    } else if (c == '{') {
+      int close = indexOf('}', position);
+      String[] bounds = close < 0 ? new String[0] : substring(position + 1, close).split(",", -1);
+      if (bounds.length == 0 || bounds.length > 2) {
+        throw new UnsupportedExpressionException("counted repetition");
+      }
+      min = parseBound(bounds[0]);
+      max = bounds.length == 1 ? min : bounds[1].isEmpty() ? UNBOUNDED : parseBound(bounds[1]);
+      position = close + 1;
+    } else {
+      return atom;
+    }
+    if (position < codePoints.length && peek() == '+') {
+      throw new UnsupportedExpressionException("possessive quantifier");
+    }
+    if (position < codePoints.length && peek() == '?') {
+      // a reluctant quantifier matches the same entire inputs
+      position++;
+    }
+    return new Repetition(atom, min, max);
+  }
+
+  private Node parseAtom() {
+    int c = next();
+    switch (c) {
+      case '(':
+        return parseGroup();
+      case '[':
+        return new CharSet(parseClass());
+      case '.':
+        return new CharSet(CharRanges.DOT);
+      case '\\':
+        return new CharSet(parseEscape(false));
+      case '^':
+      case '*':
+      case '+':
+      case '?':
+      case '{':
+        throw new UnsupportedExpressionException("'" + (char) c + "' inside the expression");
+      default:
+        return new CharSet(CharRanges.of(c));
+    }
+  }
+
+  private Node parseGroup() {
+    if (peek() == '?') {
+      position++;
+      int kind = next();
+      boolean namedGroup = kind == '<' && Character.isLetter(peek());
+      if (kind != ':' && !namedGroup) {
+        throw new UnsupportedExpressionException("group construct (?" + new String(Character.toChars(kind)));
+      }
+      if (namedGroup) {
+        position = indexOf('>', position) + 1;
+      }
+    }
+    Node node = parseAlternation(false);
+    if (position >= codePoints.length || next() != ')') {
+      throw new UnsupportedExpressionException("unclosed group");
+    }
+    return node;
+  }
+
+  private CharRanges parseClass() {
+    boolean negated = peek() == '^';
+    if (negated) {
+      position++;
+    }
+    if (peek() == ']') {
+      throw new UnsupportedExpressionException("']' at the start of a class");
+    }
+    CharRanges.Builder builder = CharRanges.builder();
+    while (peek() != ']') {
+      int c = next();
+      if (c == '[' || c == '&' && peek() == '&') {
+        throw new UnsupportedExpressionException("nested class or class intersection");
+      }
+      CharRanges item = c == '\\' ? parseEscape(true) : CharRanges.of(c);
+      int from = item.singleCodePoint();
+      if (from >= 0 && peek() == '-' && codePoints[position + 1] != ']') {
+        position++;
+        int toChar = next();
+        if (toChar == '[') {
+          throw new UnsupportedExpressionException("nested class");
+        }
+        int to = toChar == '\\' ? parseEscape(true).singleCodePoint() : toChar;
+        if (to < 0) {
+          throw new UnsupportedExpressionException("range to a class");
+        }
+        builder.add(from, to);
+      } else {
+        builder.add(item);
+      }
+    }
+    position++;
+    CharRanges ranges = builder.build();
+    return negated ? ranges.negate() : ranges;
+  }
+
+  private CharRanges parseEscape(boolean inClass) {
+    int c = next();
+    switch (c) {
+      case 'd':
+        return CharRanges.DIGIT;
+      case 'D':
+        return CharRanges.DIGIT.negate();
+      case 'w':
+        return CharRanges.WORD;
+      case 'W':
+        return CharRanges.WORD.negate();
+      case 's':
+        return CharRanges.SPACE;
+      case 'S':
+        return CharRanges.SPACE.negate();
+      case 't':
+        return CharRanges.of('\t');
+      case 'n':
+        return CharRanges.of('\n');
+      case 'r':
+        return CharRanges.of('\r');
+      case 'f':
+        return CharRanges.of('\f');
+      case 'a':
+        return CharRanges.of('\u0007');
+      case 'e':
+        return CharRanges.of('\u001B');
+      case 'x':
+        return CharRanges.of(parseHex());
+      case 'u':
+        return CharRanges.of(parseHexDigits(4));
+      default:
+        if (Character.isLetterOrDigit(c)) {
+          throw new UnsupportedExpressionException("escape \\" + new String(Character.toChars(c))
+            + (inClass ? " in a class" : ""));
+        }
+        return CharRanges.of(c);
+    }
+  }
+
+  private int parseHex() {
+    if (peek() != '{') {
+      return parseHexDigits(2);
+    }
+    int close = indexOf('}', position);
+    int value = Integer.parseInt(substring(position + 1, close), 16);
+    position = close + 1;
+    return value;
+  }
+
+  private int parseHexDigits(int count) {
+    int value = Integer.parseInt(substring(position, position + count), 16);
+    position += count;
+    return value;
+  }
+
+  private static int parseBound(String bound) {
+    int value = Integer.parseInt(bound.trim());
+    if (value > MAX_REPETITION) {
+      throw new UnsupportedExpressionException("repetition above " + MAX_REPETITION);
+    }
+    return value;
+  }
+
+  private int peek() {
+    return position < codePoints.length ? codePoints[position] : -1;
+  }
+
+  private int next() {
+    if (position >= codePoints.length) {
+      throw new UnsupportedExpressionException("unexpected end");
+    }
+    return codePoints[position++];
+  }
+
+  private int indexOf(int c, int from) {
+    for (int i = from; i < codePoints.length; i++) {
+      if (codePoints[i] == c) {
+        return i;
+      }
+    }
+    throw new UnsupportedExpressionException("missing '" + (char) c + "'");
+  }
+
+  private String substring(int from, int to) {
+    return new String(codePoints, from, to - from);
+  }
+
+  /**
+   * Node of the expression tree, builds its automaton backwards: from the state following it to its start state
+   */
+  private interface Node {
+    int build(Nfa nfa, int next);
+  }
+
+  private static final class CharSet implements Node {
+    private final CharRanges ranges;
+
+    private CharSet(CharRanges ranges) {
+      this.ranges = ranges;
+    }
+
+    @Override
+    public int build(Nfa nfa, int next) {
+      return nfa.addChar(ranges, next);
+    }
+  }
+
+  private static final class Concatenation implements Node {
+    private final List<Node> nodes;
+
+    private Concatenation(List<Node> nodes) {
+      this.nodes = nodes;
+    }
+
+    @Override
+    public int build(Nfa nfa, int next) {
+      int state = next;
+      for (int i = nodes.size() - 1; i >= 0; i--) {
+        state = nodes.get(i).build(nfa, state);
+      }
+      return state;
+    }
+  }
+
+  private static final class Alternation implements Node {
+    private final List<Node> alternatives;
+
+    private Alternation(List<Node> alternatives) {
+      this.alternatives = alternatives;
+    }
+
+    @Override
+    public int build(Nfa nfa, int next) {
+      int state = alternatives.get(alternatives.size() - 1).build(nfa, next);
+      for (int i = alternatives.size() - 2; i >= 0; i--) {
+        state = nfa.addSplit(alternatives.get(i).build(nfa, next), state);
+      }
+      return state;
+    }
+  }
+
+  private static final class Repetition implements Node {
+    private final Node node;
+    private final int min;
+    private final int max;
+
+    private Repetition(Node node, int min, int max) {
+      this.node = node;
+      this.min = min;
+      this.max = max;
+    }
+
+    @Override
+    public int build(Nfa nfa, int next) {
+      int state;
+      if (max == UNBOUNDED) {
+        int loop = nfa.addSplit(-1, next);
+        nfa.setFirst(loop, node.build(nfa, loop));
+        state = loop;
+      } else {
+        // optional copies skip to the next state at once: (x(x)?)? rather than x?x?
+        state = next;
+        for (int i = min; i < max; i++) {
+          state = nfa.addSplit(node.build(nfa, state), next);
+        }
+      }
+      for (int i = 0; i < min; i++) {
+        state = node.build(nfa, state);
+      }
+      return state;
+    }
+  }
+}
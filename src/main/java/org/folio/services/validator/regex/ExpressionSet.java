@@ -0,0 +1,103 @@
+package org.folio.services.validator.regex;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Several expressions merged into one automaton: a single scan of the input tells which of them
+ * match the entire input. Expressions the automaton cannot match are not added, they are matched one by one
+ * by the caller. Instances are thread safe and shared between validations.
+ */
+public final class ExpressionSet {
+
+  private static final ExpressionSet EMPTY = new ExpressionSet(null, 0);
+
+  private final LazyDfa dfa;
+  private final int size;
+
+  private ExpressionSet(LazyDfa dfa, int size) {
+    this.dfa = dfa;
+    this.size = size;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Scans the input once
+   *
+   * @param input input to match
+   * @return indexes of the expressions matching the entire input, as returned by {@link Builder#add(String)}
+   */
+  public BitSet match(CharSequence input) {
+    BitSet matched = new BitSet(size);
+    if (dfa != null) {
+      for (int expressionIndex : dfa.run(input).getAcceptedExpressions()) {
+        matched.set(expressionIndex);
+      }
+    }
+    return matched;
+  }
+
+  /**
+   * Returns the number of merged expressions
+   *
+   * @return number of expressions
+   */
+  public int size() {
+    return size;
+  }
+
+  public static final class Builder {
+
+    private static final Logger logger = LogManager.getLogger(ExpressionSet.class);
+
+    private final Nfa nfa = new Nfa();
+    private final List<Integer> starts = new ArrayList<>();
+
+    private Builder() {
+    }
+
+    /**
+     * Merges the expression into the set
+     *
+     * @param expression valid regular expression
+     * @return index of the expression in the set, -1 if the automaton cannot match it
+     */
+    public int add(String expression) {
+      int mark = nfa.size();
+      try {
+        int start = ExpressionParser.parse(expression, nfa, starts.size());
+        // room for the splits joining the expressions
+        if (nfa.size() + starts.size() > Nfa.MAX_STATES) {
+          throw new UnsupportedExpressionException("set exceeds " + Nfa.MAX_STATES + " states");
+        }
+        starts.add(start);
+        return starts.size() - 1;
+      } catch (UnsupportedExpressionException e) {
+        nfa.truncate(mark);
+        if (logger.isDebugEnabled()) {
+          logger.debug("Expression {} is not merged: {}", expression, e.getMessage());
+        }
+        return -1;
+      }
+    }
+
+    public ExpressionSet build() {
+      if (starts.isEmpty()) {
+        return EMPTY;
+      }
+      int start = starts.get(starts.size() - 1);
+      for (int i = starts.size() - 2; i >= 0; i--) {
+        start = nfa.addSplit(starts.get(i), start);
+      }
+      nfa.setStart(start);
+      return new ExpressionSet(new LazyDfa(nfa), starts.size());
+    }
+  }
+}
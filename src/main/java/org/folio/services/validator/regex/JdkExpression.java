@@ -0,0 +1,51 @@
+package org.folio.services.validator.regex;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.folio.rest.jaxrs.model.Rule;
+
+/**
+ * Expression matched by the backtracking {@link Pattern}.
+ * <p>
+ * Every thread matching a shared expression reuses its own {@link Matcher}, reset to the input,
+ * so steady state matching does not allocate a matcher and its group arrays per validation.
+ * The matcher is reset to an empty input once matched, it does not keep a reference to the password.
+ * Expressions compiled for a single validation, e.g. referring to the user name, create a matcher per match.
+ */
+final class JdkExpression implements CompiledExpression {
+
+  private final Pattern pattern;
+  private final ThreadLocal<Matcher> matchers;
+
+  private JdkExpression(Pattern pattern, boolean reuseMatchers) {
+    this.pattern = pattern;
+    this.matchers = reuseMatchers ? ThreadLocal.withInitial(() -> pattern.matcher("")) : null;
+  }
+
+  static JdkExpression shared(Pattern pattern) {
+    return new JdkExpression(pattern, true);
+  }
+
+  static JdkExpression singleUse(Pattern pattern) {
+    return new JdkExpression(pattern, false);
+  }
+
+  @Override
+  public boolean matches(CharSequence input) {
+    if (matchers == null) {
+      return pattern.matcher(input).matches();
+    }
+    Matcher matcher = matchers.get();
+    try {
+      return matcher.reset(input).matches();
+    } finally {
+      matcher.reset("");
+    }
+  }
+
+  @Override
+  public Rule.RegexBackend getBackend() {
+    return Rule.RegexBackend.JDK;
+  }
+}
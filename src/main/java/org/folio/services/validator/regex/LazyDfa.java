@@ -0,0 +1,219 @@
+package org.folio.services.validator.regex;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Deterministic automaton built lazily from a {@link Nfa}: every input code point takes one transition,
+ * so the time is linear in the input length whatever the expressions are.
+ * <p>
+ * A state of the automaton is a set of states of the {@link Nfa}, states and transitions are built
+ * on the first input reaching them and cached. The cache is shared by the threads running the automaton
+ * and bounded, once it is full new transitions are computed for every input without caching.
+ * A state caches the transitions on every ASCII character and a fixed number of transitions on other
+ * code points, a transition on another code point replaces the cached one sharing its slot.
+ */
+final class LazyDfa {
+
+  // Maximum number of cached states
+  private static final int MAX_CACHED_STATES = 2048;
+  private static final int ASCII = 128;
+  // Number of cached transitions of a state on the code points outside of ASCII, a power of two
+  static final int OTHER_TRANSITIONS = 64;
+
+  private final Nfa nfa;
+  private final Map<StateKey, State> states = new ConcurrentHashMap<>();
+  private final State start;
+
+  LazyDfa(Nfa nfa) {
+    this.nfa = nfa;
+    this.start = intern(closure(new int[]{nfa.getStart()}, 1));
+  }
+
+  /**
+   * Runs the automaton over the entire input
+   *
+   * @param input input to match
+   * @return state reached at the end of the input, or the dead state as soon as no expression can match
+   */
+  State run(CharSequence input) {
+    State state = start;
+    int length = input.length();
+    for (int i = 0; i < length; ) {
+      int codePoint = Character.codePointAt(input, i);
+      i += Character.charCount(codePoint);
+      state = next(state, codePoint);
+      if (state.dead) {
+        return state;
+      }
+    }
+    return state;
+  }
+
+  private State next(State state, int codePoint) {
+    State next = state.cached(codePoint);
+    if (next != null) {
+      return next;
+    }
+    int[] targets = new int[state.nfaStates.length];
+    int count = 0;
+    for (int nfaState : state.nfaStates) {
+      if (nfa.getType(nfaState) == Nfa.CHAR && nfa.getRanges(nfaState).contains(codePoint)) {
+        targets[count++] = nfa.getFirst(nfaState);
+      }
+    }
+    next = intern(closure(targets, count));
+    if (states.size() < MAX_CACHED_STATES) {
+      state.cache(codePoint, next);
+    }
+    return next;
+  }
+
+  private State intern(int[] nfaStates) {
+    StateKey key = new StateKey(nfaStates);
+    State state = states.get(key);
+    if (state == null) {
+      state = new State(nfaStates, acceptedExpressions(nfaStates));
+      if (states.size() < MAX_CACHED_STATES) {
+        State previous = states.putIfAbsent(key, state);
+        if (previous != null) {
+          state = previous;
+        }
+      }
+    }
+    return state;
+  }
+
+  /**
+   * Returns the sorted consuming and accepting states reachable from the given states by epsilon transitions
+   */
+  private int[] closure(int[] seeds, int count) {
+    boolean[] visited = new boolean[nfa.size()];
+    int[] stack = new int[nfa.size()];
+    int[] result = new int[nfa.size()];
+    int top = 0;
+    int size = 0;
+    for (int i = 0; i < count; i++) {
+      if (!visited[seeds[i]]) {
+        visited[seeds[i]] = true;
+        stack[top++] = seeds[i];
+      }
+    }
+    while (top > 0) {
+      int state = stack[--top];
+      if (nfa.getType(state) == Nfa.SPLIT) {
+        for (int target : new int[]{nfa.getFirst(state), nfa.getSecond(state)}) {
+          if (!visited[target]) {
+            visited[target] = true;
+            stack[top++] = target;
+          }
+        }
+      } else {
+        result[size++] = state;
+      }
+    }
+    int[] closure = Arrays.copyOf(result, size);
+    Arrays.sort(closure);
+    return closure;
+  }
+
+  private int[] acceptedExpressions(int[] nfaStates) {
+    return Arrays.stream(nfaStates)
+      .filter(state -> nfa.getType(state) == Nfa.MATCH)
+      .map(nfa::getExpressionIndex)
+      .toArray();
+  }
+
+  static final class State {
+    private final int[] nfaStates;
+    private final int[] acceptedExpressions;
+    private final boolean dead;
+    private final AtomicReferenceArray<State> asciiTransitions = new AtomicReferenceArray<>(ASCII);
+    // Allocated on the first transition on a code point outside of ASCII, most states never take one
+    private volatile AtomicReferenceArray<Transition> otherTransitions;
+
+    private State(int[] nfaStates, int[] acceptedExpressions) {
+      this.nfaStates = nfaStates;
+      this.acceptedExpressions = acceptedExpressions;
+      this.dead = nfaStates.length == 0;
+    }
+
+    boolean isAccepting() {
+      return acceptedExpressions.length > 0;
+    }
+
+    /**
+     * Returns the indexes of the expressions matching the input ending in this state
+     */
+    int[] getAcceptedExpressions() {
+      return acceptedExpressions;
+    }
+
+    /**
+     * Returns the number of cached transitions on the code points outside of ASCII
+     */
+    int getOtherTransitionsCount() {
+      AtomicReferenceArray<Transition> transitions = otherTransitions;
+      int count = 0;
+      for (int i = 0; transitions != null && i < transitions.length(); i++) {
+        count += transitions.get(i) == null ? 0 : 1;
+      }
+      return count;
+    }
+
+    private State cached(int codePoint) {
+      if (codePoint < ASCII) {
+        return asciiTransitions.get(codePoint);
+      }
+      AtomicReferenceArray<Transition> transitions = otherTransitions;
+      Transition transition = transitions == null ? null : transitions.get(codePoint & (OTHER_TRANSITIONS - 1));
+      return transition != null && transition.codePoint == codePoint ? transition.next : null;
+    }
+
+    private void cache(int codePoint, State next) {
+      if (codePoint < ASCII) {
+        asciiTransitions.set(codePoint, next);
+        return;
+      }
+      AtomicReferenceArray<Transition> transitions = otherTransitions;
+      if (transitions == null) {
+        // a concurrent first transition may replace this array, losing a cached transition only
+        transitions = new AtomicReferenceArray<>(OTHER_TRANSITIONS);
+        otherTransitions = transitions;
+      }
+      transitions.set(codePoint & (OTHER_TRANSITIONS - 1), new Transition(codePoint, next));
+    }
+  }
+
+  private static final class Transition {
+    private final int codePoint;
+    private final State next;
+
+    private Transition(int codePoint, State next) {
+      this.codePoint = codePoint;
+      this.next = next;
+    }
+  }
+
+  private static final class StateKey {
+    private final int[] nfaStates;
+    private final int hash;
+
+    private StateKey(int[] nfaStates) {
+      this.nfaStates = nfaStates;
+      this.hash = Arrays.hashCode(nfaStates);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof StateKey && Arrays.equals(nfaStates, ((StateKey) other).nfaStates);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package org.folio.services.validator.regex;
+
+import java.util.Arrays;
+
+/**
+ * Thompson automaton of one or more expressions. States are numbered, a state either consumes a code point
+ * of its ranges, splits into two epsilon transitions or accepts the input for the expression of its index.
+ */
+final class Nfa {
+
+  static final int CHAR = 0;
+  static final int SPLIT = 1;
+  static final int MATCH = 2;
+
+  // Maximum number of states, counted repetitions of large groups are not worth an automaton
+  static final int MAX_STATES = 4096;
+
+  private int[] types = new int[16];
+  private CharRanges[] ranges = new CharRanges[16];
+  private int[] out1 = new int[16];
+  private int[] out2 = new int[16];
+  private int size;
+  private int start;
+
+  int addChar(CharRanges charRanges, int next) {
+    int state = add(CHAR);
+    ranges[state] = charRanges;
+    out1[state] = next;
+    return state;
+  }
+
+  int addSplit(int first, int second) {
+    int state = add(SPLIT);
+    out1[state] = first;
+    out2[state] = second;
+    return state;
+  }
+
+  int addMatch(int expressionIndex) {
+    int state = add(MATCH);
+    out1[state] = expressionIndex;
+    return state;
+  }
+
+  /**
+   * Sets the first target of the split added before its targets, the way a loop is closed
+   */
+  void setFirst(int splitState, int first) {
+    out1[splitState] = first;
+  }
+
+  void setStart(int state) {
+    start = state;
+  }
+
+  int getStart() {
+    return start;
+  }
+
+  int size() {
+    return size;
+  }
+
+  int getType(int state) {
+    return types[state];
+  }
+
+  CharRanges getRanges(int state) {
+    return ranges[state];
+  }
+
+  int getFirst(int state) {
+    return out1[state];
+  }
+
+  int getSecond(int state) {
+    return out2[state];
+  }
+
+  /**
+   * Returns the index of the expression accepted by the match state
+   */
+  int getExpressionIndex(int matchState) {
+    return out1[matchState];
+  }
+
+  /**
+   * Drops the states added after the automaton had the given size, the way a failed expression is removed
+   */
+  void truncate(int newSize) {
+    Arrays.fill(ranges, newSize, size, null);
+    size = newSize;
+  }
+
+  private int add(int type) {
+    if (size == MAX_STATES) {
+      throw new UnsupportedExpressionException("automaton exceeds " + MAX_STATES + " states");
+    }
+    if (size == types.length) {
+      types = Arrays.copyOf(types, size * 2);
+      ranges = Arrays.copyOf(ranges, size * 2);
+      out1 = Arrays.copyOf(out1, size * 2);
+      out2 = Arrays.copyOf(out2, size * 2);
+    }
+    types[size] = type;
+    return size++;
+  }
+}
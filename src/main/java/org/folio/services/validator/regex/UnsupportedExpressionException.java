@@ -0,0 +1,13 @@
+package org.folio.services.validator.regex;
+
+/**
+ * Thrown when the expression uses a feature the automaton cannot match, such as a backreference or a lookaround
+ */
+final class UnsupportedExpressionException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  UnsupportedExpressionException(String message) {
+    super(message, null, false, false);
+  }
+}
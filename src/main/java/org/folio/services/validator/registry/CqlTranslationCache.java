@@ -0,0 +1,80 @@
+package org.folio.services.validator.registry;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+import org.folio.cql2pgjson.CQL2PgJSON;
+import org.folio.cql2pgjson.exception.QueryValidationException;
+import org.folio.cql2pgjson.model.SqlSelect;
+
+/**
+ * SQL translations of the CQL queries of the rule listing, keyed by query; the least recently used are evicted.
+ * A repeated query is neither parsed nor translated again, limit and offset are appended for every call.
+ * Only immutable strings are shared between concurrent requests.
+ */
+final class CqlTranslationCache {
+
+  /**
+   * Translates a CQL query into the SQL filter following the table name
+   */
+  @FunctionalInterface
+  interface Translator {
+    String translate(String query) throws QueryValidationException;
+  }
+
+  private final Translator translator;
+  private final Map<String, String> translations;
+
+  CqlTranslationCache(int size, Translator translator) {
+    this.translator = translator;
+    this.translations = Collections.synchronizedMap(new LinkedHashMap<String, String>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+        return size() > size;
+      }
+    });
+  }
+
+  /**
+   * Creates the cache translating the queries by CQL2PgJSON
+   *
+   * @param size       maximum number of cached translations
+   * @param cql2PgJson translator of the queries on the rules table
+   * @return cache
+   */
+  static CqlTranslationCache of(int size, CQL2PgJSON cql2PgJson) {
+    return new CqlTranslationCache(size, query -> {
+      SqlSelect select = cql2PgJson.toSql(query);
+      return "WHERE " + select.getWhere()
+        + (StringUtils.isEmpty(select.getOrderBy()) ? "" : " ORDER BY " + select.getOrderBy());
+    });
+  }
+
+  /**
+   * Returns the SQL filter of the query with limit and offset
+   *
+   * @param query  CQL query, no filtering if empty
+   * @param limit  maximum number of records
+   * @param offset number of records to skip
+   * @return SQL filter following the table name
+   * @throws QueryValidationException if the query is invalid
+   */
+  String getFilter(String query, int limit, int offset) throws QueryValidationException {
+    String translation = "";
+    if (StringUtils.isNotBlank(query)) {
+      translation = translations.get(query);
+      if (translation == null) {
+        // two concurrent misses translate the same query twice, both get the same result
+        translation = translator.translate(query);
+        translations.put(query, translation);
+      }
+    }
+    return translation + " LIMIT " + limit + " OFFSET " + offset;
+  }
+
+  int size() {
+    return translations.size();
+  }
+}
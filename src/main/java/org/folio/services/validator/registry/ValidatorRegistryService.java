@@ -24,6 +24,17 @@ public interface ValidatorRegistryService {
   @Fluent
   ValidatorRegistryService getAllTenantRules(String tenantId, int limit, int offset, String query, Handler<AsyncResult<JsonObject>> asyncResultHandler);
 
+  /**
+   * Returns all enabled rules for tenant sorted by order number
+   *
+   * @param tenantId           tenant id
+   * @param traceparent        trace context of the calling span, the database span starts a new trace if it is null
+   * @param asyncResultHandler result handler
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  ValidatorRegistryService getEnabledTenantRules(String tenantId, String traceparent, Handler<AsyncResult<JsonObject>> asyncResultHandler);
+
   @Fluent
   ValidatorRegistryService createTenantRule(String tenantId, JsonObject validationRule, Handler<AsyncResult<JsonObject>> asyncResultHandler);
 
@@ -33,4 +44,25 @@ public interface ValidatorRegistryService {
   @Fluent
   ValidatorRegistryService getTenantRuleByRuleId(String tenantId, String ruleId, Handler<AsyncResult<JsonObject>> asyncResultHandler);
 
+  /**
+   * Creates all rules of the collection for tenant in a single transaction
+   *
+   * @param tenantId           tenant id
+   * @param ruleCollection     rules to save
+   * @param asyncResultHandler result handler with the saved rules
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  ValidatorRegistryService createTenantRules(String tenantId, JsonObject ruleCollection, Handler<AsyncResult<JsonObject>> asyncResultHandler);
+
+  /**
+   * Replaces all rules of tenant by the rules of the collection in a single transaction
+   *
+   * @param tenantId           tenant id
+   * @param ruleCollection     new rules of tenant
+   * @param asyncResultHandler result handler with the saved rules
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  ValidatorRegistryService replaceTenantRules(String tenantId, JsonObject ruleCollection, Handler<AsyncResult<JsonObject>> asyncResultHandler);
 }
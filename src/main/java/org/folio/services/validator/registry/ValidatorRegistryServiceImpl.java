@@ -1,20 +1,29 @@
 package org.folio.services.validator.registry;
 
 import io.vertx.core.*;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
-import io.vertx.core.logging.Logger;
-import io.vertx.core.logging.LoggerFactory;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.folio.cql2pgjson.exception.FieldException;
 import org.folio.rest.jaxrs.model.Rule;
 import org.folio.rest.jaxrs.model.RuleCollection;
-import org.folio.rest.persist.Criteria.Limit;
-import org.folio.rest.persist.Criteria.Offset;
 import org.folio.rest.persist.PostgresClient;
-import org.folio.rest.persist.cql.CQLWrapper;
+import org.folio.services.validator.tracing.Span;
+import org.folio.services.validator.tracing.Tracer;
 import org.folio.cql2pgjson.CQL2PgJSON;
+import org.folio.services.validator.util.ValidatorHelper;
+import org.apache.commons.lang.StringUtils;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
 
 /**
  * Implementation of Validator Registry Service,
@@ -22,15 +31,35 @@ import java.util.UUID;
  */
 public class ValidatorRegistryServiceImpl implements ValidatorRegistryService {
 
-  private final Logger logger = LoggerFactory.getLogger(ValidatorRegistryServiceImpl.class);
+  private final Logger logger = LogManager.getLogger(ValidatorRegistryServiceImpl.class);
 
   private static final String VALIDATION_RULES_TABLE_NAME = "validation_rules";
   private static final String RULE_ID_FIELD = "ruleId";
+  private static final String RULES_FIELD = "rules";
+  private static final String TOTAL_RECORDS_FIELD = "totalRecords";
+  private static final String JSONB_COLUMN = "jsonb";
+  private static final String DELETE_RULES_SQL = "DELETE FROM %s." + VALIDATION_RULES_TABLE_NAME;
+  // Must match the predicate and the expression of validation_rules_enabled_order_no_idx, see create-rules-indexes.sql;
+  // the state is kept as a literal, a bind parameter would not let a generic plan prove the index predicate
+  private static final String ENABLED_RULES_SQL = "SELECT jsonb FROM %s." + VALIDATION_RULES_TABLE_NAME
+    + " WHERE jsonb->>'state' = 'Enabled' ORDER BY (jsonb->>'orderNo')::integer";
 
   private final Vertx vertx;
+  private final CQL2PgJSON cql2PgJson;
+  // Enabled rules statement per tenant schema
+  private final Map<String, String> enabledRulesSql = new ConcurrentHashMap<>();
+  // SQL translations of the admin queries
+  private final CqlTranslationCache cqlTranslations;
 
   public ValidatorRegistryServiceImpl(Vertx vertx) {
     this.vertx = vertx;
+    try {
+      this.cql2PgJson = new CQL2PgJSON(VALIDATION_RULES_TABLE_NAME + ".jsonb");
+    } catch (FieldException e) {
+      throw new IllegalStateException(e);
+    }
+    int cqlCacheSize = Integer.parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("validation.cql.cache.size", "256"));
+    this.cqlTranslations = CqlTranslationCache.of(cqlCacheSize, cql2PgJson);
   }
 
   /**
@@ -46,9 +75,12 @@ public class ValidatorRegistryServiceImpl implements ValidatorRegistryService {
   @Override
   public ValidatorRegistryService getAllTenantRules(String tenantId, int limit, int offset, String query, Handler<AsyncResult<JsonObject>> asyncResultHandler) {
     try {
-      CQLWrapper cql = getCQL(query, limit, offset);
+      String filter = cqlTranslations.getFilter(query, limit, offset);
       String[] fieldList = {"*"};
-      PostgresClient.getInstance(vertx, tenantId).get(VALIDATION_RULES_TABLE_NAME, Rule.class, fieldList, cql, true, false, getReply -> {
+      // the service proxy does not carry the trace context, the span starts a trace of the query
+      Span span = startDbSpan("postgres select tenant rules", tenantId, null);
+      PostgresClient.getInstance(vertx, tenantId).get(VALIDATION_RULES_TABLE_NAME, Rule.class, fieldList, filter, true, false, getReply -> {
+        span.end(getReply);
         if (getReply.failed()) {
           logger.error("Error while querying the db to get all tenant rules", getReply.cause());
           asyncResultHandler.handle(Future.failedFuture(getReply.cause()));
@@ -67,6 +99,49 @@ public class ValidatorRegistryServiceImpl implements ValidatorRegistryService {
     return this;
   }
 
+  /**
+   * Returns all enabled rules for tenant sorted by order number;
+   * unlike {@link #getAllTenantRules} the result is neither limited nor counted.
+   * The query is plain SQL scanning the partial index on the order number of enabled rules,
+   * so neither the disabled rules nor a sort step are touched on the validation path;
+   * the rule json is read from the table for every enabled rule, the scan is not index-only
+   *
+   * @param tenantId           tenant id
+   * @param traceparent        trace context of the calling span, the database span starts a new trace if it is null
+   * @param asyncResultHandler result handler
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Override
+  public ValidatorRegistryService getEnabledTenantRules(String tenantId, String traceparent,
+                                                        Handler<AsyncResult<JsonObject>> asyncResultHandler) {
+    try {
+      String sql = getEnabledRulesSql(tenantId);
+      // the pool of RMB does not cache prepared statements, Postgres parses and plans the query on every call;
+      // only building the SQL text is saved, the query has no parameters and goes as a simple query
+      Span span = startDbSpan("postgres select enabled rules", tenantId, traceparent);
+      PostgresClient.getInstance(vertx, tenantId).select(sql, selectReply -> {
+        span.end(selectReply);
+        if (selectReply.failed()) {
+          logger.error("Error while querying the db to get enabled tenant rules", selectReply.cause());
+          asyncResultHandler.handle(Future.failedFuture(selectReply.cause()));
+        } else {
+          // rows already hold the rule json, no need to map them to Rule and back
+          JsonArray rules = new JsonArray();
+          for (Row row : selectReply.result()) {
+            rules.add(row.getValue(JSONB_COLUMN));
+          }
+          asyncResultHandler.handle(Future.succeededFuture(new JsonObject()
+            .put(RULES_FIELD, rules)
+            .put(TOTAL_RECORDS_FIELD, rules.size())));
+        }
+      });
+    } catch (Exception e) {
+      logger.error("Error while getting enabled tenant rules", e);
+      asyncResultHandler.handle(Future.failedFuture(e));
+    }
+    return this;
+  }
+
   /**
    * Creates rule for tenant with specified id
    *
@@ -85,6 +160,7 @@ public class ValidatorRegistryServiceImpl implements ValidatorRegistryService {
           logger.error("Error while saving the rule to the db", postReply.cause());
           asyncResultHandler.handle(Future.failedFuture(postReply.cause()));
         } else {
+          publishRulesChanged(tenantId);
           asyncResultHandler.handle(Future.succeededFuture(validationRule));
         }
       });
@@ -109,12 +185,13 @@ public class ValidatorRegistryServiceImpl implements ValidatorRegistryService {
       String id = validationRule.getString(RULE_ID_FIELD);
       PostgresClient.getInstance(vertx, tenantId).update(VALIDATION_RULES_TABLE_NAME, validationRule.mapTo(Rule.class), id, putReply -> {
         if (putReply.failed()) {
-          logger.error("Error while updating the rule " + id + " in the db", putReply.cause());
+          logger.error("Error while updating the rule {} in the db", id, putReply.cause());
           asyncResultHandler.handle(Future.failedFuture(putReply.cause()));
         } else if (putReply.result().rowCount() == 0) {
-          logger.debug("Rule " + id + " was not found in the db");
+          logger.debug("Rule {} was not found in the db", id);
           asyncResultHandler.handle(Future.succeededFuture(null));
         } else {
+          publishRulesChanged(tenantId);
           asyncResultHandler.handle(Future.succeededFuture(validationRule));
         }
       });
@@ -146,7 +223,7 @@ public class ValidatorRegistryServiceImpl implements ValidatorRegistryService {
         } else {
           Rule rule = getReply.result();
           if (rule == null) {
-            logger.debug("Rule " + ruleId + "was not found in the db");
+            logger.debug("Rule {} was not found in the db", ruleId);
             asyncResultHandler.handle(Future.succeededFuture(null));
           } else {
             asyncResultHandler.handle(Future.succeededFuture(JsonObject.mapFrom(rule)));
@@ -161,18 +238,111 @@ public class ValidatorRegistryServiceImpl implements ValidatorRegistryService {
   }
 
   /**
-   * Build CQL from request URL query
+   * Creates all rules of the collection for tenant in a single transaction,
+   * every rule gets a new id as in {@link #createTenantRule}
+   *
+   * @param tenantId           tenant id
+   * @param ruleCollection     rules to save
+   * @param asyncResultHandler result handler with the saved rules
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Override
+  public ValidatorRegistryService createTenantRules(String tenantId, JsonObject ruleCollection, Handler<AsyncResult<JsonObject>> asyncResultHandler) {
+    saveTenantRules(tenantId, ruleCollection, false, asyncResultHandler);
+    return this;
+  }
+
+  /**
+   * Replaces all rules of tenant by the rules of the collection in a single transaction,
+   * rules keep their ids if given so that they can be exported and imported back
+   *
+   * @param tenantId           tenant id
+   * @param ruleCollection     new rules of tenant
+   * @param asyncResultHandler result handler with the saved rules
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Override
+  public ValidatorRegistryService replaceTenantRules(String tenantId, JsonObject ruleCollection, Handler<AsyncResult<JsonObject>> asyncResultHandler) {
+    saveTenantRules(tenantId, ruleCollection, true, asyncResultHandler);
+    return this;
+  }
+
+  private void saveTenantRules(String tenantId, JsonObject ruleCollection, boolean replace,
+                               Handler<AsyncResult<JsonObject>> asyncResultHandler) {
+    try {
+      RuleCollection rules = ruleCollection.mapTo(RuleCollection.class);
+      List<Object> entities = new ArrayList<>(rules.getRules().size());
+      for (Rule rule : rules.getRules()) {
+        String id = replace && StringUtils.isNotEmpty(rule.getRuleId()) ? rule.getRuleId() : UUID.randomUUID().toString();
+        entities.add(rule.withRuleId(id).withId(id));
+      }
+      PostgresClient pgClient = PostgresClient.getInstance(vertx, tenantId);
+      pgClient.startTx(tx -> {
+        if (tx.failed()) {
+          logger.error("Error while starting the transaction to save tenant rules", tx.cause());
+          asyncResultHandler.handle(Future.failedFuture(tx.cause()));
+          return;
+        }
+        Promise<RowSet<Row>> deletePromise = Promise.promise();
+        if (replace) {
+          pgClient.execute(tx, String.format(DELETE_RULES_SQL, PostgresClient.convertToPsqlStandard(tenantId)), deletePromise);
+        } else {
+          deletePromise.complete();
+        }
+        deletePromise.future()
+          .compose(deleted -> {
+            Promise<RowSet<Row>> savePromise = Promise.promise();
+            if (entities.isEmpty()) {
+              savePromise.complete();
+            } else {
+              pgClient.saveBatch(tx, VALIDATION_RULES_TABLE_NAME, entities, savePromise);
+            }
+            return savePromise.future();
+          })
+          .onComplete(saveReply -> {
+            if (saveReply.failed()) {
+              logger.error("Error while saving tenant rules to the db", saveReply.cause());
+              pgClient.rollbackTx(tx, rollbackReply -> asyncResultHandler.handle(Future.failedFuture(saveReply.cause())));
+              return;
+            }
+            pgClient.endTx(tx, endReply -> {
+              if (endReply.failed()) {
+                logger.error("Error while committing tenant rules to the db", endReply.cause());
+                asyncResultHandler.handle(Future.failedFuture(endReply.cause()));
+              } else {
+                // the rule set changed once, however many rules were written
+                publishRulesChanged(tenantId);
+                rules.setTotalRecords(entities.size());
+                asyncResultHandler.handle(Future.succeededFuture(JsonObject.mapFrom(rules)));
+              }
+            });
+          });
+      });
+    } catch (Exception e) {
+      logger.error("Error while saving tenant rules", e);
+      asyncResultHandler.handle(Future.failedFuture(e));
+    }
+  }
+
+  private void publishRulesChanged(String tenantId) {
+    vertx.eventBus().publish(ValidatorHelper.RULES_CHANGED_ADDRESS, tenantId);
+  }
+
+  /**
+   * Returns the enabled rules statement of the tenant, built once per tenant schema
    *
-   * @param query - query from URL
-   * @param limit - limit of records for pagination
-   * @return - CQL wrapper for building postgres request to database
-   * @throws org.folio.cql2pgjson.exception.FieldException
+   * @param tenantId tenant id
+   * @return SQL statement
    */
-  private CQLWrapper getCQL(String query, int limit, int offset) throws FieldException {
-    CQL2PgJSON cql2pgJson = new CQL2PgJSON(VALIDATION_RULES_TABLE_NAME + ".jsonb");
-    return new CQLWrapper(cql2pgJson, query)
-      .setLimit(new Limit(limit))
-      .setOffset(new Offset(offset));
+  String getEnabledRulesSql(String tenantId) {
+    return enabledRulesSql.computeIfAbsent(tenantId,
+      id -> String.format(ENABLED_RULES_SQL, PostgresClient.convertToPsqlStandard(id)));
   }
 
+  private Span startDbSpan(String name, String tenantId, String traceparent) {
+    return Tracer.startSpan(name, traceparent)
+      .setAttribute("db.system", "postgresql")
+      .setAttribute("db.sql.table", VALIDATION_RULES_TABLE_NAME)
+      .setAttribute("tenant", tenantId);
+  }
 }
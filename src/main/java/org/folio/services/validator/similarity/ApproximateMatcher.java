@@ -0,0 +1,98 @@
+package org.folio.services.validator.similarity;
+
+/**
+ * Finds approximate occurrences of a short pattern in the text with Myers' bit-parallel algorithm:
+ * the text contains an approximate occurrence of the pattern if some substring of the text
+ * is within the given Levenshtein distance of the pattern.
+ * <p>
+ * The comparison is case insensitive, runs in O(n) for patterns up to 64 chars
+ * and does not allocate: match masks of ASCII chars are kept in a per-thread table
+ * which is cleaned after every call, masks of other chars are computed on demand.
+ */
+public final class ApproximateMatcher {
+
+  /**
+   * Maximum pattern length handled by the single machine word, longer patterns are compared by their prefix
+   */
+  public static final int MAX_PATTERN_LENGTH = Long.SIZE;
+
+  private static final int ASCII_SIZE = 128;
+  private static final ThreadLocal<long[]> ASCII_MASKS = ThreadLocal.withInitial(() -> new long[ASCII_SIZE]);
+
+  private ApproximateMatcher() {
+  }
+
+  /**
+   * Checks whether the text contains a substring within <code>maxDistance</code> edits
+   * (insertions, deletions or substitutions) of the pattern
+   *
+   * @param text        text to search in
+   * @param pattern     pattern to search for
+   * @param maxDistance maximum edit distance
+   * @return true if an approximate occurrence is found
+   */
+  public static boolean containsApproximately(CharSequence text, CharSequence pattern, int maxDistance) {
+    int m = Math.min(pattern.length(), MAX_PATTERN_LENGTH);
+    if (m <= maxDistance) {
+      // every text, even the empty one, is close enough to such a short pattern
+      return true;
+    }
+    long[] asciiMasks = ASCII_MASKS.get();
+    for (int i = 0; i < m; i++) {
+      char c = Character.toLowerCase(pattern.charAt(i));
+      if (c < ASCII_SIZE) {
+        asciiMasks[c] |= 1L << i;
+      }
+    }
+    try {
+      return search(text, pattern, m, maxDistance, asciiMasks);
+    } finally {
+      for (int i = 0; i < m; i++) {
+        char c = Character.toLowerCase(pattern.charAt(i));
+        if (c < ASCII_SIZE) {
+          asciiMasks[c] = 0;
+        }
+      }
+    }
+  }
+
+  private static boolean search(CharSequence text, CharSequence pattern, int m, int maxDistance, long[] asciiMasks) {
+    long lastBit = 1L << (m - 1);
+    // vertical positive and negative deltas of the current dynamic programming column
+    long pv = m == MAX_PATTERN_LENGTH ? -1L : (1L << m) - 1;
+    long mv = 0;
+    int score = m;
+    for (int j = 0; j < text.length(); j++) {
+      char c = Character.toLowerCase(text.charAt(j));
+      long eq = c < ASCII_SIZE ? asciiMasks[c] : mask(pattern, m, c);
+      long xv = eq | mv;
+      long xh = (((eq & pv) + pv) ^ pv) | eq;
+      long ph = mv | ~(xh | pv);
+      long mh = pv & xh;
+      if ((ph & lastBit) != 0) {
+        score++;
+      } else if ((mh & lastBit) != 0) {
+        score--;
+      }
+      // the occurrence may start anywhere in the text, so the top row stays zero
+      ph <<= 1;
+      mh <<= 1;
+      pv = mh | ~(xv | ph);
+      mv = ph & xv;
+      if (score <= maxDistance) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static long mask(CharSequence pattern, int m, char c) {
+    long mask = 0;
+    for (int i = 0; i < m; i++) {
+      if (Character.toLowerCase(pattern.charAt(i)) == c) {
+        mask |= 1L << i;
+      }
+    }
+    return mask;
+  }
+}
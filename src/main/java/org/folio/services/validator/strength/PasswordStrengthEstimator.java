@@ -0,0 +1,618 @@
+package org.folio.services.validator.strength;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Estimates password strength in the way zxcvbn does:
+ * finds all the guessable patterns in the password (dictionary words, l33t substitutions,
+ * reversed words, sequences, repeats and dates), estimates the number of guesses needed for every pattern
+ * and searches for the sequence of non-overlapping patterns that needs the least number of guesses
+ * to crack the whole password.
+ * <p>
+ * Ranked dictionaries are loaded once per JVM and shared by all verticles,
+ * the estimator itself is stateless and thread safe.
+ * <p>
+ * The password is read as a {@link CharSequence} and never copied into a {@link String},
+ * the lower case copy the dictionaries are matched against is zeroed once the estimate is done.
+ * <p>
+ * The dictionaries bundled with the module are a sample of a few hundred words only, a common password
+ * missing from them is estimated as bruteforce and gets a too high score. Production deployments set
+ * <code>validation.strength.dictionaries</code> to a directory of full ranked lists, e.g. the frequency lists
+ * of zxcvbn (passwords, english_wikipedia, us_tv_and_film, surnames, male_names, female_names),
+ * every <code>*.txt</code> file of the directory is loaded as one dictionary.
+ */
+public final class PasswordStrengthEstimator {
+
+  private static final String[] DEFAULT_DICTIONARIES = {"passwords", "english"};
+  private static final String DICTIONARY_RESOURCE_PATTERN = "dictionaries/%s.txt";
+  private static final String DICTIONARY_FILE_GLOB = "*.txt";
+
+  // Longer passwords are estimated by their prefix, the prefix is strong enough anyway
+  private static final int MAX_PASSWORD_LENGTH = 64;
+  private static final int MIN_USER_INPUT_LENGTH = 3;
+
+  private static final double BRUTEFORCE_CARDINALITY = 10;
+  private static final double MIN_SUBMATCH_GUESSES_SINGLE_CHAR = 10;
+  private static final double MIN_SUBMATCH_GUESSES_MULTI_CHAR = 50;
+  private static final double MIN_GUESSES_BEFORE_GROWING_SEQUENCE = 10000;
+
+  private static final int MAX_SEQUENCE_DELTA = 5;
+
+  private static final int REFERENCE_YEAR = Year.now().getValue();
+  private static final int MIN_YEAR_SPACE = 20;
+  private static final int DATE_MIN_YEAR = 1000;
+  private static final int DATE_MAX_YEAR = 2050;
+  private static final int[][][] DATE_SPLITS = {
+    {{1, 2}, {2, 3}},
+    {{1, 3}, {2, 3}},
+    {{1, 2}, {2, 4}, {4, 5}},
+    {{1, 3}, {2, 3}, {4, 5}, {4, 6}},
+    {{2, 4}, {4, 6}}
+  };
+  private static final Pattern DATE_WITH_SEPARATOR = Pattern.compile("^(\\d{1,4})([\\s/\\\\_.-])(\\d{1,2})\\2(\\d{1,4})$");
+
+  private static final char[][] L33T_TABLE = new char[128][];
+
+  static {
+    L33T_TABLE['4'] = new char[]{'a'};
+    L33T_TABLE['@'] = new char[]{'a'};
+    L33T_TABLE['8'] = new char[]{'b'};
+    L33T_TABLE['('] = new char[]{'c'};
+    L33T_TABLE['{'] = new char[]{'c'};
+    L33T_TABLE['['] = new char[]{'c'};
+    L33T_TABLE['<'] = new char[]{'c'};
+    L33T_TABLE['3'] = new char[]{'e'};
+    L33T_TABLE['6'] = new char[]{'g'};
+    L33T_TABLE['9'] = new char[]{'g'};
+    L33T_TABLE['1'] = new char[]{'i', 'l'};
+    L33T_TABLE['!'] = new char[]{'i'};
+    L33T_TABLE['|'] = new char[]{'i', 'l'};
+    L33T_TABLE['0'] = new char[]{'o'};
+    L33T_TABLE['$'] = new char[]{'s'};
+    L33T_TABLE['5'] = new char[]{'s'};
+    L33T_TABLE['7'] = new char[]{'t', 'l'};
+    L33T_TABLE['+'] = new char[]{'t'};
+    L33T_TABLE['%'] = new char[]{'x'};
+    L33T_TABLE['2'] = new char[]{'z'};
+  }
+
+  private final List<RankedDictionary> dictionaries;
+
+  public PasswordStrengthEstimator(List<RankedDictionary> dictionaries) {
+    this.dictionaries = Collections.unmodifiableList(new ArrayList<>(dictionaries));
+  }
+
+  /**
+   * Returns the estimator based on the default ranked dictionaries;
+   * the dictionaries are loaded on the first call and shared afterwards.
+   *
+   * @return shared estimator instance
+   */
+  public static PasswordStrengthEstimator getInstance() {
+    return DefaultInstanceHolder.INSTANCE;
+  }
+
+  /**
+   * Estimates password strength
+   *
+   * @param password   password to estimate
+   * @param userInputs user specific words, e.g. user name, first and last name,
+   *                   treated as the most common dictionary words
+   * @return strength estimate
+   */
+  public StrengthEstimate estimate(CharSequence password, Collection<String> userInputs) {
+    CharSequence value = password.length() > MAX_PASSWORD_LENGTH
+      ? password.subSequence(0, MAX_PASSWORD_LENGTH) : password;
+    if (value.length() == 0) {
+      return new StrengthEstimate(1, 0);
+    }
+    List<String> inputs = new ArrayList<>(userInputs.size());
+    for (String userInput : userInputs) {
+      if (userInput != null && userInput.length() >= MIN_USER_INPUT_LENGTH) {
+        inputs.add(userInput.toLowerCase(Locale.ROOT));
+      }
+    }
+    double guesses = mostGuessableGuesses(value, inputs);
+    return new StrengthEstimate(guesses, toScore(guesses));
+  }
+
+  private double mostGuessableGuesses(CharSequence password, List<String> userInputs) {
+    // lower cased char by char, so the positions of the matches are the positions in the password
+    char[] lower = new char[password.length()];
+    try {
+      for (int i = 0; i < lower.length; i++) {
+        lower[i] = Character.toLowerCase(password.charAt(i));
+      }
+      List<Match> matches = new ArrayList<>();
+      for (RankedDictionary dictionary : dictionaries) {
+        for (int i = 0; i < lower.length; i++) {
+          findDictionaryMatches(dictionary.root(), password, lower, i, i, 0, matches);
+        }
+      }
+      findReversedDictionaryMatches(password, lower, matches);
+      findUserInputMatches(password, lower, userInputs, matches);
+      findSequenceMatches(password, matches);
+      findRepeatMatches(password, userInputs, matches);
+      findDateMatches(password, matches);
+      return minimumGuesses(password.length(), matches);
+    } finally {
+      Arrays.fill(lower, '\0');
+    }
+  }
+
+  /**
+   * Walks the dictionary trie from position <code>i</code> trying both the original char
+   * and all the letters the char can be a l33t substitution for.
+   */
+  private void findDictionaryMatches(RankedDictionary.Node node, CharSequence password, char[] lower,
+                                     int i, int j, int substitutions, List<Match> matches) {
+    if (j >= lower.length) {
+      return;
+    }
+    char c = lower[j];
+    RankedDictionary.Node next = node.child(c);
+    if (next != null) {
+      addDictionaryMatch(next, password, i, j, substitutions, matches);
+      findDictionaryMatches(next, password, lower, i, j + 1, substitutions, matches);
+    }
+    char[] letters = c < L33T_TABLE.length ? L33T_TABLE[c] : null;
+    if (letters != null) {
+      for (char letter : letters) {
+        next = node.child(letter);
+        if (next != null) {
+          addDictionaryMatch(next, password, i, j, substitutions + 1, matches);
+          findDictionaryMatches(next, password, lower, i, j + 1, substitutions + 1, matches);
+        }
+      }
+    }
+  }
+
+  private void addDictionaryMatch(RankedDictionary.Node node, CharSequence password, int i, int j,
+                                  int substitutions, List<Match> matches) {
+    if (node.rank() > 0) {
+      double guesses = node.rank() * uppercaseVariations(password, i, j);
+      if (substitutions > 0) {
+        guesses *= Math.pow(2, substitutions);
+      }
+      matches.add(new Match(i, j, guesses));
+    }
+  }
+
+  private void findReversedDictionaryMatches(CharSequence password, char[] lower, List<Match> matches) {
+    int n = lower.length;
+    for (RankedDictionary dictionary : dictionaries) {
+      for (int i = 0; i < n; i++) {
+        RankedDictionary.Node node = dictionary.root();
+        for (int j = i; j < n && node != null; j++) {
+          // walks the lower case password backwards from its end
+          node = node.child(lower[n - 1 - j]);
+          // single chars and palindromes are found by the direct match already
+          if (node != null && node.rank() > 0 && j > i) {
+            int start = n - 1 - j;
+            int end = n - 1 - i;
+            matches.add(new Match(start, end, 2 * node.rank() * uppercaseVariations(password, start, end)));
+          }
+        }
+      }
+    }
+  }
+
+  private void findUserInputMatches(CharSequence password, char[] lower, List<String> userInputs, List<Match> matches) {
+    CharSequence lowerPassword = CharBuffer.wrap(lower);
+    for (int rank = 1; rank <= userInputs.size(); rank++) {
+      String userInput = userInputs.get(rank - 1);
+      int length = userInput.length();
+      for (int i = 0; i + length <= lower.length; i++) {
+        if (regionMatches(lowerPassword, i, userInput, 0, length)) {
+          matches.add(new Match(i, i + length - 1, rank * uppercaseVariations(password, i, i + length - 1)));
+        }
+      }
+    }
+  }
+
+  private void findSequenceMatches(CharSequence password, List<Match> matches) {
+    int n = password.length();
+    int i = 0;
+    while (i < n - 1) {
+      int delta = password.charAt(i + 1) - password.charAt(i);
+      int j = i + 1;
+      while (j + 1 < n && password.charAt(j + 1) - password.charAt(j) == delta) {
+        j++;
+      }
+      if (j - i + 1 >= 3 && delta != 0 && Math.abs(delta) <= MAX_SEQUENCE_DELTA) {
+        matches.add(new Match(i, j, sequenceGuesses(password.charAt(i), j - i + 1, delta < 0)));
+      }
+      i = j;
+    }
+  }
+
+  private double sequenceGuesses(char first, int length, boolean descending) {
+    double base;
+    if ("aAzZ019".indexOf(first) >= 0) {
+      base = 4;
+    } else if (Character.isDigit(first)) {
+      base = 10;
+    } else {
+      base = 26;
+    }
+    if (descending) {
+      base *= 2;
+    }
+    return base * length;
+  }
+
+  private void findRepeatMatches(CharSequence password, List<String> userInputs, List<Match> matches) {
+    int n = password.length();
+    int i = 0;
+    while (i < n) {
+      int bestLength = 0;
+      int bestPeriod = 0;
+      for (int period = 1; i + 2 * period <= n; period++) {
+        int repeats = 1;
+        while (i + (repeats + 1) * period <= n && regionMatches(password, i, password, i + repeats * period, period)) {
+          repeats++;
+        }
+        if (repeats > 1 && repeats * period > bestLength) {
+          bestLength = repeats * period;
+          bestPeriod = period;
+        }
+      }
+      if (bestLength == 0) {
+        i++;
+        continue;
+      }
+      CharSequence base = password.subSequence(i, i + bestPeriod);
+      double baseGuesses = bestPeriod == 1 ? BRUTEFORCE_CARDINALITY : mostGuessableGuesses(base, userInputs);
+      matches.add(new Match(i, i + bestLength - 1, baseGuesses * (bestLength / bestPeriod)));
+      i += bestLength;
+    }
+  }
+
+  private void findDateMatches(CharSequence password, List<Match> matches) {
+    int n = password.length();
+    for (int i = 0; i < n; i++) {
+      int digits = 0;
+      while (i + digits < n && digits < 8 && Character.isDigit(password.charAt(i + digits))) {
+        digits++;
+      }
+      if (digits >= 4) {
+        int year = parseInt(password, i, i + 4);
+        if (year >= 1900 && year <= DATE_MAX_YEAR) {
+          matches.add(new Match(i, i + 3, yearSpace(year)));
+        }
+      }
+      for (int length = 4; length <= digits; length++) {
+        int year = bestDateYear(password, i, length);
+        if (year > 0) {
+          matches.add(new Match(i, i + length - 1, 365 * yearSpace(year)));
+        }
+      }
+      for (int length = 6; length <= 10 && i + length <= n; length++) {
+        // the groups are read back as numbers from the password, the matcher makes no string of it
+        Matcher matcher = DATE_WITH_SEPARATOR.matcher(password.subSequence(i, i + length));
+        if (matcher.matches()) {
+          int year = dateYear(parseInt(password, i + matcher.start(1), i + matcher.end(1)),
+            parseInt(password, i + matcher.start(3), i + matcher.end(3)),
+            parseInt(password, i + matcher.start(4), i + matcher.end(4)));
+          if (year > 0) {
+            matches.add(new Match(i, i + length - 1, 4 * 365 * yearSpace(year)));
+          }
+        }
+      }
+    }
+  }
+
+  private int bestDateYear(CharSequence password, int start, int length) {
+    int bestYear = -1;
+    for (int[] split : DATE_SPLITS[length - 4]) {
+      int year = dateYear(parseInt(password, start, start + split[0]),
+        parseInt(password, start + split[0], start + split[1]),
+        parseInt(password, start + split[1], start + length));
+      if (year > 0 && (bestYear < 0 || Math.abs(year - REFERENCE_YEAR) < Math.abs(bestYear - REFERENCE_YEAR))) {
+        bestYear = year;
+      }
+    }
+    return bestYear;
+  }
+
+  /**
+   * Returns year if given three numbers form a valid date in year-month-day, year-day-month,
+   * month-day-year or day-month-year order, -1 otherwise
+   */
+  private int dateYear(int first, int second, int third) {
+    if (second < 1 || second > 31) {
+      return -1;
+    }
+    int year = toYear(third);
+    if (year > 0 && isDayMonth(first, second)) {
+      return year;
+    }
+    year = toYear(first);
+    if (year > 0 && isDayMonth(second, third)) {
+      return year;
+    }
+    return -1;
+  }
+
+  private int toYear(int value) {
+    if (value >= DATE_MIN_YEAR && value <= DATE_MAX_YEAR) {
+      return value;
+    } else if (value <= 99) {
+      return value > 50 ? 1900 + value : 2000 + value;
+    }
+    return -1;
+  }
+
+  private boolean isDayMonth(int first, int second) {
+    return (isDay(first) && isMonth(second)) || (isMonth(first) && isDay(second));
+  }
+
+  private boolean isDay(int value) {
+    return value >= 1 && value <= 31;
+  }
+
+  private boolean isMonth(int value) {
+    return value >= 1 && value <= 12;
+  }
+
+  private double yearSpace(int year) {
+    return Math.max(Math.abs(year - REFERENCE_YEAR), MIN_YEAR_SPACE);
+  }
+
+  private int parseInt(CharSequence value, int start, int end) {
+    int result = 0;
+    for (int i = start; i < end; i++) {
+      result = result * 10 + (value.charAt(i) - '0');
+    }
+    return result;
+  }
+
+  private boolean regionMatches(CharSequence value, int offset, CharSequence other, int otherOffset, int length) {
+    for (int k = 0; k < length; k++) {
+      if (value.charAt(offset + k) != other.charAt(otherOffset + k)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private double uppercaseVariations(CharSequence password, int i, int j) {
+    int upper = 0;
+    int lower = 0;
+    for (int k = i; k <= j; k++) {
+      char c = password.charAt(k);
+      if (Character.isUpperCase(c)) {
+        upper++;
+      } else if (Character.isLowerCase(c)) {
+        lower++;
+      }
+    }
+    if (upper == 0 || lower == 0) {
+      return upper == 0 ? 1 : 2;
+    }
+    if (upper == 1 && (Character.isUpperCase(password.charAt(i)) || Character.isUpperCase(password.charAt(j)))) {
+      return 2;
+    }
+    double variations = 0;
+    for (int k = 1; k <= Math.min(upper, lower); k++) {
+      variations += binomial(upper + lower, k);
+    }
+    return variations;
+  }
+
+  /**
+   * Searches for the sequence of matches and bruteforce gaps covering the password
+   * that minimizes <code>l! * product(guesses) + D^(l - 1)</code>, where l is the length of the sequence.
+   */
+  private double minimumGuesses(int n, List<Match> matches) {
+    List<List<Match>> matchesByEnd = new ArrayList<>(n);
+    for (int k = 0; k < n; k++) {
+      matchesByEnd.add(new ArrayList<>());
+    }
+    for (Match match : matches) {
+      match.guesses = Math.max(match.guesses, minSubmatchGuesses(match, n));
+      matchesByEnd.get(match.j).add(match);
+    }
+    Sequences sequences = new Sequences(n);
+    for (int k = 0; k < n; k++) {
+      for (Match match : matchesByEnd.get(k)) {
+        if (match.i == 0) {
+          sequences.update(k, 1, match.guesses, false);
+        } else {
+          for (int l = 1; l <= match.i; l++) {
+            if (sequences.isSet(match.i - 1, l)) {
+              sequences.update(k, l + 1, match.guesses * sequences.product[match.i - 1][l], false);
+            }
+          }
+        }
+      }
+      sequences.update(k, 1, bruteforceGuesses(k + 1, n), true);
+      for (int i = 1; i <= k; i++) {
+        double guesses = bruteforceGuesses(k - i + 1, n);
+        for (int l = 1; l <= i; l++) {
+          // two adjacent bruteforce gaps are the same as a single larger one
+          if (sequences.isSet(i - 1, l) && !sequences.bruteforce[i - 1][l]) {
+            sequences.update(k, l + 1, guesses * sequences.product[i - 1][l], true);
+          }
+        }
+      }
+    }
+    return sequences.best(n - 1);
+  }
+
+  private double minSubmatchGuesses(Match match, int n) {
+    if (match.j - match.i + 1 == n) {
+      return 1;
+    }
+    return match.i == match.j ? MIN_SUBMATCH_GUESSES_SINGLE_CHAR : MIN_SUBMATCH_GUESSES_MULTI_CHAR;
+  }
+
+  private double bruteforceGuesses(int length, int n) {
+    double guesses = Math.pow(BRUTEFORCE_CARDINALITY, length);
+    if (length == n) {
+      return guesses;
+    }
+    return Math.max(guesses, (length == 1 ? MIN_SUBMATCH_GUESSES_SINGLE_CHAR : MIN_SUBMATCH_GUESSES_MULTI_CHAR) + 1);
+  }
+
+  private static int toScore(double guesses) {
+    double delta = 5;
+    if (guesses < 1e3 + delta) {
+      return 0;
+    } else if (guesses < 1e6 + delta) {
+      return 1;
+    } else if (guesses < 1e8 + delta) {
+      return 2;
+    } else if (guesses < 1e10 + delta) {
+      return 3;
+    }
+    return 4;
+  }
+
+  private static double binomial(int n, int k) {
+    double result = 1;
+    for (int i = 1; i <= k; i++) {
+      result = result * (n - k + i) / i;
+    }
+    return result;
+  }
+
+  private static double factorial(int n) {
+    double result = 1;
+    for (int i = 2; i <= n; i++) {
+      result *= i;
+    }
+    return result;
+  }
+
+  private static PasswordStrengthEstimator loadDefault() {
+    String directory = MODULE_SPECIFIC_ARGS.get("validation.strength.dictionaries");
+    if (directory != null) {
+      return load(Paths.get(directory));
+    }
+    Logger logger = LogManager.getLogger(PasswordStrengthEstimator.class);
+    logger.warn("Strength is estimated with the sample dictionaries bundled with the module, "
+      + "set validation.strength.dictionaries to the directory of full ranked lists");
+    List<RankedDictionary> dictionaries = new ArrayList<>(DEFAULT_DICTIONARIES.length);
+    for (String name : DEFAULT_DICTIONARIES) {
+      String resource = String.format(DICTIONARY_RESOURCE_PATTERN, name);
+      try (InputStream stream = PasswordStrengthEstimator.class.getClassLoader().getResourceAsStream(resource)) {
+        if (stream == null) {
+          throw new IllegalStateException("Dictionary " + resource + " is not found on the classpath");
+        }
+        dictionaries.add(RankedDictionary.load(name, stream));
+      } catch (IOException e) {
+        throw new UncheckedIOException("Error while loading dictionary " + resource, e);
+      }
+    }
+    return new PasswordStrengthEstimator(dictionaries);
+  }
+
+  /**
+   * Creates the estimator based on the ranked lists of the directory, one dictionary per <code>*.txt</code> file
+   * named after the file
+   *
+   * @param directory directory of the ranked lists
+   * @return estimator
+   */
+  static PasswordStrengthEstimator load(Path directory) {
+    List<RankedDictionary> dictionaries = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, DICTIONARY_FILE_GLOB)) {
+      for (Path file : files) {
+        String fileName = file.getFileName().toString();
+        try (InputStream stream = Files.newInputStream(file)) {
+          dictionaries.add(RankedDictionary.load(fileName.substring(0, fileName.length() - 4), stream));
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error while loading dictionaries from " + directory, e);
+    }
+    if (dictionaries.isEmpty()) {
+      throw new IllegalStateException("No dictionaries are found in " + directory);
+    }
+    return new PasswordStrengthEstimator(dictionaries);
+  }
+
+  private static final class DefaultInstanceHolder {
+    private static final PasswordStrengthEstimator INSTANCE = loadDefault();
+  }
+
+  /**
+   * Part of the password guessable by the particular pattern
+   */
+  private static final class Match {
+    private final int i;
+    private final int j;
+    private double guesses;
+
+    private Match(int i, int j, double guesses) {
+      this.i = i;
+      this.j = j;
+      this.guesses = guesses;
+    }
+  }
+
+  /**
+   * Optimal sequences of matches ending at position k and consisting of l matches
+   */
+  private static final class Sequences {
+    private final double[][] product;
+    private final double[][] total;
+    private final boolean[][] bruteforce;
+
+    private Sequences(int n) {
+      product = new double[n][n + 1];
+      total = new double[n][n + 1];
+      bruteforce = new boolean[n][n + 1];
+      for (double[] row : total) {
+        Arrays.fill(row, Double.POSITIVE_INFINITY);
+      }
+    }
+
+    private boolean isSet(int k, int l) {
+      return total[k][l] != Double.POSITIVE_INFINITY;
+    }
+
+    private void update(int k, int l, double guessesProduct, boolean isBruteforce) {
+      double guesses = factorial(l) * guessesProduct + Math.pow(MIN_GUESSES_BEFORE_GROWING_SEQUENCE, l - 1.0);
+      // a shorter sequence with the same or less guesses is always better
+      for (int shorter = 1; shorter <= l; shorter++) {
+        if (total[k][shorter] <= guesses) {
+          return;
+        }
+      }
+      product[k][l] = guessesProduct;
+      total[k][l] = guesses;
+      bruteforce[k][l] = isBruteforce;
+    }
+
+    private double best(int k) {
+      double best = Double.POSITIVE_INFINITY;
+      for (double guesses : total[k]) {
+        best = Math.min(best, guesses);
+      }
+      return best;
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package org.folio.services.validator.strength;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Immutable trie of dictionary words where every word is associated with its frequency rank
+ * (1 is the most common word). Child nodes are kept in sorted arrays, so lookups do not
+ * allocate and the whole structure can be safely shared between threads once built.
+ */
+public final class RankedDictionary {
+
+  private final String name;
+  private final Node root;
+
+  private RankedDictionary(String name, Node root) {
+    this.name = name;
+    this.root = root;
+  }
+
+  /**
+   * Loads dictionary from the stream containing one word per line, ordered from the most to the least common word.
+   * Empty lines and lines starting with <code>#</code> are ignored.
+   *
+   * @param name   dictionary name
+   * @param stream stream to read words from
+   * @return ranked dictionary
+   * @throws IOException if the stream cannot be read
+   */
+  public static RankedDictionary load(String name, InputStream stream) throws IOException {
+    Node root = new Node();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+      int rank = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String word = line.trim().toLowerCase(Locale.ROOT);
+        if (word.isEmpty() || word.startsWith("#")) {
+          continue;
+        }
+        root.insert(word, ++rank);
+      }
+    }
+    return new RankedDictionary(name, root);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the root node of the trie to walk it char by char
+   *
+   * @return root node
+   */
+  Node root() {
+    return root;
+  }
+
+  /**
+   * Returns rank of the given lower case word or 0 if the word is not in the dictionary
+   *
+   * @param word word to look up
+   * @return rank of the word or 0
+   */
+  public int rank(CharSequence word) {
+    Node node = root;
+    for (int i = 0; i < word.length() && node != null; i++) {
+      node = node.child(word.charAt(i));
+    }
+    return node == null ? 0 : node.rank;
+  }
+
+  static final class Node {
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private char[] keys = NO_KEYS;
+    private Node[] children = NO_CHILDREN;
+    private int rank;
+
+    /**
+     * Returns child node by the given char or null if there is no such child
+     */
+    Node child(char c) {
+      int index = Arrays.binarySearch(keys, c);
+      return index < 0 ? null : children[index];
+    }
+
+    /**
+     * Returns word rank if the node terminates the word, 0 otherwise
+     */
+    int rank() {
+      return rank;
+    }
+
+    private void insert(String word, int wordRank) {
+      Node node = this;
+      for (int i = 0; i < word.length(); i++) {
+        char c = word.charAt(i);
+        int index = Arrays.binarySearch(node.keys, c);
+        if (index < 0) {
+          index = -index - 1;
+          node.keys = insertAt(node.keys, index, c);
+          node.children = insertAt(node.children, index, new Node());
+        }
+        node = node.children[index];
+      }
+      // keep the best rank for the duplicated words
+      if (node.rank == 0) {
+        node.rank = wordRank;
+      }
+    }
+
+    private static char[] insertAt(char[] array, int index, char value) {
+      char[] result = new char[array.length + 1];
+      System.arraycopy(array, 0, result, 0, index);
+      result[index] = value;
+      System.arraycopy(array, index, result, index + 1, array.length - index);
+      return result;
+    }
+
+    private static Node[] insertAt(Node[] array, int index, Node value) {
+      Node[] result = new Node[array.length + 1];
+      System.arraycopy(array, 0, result, 0, index);
+      result[index] = value;
+      System.arraycopy(array, index, result, index + 1, array.length - index);
+      return result;
+    }
+  }
+}
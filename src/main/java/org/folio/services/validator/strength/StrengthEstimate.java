@@ -0,0 +1,30 @@
+package org.folio.services.validator.strength;
+
+/**
+ * Result of the password strength estimation:
+ * estimated number of guesses needed to crack the password and the score derived from it.
+ */
+public final class StrengthEstimate {
+
+  private final double guesses;
+  private final int score;
+
+  StrengthEstimate(double guesses, int score) {
+    this.guesses = guesses;
+    this.score = score;
+  }
+
+  /**
+   * @return estimated number of guesses needed to crack the password
+   */
+  public double getGuesses() {
+    return guesses;
+  }
+
+  /**
+   * @return password strength score from 0 (too guessable) to 4 (very unguessable)
+   */
+  public int getScore() {
+    return score;
+  }
+}
@@ -0,0 +1,172 @@
+package org.folio.services.validator.tenant;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.jaxrs.model.Rule;
+import org.folio.rest.persist.PostgresClient;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Populates the default rules of a tenant when the module is enabled for it,
+ * or upgraded from a version without the rules table.
+ * <p>
+ * Default rules are read from defaultRules.json once per JVM and written by a single batch statement per tenant.
+ * The number of tenants populated at the same time is bounded, so that enabling the module
+ * for hundreds of tenants at once does not exhaust the db connection pool, the rest are queued.
+ */
+public final class DefaultRulesInitializer {
+
+  private static final String DEFAULT_RULES_PATH = "defaultRules/defaultRules.json";
+  private static final String VALIDATION_RULES_TABLE_NAME = "validation_rules";
+  // Version the rules table was added in, see fromModuleVersion of validation_rules in schema.json
+  private static final int[] RULES_TABLE_VERSION = {1, 7, 0};
+  private static final Pattern MODULE_VERSION = Pattern.compile("(\\d+)\\.(\\d+)\\.(\\d+)");
+
+  private final Logger logger = LogManager.getLogger(DefaultRulesInitializer.class);
+
+  private final List<Object> defaultRules;
+  // Maximum number of tenants populated at the same time
+  private final int maxConcurrency;
+  private final AtomicInteger running = new AtomicInteger();
+  private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+  DefaultRulesInitializer(List<Object> defaultRules, int maxConcurrency) {
+    this.defaultRules = Collections.unmodifiableList(defaultRules);
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  /**
+   * Returns the shared initializer with the default rules loaded from the classpath
+   *
+   * @return default rules initializer
+   */
+  public static DefaultRulesInitializer getInstance() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * Inserts or replaces the default rules of the tenant,
+   * the insert waits in the queue while the maximum number of tenants is being populated
+   *
+   * @param vertx    vertx instance
+   * @param tenantId tenant id
+   * @return future completed once the rules are written
+   */
+  public Future<Void> populate(Vertx vertx, String tenantId) {
+    Promise<Void> promise = Promise.promise();
+    pending.add(() -> upsertDefaultRules(vertx, tenantId).onComplete(reply -> {
+      running.decrementAndGet();
+      drain();
+      promise.handle(reply);
+    }));
+    drain();
+    return promise.future();
+  }
+
+  /**
+   * Tells whether the default rules are added by the tenant request: when the module is enabled,
+   * or upgraded from a version older than the rules table. Other upgrades keep the rules of the tenant
+   *
+   * @param moduleFrom module id the tenant is upgraded from, empty when the module is enabled
+   * @return true if the default rules are to be populated
+   */
+  public static boolean shouldPopulate(String moduleFrom) {
+    if (moduleFrom == null || moduleFrom.isEmpty()) {
+      return true;
+    }
+    Matcher version = MODULE_VERSION.matcher(moduleFrom);
+    if (!version.find()) {
+      return false;
+    }
+    for (int i = 0; i < RULES_TABLE_VERSION.length; i++) {
+      int part = Integer.parseInt(version.group(i + 1));
+      if (part != RULES_TABLE_VERSION[i]) {
+        return part < RULES_TABLE_VERSION[i];
+      }
+    }
+    return false;
+  }
+
+  int getDefaultRulesCount() {
+    return defaultRules.size();
+  }
+
+  private void drain() {
+    while (!pending.isEmpty()) {
+      int current = running.get();
+      if (current >= maxConcurrency) {
+        return;
+      }
+      if (running.compareAndSet(current, current + 1)) {
+        Runnable task = pending.poll();
+        if (task == null) {
+          running.decrementAndGet();
+        } else {
+          task.run();
+        }
+      }
+    }
+  }
+
+  private Future<Void> upsertDefaultRules(Vertx vertx, String tenantId) {
+    Promise<Void> promise = Promise.promise();
+    try {
+      PostgresClient.getInstance(vertx, tenantId).upsertBatch(VALIDATION_RULES_TABLE_NAME, defaultRules, reply -> {
+        if (reply.failed()) {
+          logger.error("Error while saving default rules of tenant {}", tenantId, reply.cause());
+          promise.fail(reply.cause());
+        } else {
+          promise.complete();
+        }
+      });
+    } catch (Exception e) {
+      promise.fail(e);
+    }
+    return promise.future();
+  }
+
+  static List<Object> loadDefaultRules(InputStream inputStream) throws IOException {
+    JsonArray rules = new JsonObject(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)).getJsonArray("rules");
+    List<Object> defaultRules = new ArrayList<>(rules.size());
+    // every rule keeps the id of its row, upserting by id replaces the rule populated by the earlier versions
+    for (int i = 0; i < rules.size(); i++) {
+      defaultRules.add(rules.getJsonObject(i).mapTo(Rule.class));
+    }
+    return defaultRules;
+  }
+
+  private static final class Holder {
+    private static final DefaultRulesInitializer INSTANCE = create();
+
+    private static DefaultRulesInitializer create() {
+      int maxConcurrency = Integer.parseInt(MODULE_SPECIFIC_ARGS.getOrDefault("tenant.init.concurrency", "4"));
+      try (InputStream inputStream = DefaultRulesInitializer.class.getClassLoader().getResourceAsStream(DEFAULT_RULES_PATH)) {
+        if (inputStream == null) {
+          throw new IllegalStateException("Default rules are not found at " + DEFAULT_RULES_PATH);
+        }
+        return new DefaultRulesInitializer(loadDefaultRules(inputStream), maxConcurrency);
+      } catch (IOException e) {
+        throw new IllegalStateException("Error while loading default rules", e);
+      }
+    }
+  }
+}
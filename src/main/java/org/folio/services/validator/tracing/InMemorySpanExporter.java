@@ -0,0 +1,32 @@
+package org.folio.services.validator.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps the ended spans in memory, to be installed by {@link Tracer#setExporter(SpanExporter)} in tests
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+  private final Queue<Span> finishedSpans = new ConcurrentLinkedQueue<>();
+
+  @Override
+  public void export(Span span) {
+    finishedSpans.add(span);
+  }
+
+  /**
+   * Returns the ended spans in the order they were ended
+   *
+   * @return ended spans
+   */
+  public List<Span> getFinishedSpans() {
+    return new ArrayList<>(finishedSpans);
+  }
+
+  public void reset() {
+    finishedSpans.clear();
+  }
+}
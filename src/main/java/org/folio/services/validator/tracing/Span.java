@@ -0,0 +1,147 @@
+package org.folio.services.validator.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.vertx.core.AsyncResult;
+
+/**
+ * Timed operation of a trace. Identifiers and the {@code traceparent} format follow the W3C Trace Context,
+ * so the span can be exported to any OpenTelemetry compatible backend.
+ * A span is ended once, by the handler completing the operation.
+ */
+public final class Span {
+
+  private static final String VERSION = "00";
+  private static final String SAMPLED = "01";
+  private static final int TRACE_ID_LENGTH = 32;
+  private static final int SPAN_ID_LENGTH = 16;
+
+  private final String name;
+  private final String traceId;
+  private final String spanId;
+  private final String parentSpanId;
+  private final long startNanos;
+  private final Map<String, Object> attributes = Collections.synchronizedMap(new LinkedHashMap<>());
+  private volatile long durationNanos = -1;
+  private volatile String error;
+
+  private Span(String name, String traceId, String parentSpanId) {
+    this.name = name;
+    this.traceId = traceId;
+    this.spanId = randomHex(SPAN_ID_LENGTH);
+    this.parentSpanId = parentSpanId;
+    this.startNanos = System.nanoTime();
+  }
+
+  static Span start(String name, String traceparent) {
+    String[] parts = traceparent == null ? new String[0] : traceparent.split("-");
+    if (parts.length == 4 && parts[1].length() == TRACE_ID_LENGTH && parts[2].length() == SPAN_ID_LENGTH
+      && isHex(parts[1]) && isHex(parts[2])) {
+      return new Span(name, parts[1], parts[2]);
+    }
+    return new Span(name, randomHex(TRACE_ID_LENGTH), null);
+  }
+
+  /**
+   * Starts child span of this span
+   *
+   * @param childName child span name
+   * @return started span
+   */
+  public Span child(String childName) {
+    return new Span(childName, traceId, spanId);
+  }
+
+  public Span setAttribute(String key, Object value) {
+    attributes.put(key, value);
+    return this;
+  }
+
+  /**
+   * Returns trace context of this span to be sent in the {@code traceparent} header of the outgoing requests
+   *
+   * @return trace context in the W3C format
+   */
+  public String getTraceparent() {
+    return VERSION + "-" + traceId + "-" + spanId + "-" + SAMPLED;
+  }
+
+  /**
+   * Ends the span and exports it
+   */
+  public void end() {
+    if (durationNanos < 0) {
+      durationNanos = System.nanoTime() - startNanos;
+      Tracer.export(this);
+    }
+  }
+
+  /**
+   * Ends the span recording the cause of the failed result
+   *
+   * @param result result of the operation
+   */
+  public void end(AsyncResult<?> result) {
+    if (result.failed()) {
+      error = String.valueOf(result.cause().getMessage());
+    }
+    end();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getTraceId() {
+    return traceId;
+  }
+
+  public String getSpanId() {
+    return spanId;
+  }
+
+  public String getParentSpanId() {
+    return parentSpanId;
+  }
+
+  public long getDurationNanos() {
+    return durationNanos;
+  }
+
+  public Map<String, Object> getAttributes() {
+    synchronized (attributes) {
+      return new LinkedHashMap<>(attributes);
+    }
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  @Override
+  public String toString() {
+    return "Span{name=" + name + ", traceId=" + traceId + ", spanId=" + spanId + ", parentSpanId=" + parentSpanId
+      + ", durationNanos=" + durationNanos + ", attributes=" + getAttributes() + (error == null ? "" : ", error=" + error) + "}";
+  }
+
+  private static String randomHex(int length) {
+    StringBuilder hex = new StringBuilder(length);
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    while (hex.length() < length) {
+      hex.append(Character.forDigit(random.nextInt(16), 16));
+    }
+    return hex.toString();
+  }
+
+  private static boolean isHex(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      if (Character.digit(value.charAt(i), 16) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,15 @@
+package org.folio.services.validator.tracing;
+
+/**
+ * Receives every span once it is ended
+ */
+@FunctionalInterface
+public interface SpanExporter {
+
+  /**
+   * Exports the ended span, called on the thread ending the span, so it must not block
+   *
+   * @param span ended span
+   */
+  void export(Span span);
+}
@@ -0,0 +1,51 @@
+package org.folio.services.validator.tracing;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Starts spans of the module. Trace context is propagated in the W3C {@code traceparent} header,
+ * the one used by OpenTelemetry, so the spans of the module join the traces of the calling and the called modules.
+ * Ended spans are logged at debug level unless another exporter is set.
+ */
+public final class Tracer {
+
+  public static final String TRACEPARENT_HEADER = "traceparent";
+
+  private static final Logger logger = LogManager.getLogger(Tracer.class);
+
+  private static volatile SpanExporter exporter = Tracer::log;
+
+  private Tracer() {
+  }
+
+  /**
+   * Starts span of the trace given by the parent trace context or of a new trace
+   *
+   * @param name        span name
+   * @param traceparent trace context of the parent span in the W3C format, new trace is started if it is null or malformed
+   * @return started span
+   */
+  public static Span startSpan(String name, String traceparent) {
+    return Span.start(name, traceparent);
+  }
+
+  /**
+   * Sets the exporter of the ended spans
+   *
+   * @param spanExporter span exporter
+   */
+  public static void setExporter(SpanExporter spanExporter) {
+    exporter = spanExporter;
+  }
+
+  static void export(Span span) {
+    exporter.export(span);
+  }
+
+  private static void log(Span span) {
+    if (logger.isDebugEnabled()) {
+      logger.debug(span);
+    }
+  }
+}
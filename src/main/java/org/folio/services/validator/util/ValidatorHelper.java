@@ -3,10 +3,16 @@ package org.folio.services.validator.util;
 public final class ValidatorHelper {
 
   public static final String VALIDATOR_ENGINE_ADDRESS = "validation-engine.queue";
+  // Validation requests in their binary form, see ValidationRequestCodec
+  public static final String VALIDATION_REQUEST_ADDRESS = "validation-engine.requests";
   public static final String REGISTRY_SERVICE_ADDRESS = "validator-registry.queue";
+  public static final String PASSWORD_HISTORY_SERVICE_ADDRESS = "password-history.queue";
+  // Tenant id is published to this address once per change of the tenant rule set
+  public static final String RULES_CHANGED_ADDRESS = "validation-rules.changed";
 
   public static final String RESPONSE_VALIDATION_RESULT_KEY = "result";
   public static final String RESPONSE_ERROR_MESSAGES_KEY = "messages";
+  public static final String RESPONSE_STRENGTH_SCORE_KEY = "score";
   public static final String REQUEST_PARAM_KEY = "password";
   public static final String REQUEST_USER_ID_KEY = "userId";
   public static final String VALIDATION_VALID_RESULT = "valid";
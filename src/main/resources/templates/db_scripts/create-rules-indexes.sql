@@ -0,0 +1,12 @@
+-- Expression indexes on the typed rule attributes. The state index of schema.json is built by RMB on
+-- lower(f_unaccent(jsonb->>'state')) for CQL queries, it cannot serve a plain jsonb->>'state' comparison
+CREATE INDEX IF NOT EXISTS validation_rules_type_expr_idx
+  ON validation_rules ((jsonb->>'type'));
+CREATE INDEX IF NOT EXISTS validation_rules_order_no_expr_idx
+  ON validation_rules (((jsonb->>'orderNo')::integer));
+
+-- Partial index serving the validation hot path: enabled rules in the order of processing, without a sort.
+-- The query returns the jsonb column, so the rows are still read from the table, it is not an index-only scan
+CREATE INDEX IF NOT EXISTS validation_rules_enabled_order_no_idx
+  ON validation_rules (((jsonb->>'orderNo')::integer))
+  WHERE jsonb->>'state' = 'Enabled';
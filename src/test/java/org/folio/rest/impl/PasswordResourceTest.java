@@ -58,6 +58,7 @@ public class PasswordResourceTest {
 
   private static final String VALIDATE_PATH = "/password/validate";
   private static final String TENANT_RULES_PATH = "/tenant/rules";
+  private static final String HISTORY_PATH = "/password/history";
 
   private static final String PASSWORD_VALIDATION_RESULT_JSON_PATH = "result";
   private static final String PASSWORD_VALIDATION_MESSAGES_JSON_PATH = "messages";
@@ -319,6 +320,61 @@ public class PasswordResourceTest {
       .body(PASSWORD_VALIDATION_RESULT_JSON_PATH, is(ValidatorHelper.VALIDATION_VALID_RESULT));
   }
 
+  @Test
+  public void shouldRejectPasswordFromLocalHistory(final TestContext context) {
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .body(new Rule()
+        .withName("no_repeatable_password")
+        .withType(Rule.Type.LOCAL_HISTORY)
+        .withValidationType(Rule.ValidationType.STRONG)
+        .withModuleName("mod-password-validator")
+        .withDescription("The password must differ from last 10 passwords")
+        .withErrMessageId("password.lastTenPasswords.invalid")
+        .withOrderNo(0)
+        .withState(Rule.State.ENABLED))
+      .when()
+      .post(TENANT_RULES_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_CREATED);
+
+    mockUserService();
+    Password usedPassword = new Password()
+      .withPassword("Used-P@ssw0rd")
+      .withUserId(ADMIN_ID);
+
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .body(usedPassword)
+      .when()
+      .post(HISTORY_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_NO_CONTENT);
+
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .header(TOKEN_HEADER)
+      .header(userMockUrlHeader)
+      .body(usedPassword)
+      .when()
+      .post(VALIDATE_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body(PASSWORD_VALIDATION_RESULT_JSON_PATH, is(ValidatorHelper.VALIDATION_INVALID_RESULT))
+      .body(PASSWORD_VALIDATION_MESSAGES_JSON_PATH, contains("password.lastTenPasswords.invalid"));
+
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .header(TOKEN_HEADER)
+      .header(userMockUrlHeader)
+      .body(usedPassword.withPassword("New-P@ssw0rd"))
+      .when()
+      .post(VALIDATE_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body(PASSWORD_VALIDATION_RESULT_JSON_PATH, is(ValidatorHelper.VALIDATION_VALID_RESULT));
+  }
+
   private RequestSpecification requestSpecification() {
     return RestAssured.given()
       .port(port)
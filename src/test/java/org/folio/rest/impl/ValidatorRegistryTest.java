@@ -6,6 +6,7 @@ import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
@@ -16,10 +17,15 @@ import org.apache.http.HttpStatus;
 import org.folio.rest.RestVerticle;
 import org.folio.rest.client.TenantClient;
 import org.folio.rest.jaxrs.model.Rule;
+import org.folio.rest.jaxrs.model.RuleCollection;
 import org.folio.rest.jaxrs.model.TenantAttributes;
 import org.folio.rest.persist.Criteria.Criterion;
 import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.tools.utils.NetworkUtils;
+import org.folio.services.validator.registry.ValidatorRegistryService;
+import org.folio.services.validator.tracing.InMemorySpanExporter;
+import org.folio.services.validator.tracing.Span;
+import org.folio.services.validator.tracing.Tracer;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.Before;
@@ -32,6 +38,7 @@ import javax.ws.rs.core.MediaType;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
@@ -39,6 +46,7 @@ import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
 
 @RunWith(VertxUnitRunner.class)
 public class ValidatorRegistryTest {
@@ -125,6 +133,7 @@ public class ValidatorRegistryTest {
     .put("orderNo", 1);
 
   private static final String TENANT_RULES_PATH = "/tenant/rules";
+  private static final String TENANT_RULES_BULK_PATH = "/tenant/rules/bulk";
   private static final String HOST = "http://localhost:";
   private static final String HTTP_PORT = "http.port";
   private static final String TENANT = "diku";
@@ -319,6 +328,52 @@ public class ValidatorRegistryTest {
       .body("rules*.state", everyItem(not(Rule.State.DISABLED.toString())));
   }
 
+  @Test
+  public void shouldReturnEnabledRulesSortedByOrderNumber(final TestContext context) {
+    List<Integer> orderNumbers = Arrays.asList(12, 3, 0, 7, 1);
+    for (Integer orderNo : orderNumbers) {
+      requestSpecification()
+        .header(TENANT_HEADER)
+        .body(REGEXP_RULE_ENABLED.copy().put("orderNo", orderNo).toString())
+        .when()
+        .post(TENANT_RULES_PATH)
+        .then()
+        .statusCode(HttpStatus.SC_CREATED);
+    }
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .body(REGEXP_RULE_DISABLED.copy().put("orderNo", 2).toString())
+      .when()
+      .post(TENANT_RULES_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_CREATED);
+
+    ValidatorRegistryService.create(vertx).getEnabledTenantRules(TENANT, null, context.asyncAssertSuccess(result -> {
+      List<Integer> actualOrderNumbers = result.mapTo(RuleCollection.class).getRules().stream()
+        .map(Rule::getOrderNo)
+        .collect(Collectors.toList());
+      assertThat(actualOrderNumbers, is(Arrays.asList(0, 1, 3, 7, 12)));
+    }));
+  }
+
+  @Test
+  public void shouldTraceEnabledRulesQueryInTraceOfCaller(final TestContext context) {
+    InMemorySpanExporter exporter = new InMemorySpanExporter();
+    Tracer.setExporter(exporter);
+    Span callerSpan = Tracer.startSpan("validation-engine enabled rules", null);
+
+    ValidatorRegistryService.create(vertx).getEnabledTenantRules(TENANT, callerSpan.getTraceparent(),
+      context.asyncAssertSuccess(result -> {
+        Tracer.setExporter(span -> { });
+        Span dbSpan = exporter.getFinishedSpans().stream()
+          .filter(span -> "postgres select enabled rules".equals(span.getName()))
+          .findFirst()
+          .orElseThrow(AssertionError::new);
+        assertThat(dbSpan.getTraceId(), is(callerSpan.getTraceId()));
+        assertThat(dbSpan.getParentSpanId(), is(callerSpan.getSpanId()));
+      }));
+  }
+
   @Test
   public void shouldReturnBadRequestOnPostWhenNoRulePassedInBody(final TestContext context) {
     requestSpecification()
@@ -390,6 +445,86 @@ public class ValidatorRegistryTest {
       .body("description", is(VALID_RULE.getString("description")));
   }
 
+  @Test
+  public void shouldCreateRulesInBulk(final TestContext context) {
+    JsonObject rules = new JsonObject()
+      .put("rules", new JsonArray(Arrays.asList(REGEXP_RULE_ENABLED, PROGRAMMATIC_RULE_DISABLED)))
+      .put("totalRecords", 2);
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .body(rules.toString())
+      .when()
+      .post(TENANT_RULES_BULK_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_CREATED)
+      .body("totalRecords", is(2))
+      .body("rules*.ruleId", everyItem(notNullValue()));
+
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .when()
+      .get(TENANT_RULES_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body("totalRecords", is(2))
+      .body("rules*.name", containsInAnyOrder(REGEXP_RULE_ENABLED.getString("name"),
+        PROGRAMMATIC_RULE_DISABLED.getString("name")));
+  }
+
+  @Test
+  public void shouldReplaceRulesInBulk(final TestContext context) {
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .body(REGEXP_RULE_DISABLED.toString())
+      .when()
+      .post(TENANT_RULES_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_CREATED);
+
+    JsonObject rules = new JsonObject()
+      .put("rules", new JsonArray(Arrays.asList(VALID_RULE)))
+      .put("totalRecords", 1);
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .body(rules.toString())
+      .when()
+      .put(TENANT_RULES_BULK_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body("totalRecords", is(1));
+
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .when()
+      .get(TENANT_RULES_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body("totalRecords", is(1))
+      .body("rules[0].name", is(VALID_RULE.getString("name")));
+  }
+
+  @Test
+  public void shouldNotSaveAnyRuleInBulkWhenOneIsInvalid(final TestContext context) {
+    JsonObject rules = new JsonObject()
+      .put("rules", new JsonArray(Arrays.asList(VALID_RULE, INVALID_RULE_NEGATIVE_ORDER_NUMBER)))
+      .put("totalRecords", 2);
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .body(rules.toString())
+      .when()
+      .post(TENANT_RULES_BULK_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_BAD_REQUEST);
+
+    requestSpecification()
+      .header(TENANT_HEADER)
+      .when()
+      .get(TENANT_RULES_PATH)
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .body("totalRecords", is(0));
+  }
+
   @Test
   public void shouldReturnBadRequestOnPutWhenNoRulePassedInBody(final TestContext context) {
     requestSpecification()
@@ -0,0 +1,97 @@
+package org.folio.rest.impl.load;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Latencies and response statuses of one operation of the load test. Every latency is kept,
+ * so the percentiles are exact; a load test run records at most a few million of them.
+ */
+final class LatencyRecorder {
+
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  private final String operation;
+  private final int expectedStatus;
+  private final Map<Integer, Long> statuses = new TreeMap<>();
+  private long[] latencies = new long[1024];
+  private int count;
+  private long failures;
+
+  LatencyRecorder(String operation, int expectedStatus) {
+    this.operation = operation;
+    this.expectedStatus = expectedStatus;
+  }
+
+  /**
+   * Records a response
+   *
+   * @param nanos  time from sending the request to the end of the response
+   * @param status response status, 0 if the request failed without a response
+   */
+  synchronized void record(long nanos, int status) {
+    if (count == latencies.length) {
+      latencies = Arrays.copyOf(latencies, count * 2);
+    }
+    latencies[count++] = nanos;
+    statuses.merge(status, 1L, Long::sum);
+    if (status != expectedStatus) {
+      failures++;
+    }
+  }
+
+  String getOperation() {
+    return operation;
+  }
+
+  synchronized long getCount() {
+    return count;
+  }
+
+  synchronized double getErrorRate() {
+    return count == 0 ? 0.0 : (double) failures / count;
+  }
+
+  /**
+   * Returns the latency percentile
+   *
+   * @param percentile percentile from 0 to 1
+   * @return latency in milliseconds, 0 if nothing is recorded
+   */
+  synchronized double percentileMillis(double percentile) {
+    if (count == 0) {
+      return 0.0;
+    }
+    long[] sorted = Arrays.copyOf(latencies, count);
+    Arrays.sort(sorted);
+    int index = (int) Math.ceil(percentile * count) - 1;
+    return sorted[Math.max(0, Math.min(index, count - 1))] / NANOS_PER_MILLI;
+  }
+
+  /**
+   * Returns the report of the operation
+   *
+   * @param measuredNanos length of the measurement
+   * @return report as json
+   */
+  synchronized JsonObject toJson(long measuredNanos) {
+    JsonObject statusCounts = new JsonObject();
+    statuses.forEach((status, statusCount) -> statusCounts.put(String.valueOf(status), statusCount));
+    double seconds = (double) measuredNanos / TimeUnit.SECONDS.toNanos(1);
+    return new JsonObject()
+      .put("operation", operation)
+      .put("requests", count)
+      .put("throughput", seconds == 0 ? 0.0 : count / seconds)
+      .put("errorRate", getErrorRate())
+      .put("p50Millis", percentileMillis(0.5))
+      .put("p90Millis", percentileMillis(0.9))
+      .put("p99Millis", percentileMillis(0.99))
+      .put("p999Millis", percentileMillis(0.999))
+      .put("maxMillis", percentileMillis(1.0))
+      .put("statuses", statusCounts);
+  }
+}
@@ -0,0 +1,119 @@
+package org.folio.rest.impl.load;
+
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Local stand-in for Okapi and the modules the validation calls through it: {@code GET /users} of mod-users,
+ * {@code POST /authn/password/repeatable} of mod-login and the Okapi health check opening connections.
+ * Every endpoint answers after the delay and with the errors of its {@link StubProfile},
+ * timers keep the event loop free, so the stub is not the bottleneck of the load test.
+ */
+final class OkapiStub {
+
+  static final String USERS_PATH = "/users";
+  static final String REPEATABLE_PASSWORD_PATH = "/authn/password/repeatable";
+  private static final String HEALTH_PATH = "/_/proxy/health";
+  private static final String USER_ID_QUERY_PREFIX = "id==";
+
+  private final Vertx vertx;
+  private final StubProfile usersProfile;
+  private final StubProfile repeatablePasswordProfile;
+  private final Random random;
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private HttpServer server;
+
+  OkapiStub(Vertx vertx, StubProfile usersProfile, StubProfile repeatablePasswordProfile, long seed) {
+    this.vertx = vertx;
+    this.usersProfile = usersProfile;
+    this.repeatablePasswordProfile = repeatablePasswordProfile;
+    this.random = new Random(seed);
+  }
+
+  Future<Void> start(int port) {
+    Promise<HttpServer> promise = Promise.promise();
+    server = vertx.createHttpServer().requestHandler(this::handle);
+    server.listen(port, promise);
+    return promise.future().mapEmpty();
+  }
+
+  Future<Void> stop() {
+    Promise<Void> promise = Promise.promise();
+    server.close(promise);
+    return promise.future();
+  }
+
+  /**
+   * Returns the name mod-users gives the user, derived from the id
+   *
+   * @param userId user id
+   * @return user name
+   */
+  static String userName(String userId) {
+    return "user-" + userId.substring(0, 8);
+  }
+
+  long getRequests() {
+    return requests.sum();
+  }
+
+  long getErrors() {
+    return errors.sum();
+  }
+
+  private void handle(HttpServerRequest request) {
+    String path = request.path();
+    if (HEALTH_PATH.equals(path)) {
+      request.response().end();
+    } else if (request.method() == HttpMethod.GET && USERS_PATH.equals(path)) {
+      respond(request, usersProfile, () -> users(request.getParam("query")));
+    } else if (request.method() == HttpMethod.POST && REPEATABLE_PASSWORD_PATH.equals(path)) {
+      // the body is read to the end as mod-login would, the password is never looked at
+      request.bodyHandler(body -> respond(request, repeatablePasswordProfile, () -> new JsonObject().put("result", "valid")));
+    } else {
+      request.response().setStatusCode(404).end();
+    }
+  }
+
+  private void respond(HttpServerRequest request, StubProfile profile, Supplier<JsonObject> body) {
+    requests.increment();
+    boolean error = profile.nextIsError(random);
+    long delay = profile.nextDelayMillis(random);
+    Runnable response = () -> {
+      if (error) {
+        errors.increment();
+        request.response().setStatusCode(500).end("Internal Server Error");
+      } else {
+        request.response().putHeader("Content-Type", "application/json").end(body.get().encode());
+      }
+    };
+    if (delay > 0) {
+      vertx.setTimer(delay, id -> response.run());
+    } else {
+      response.run();
+    }
+  }
+
+  private static JsonObject users(String query) {
+    if (query == null || !query.startsWith(USER_ID_QUERY_PREFIX)) {
+      return new JsonObject().put("users", new JsonArray()).put("totalRecords", 0);
+    }
+    String userId = query.substring(USER_ID_QUERY_PREFIX.length());
+    JsonObject user = new JsonObject()
+      .put("username", userName(userId))
+      .put("id", userId)
+      .put("active", true);
+    return new JsonObject().put("users", new JsonArray().add(user)).put("totalRecords", 1);
+  }
+}
@@ -0,0 +1,342 @@
+package org.folio.rest.impl.load;
+
+import static org.folio.rest.RestVerticle.MODULE_SPECIFIC_ARGS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.RestVerticle;
+import org.folio.rest.client.TenantClient;
+import org.folio.rest.jaxrs.model.TenantAttributes;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.tools.PomReader;
+import org.folio.rest.tools.utils.NetworkUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import org.junit.runner.RunWith;
+
+/**
+ * Load test of the full pipeline: the module runs with an embedded Postgres, the default rules of a tenant
+ * and {@link OkapiStub} in place of Okapi, mod-users and mod-login. Virtual users send validations,
+ * password history updates and rule administration requests back to back for the configured duration,
+ * the throughput and latency percentiles of every operation are logged and written
+ * to {@code target/load-test/report.json}, and the test fails when they exceed the budgets.
+ * <p>
+ * It is run by the {@code load-test} Maven profile only, as a separate step on a machine the budgets are set for,
+ * it is not part of the build nor of the release. Every setting is a system property:
+ * <pre>
+ *   mvn verify -Pload-test -Dload.concurrency=64 -Dload.duration=60 -Dload.stub.users.latency=20
+ * </pre>
+ *
+ * @see StubProfile
+ */
+@RunWith(VertxUnitRunner.class)
+public class PasswordValidatorLoadTest {
+
+  private static final Logger logger = LogManager.getLogger(PasswordValidatorLoadTest.class);
+
+  private static final String TENANT = "diku";
+  private static final String HOST = "localhost";
+  private static final String OKAPI_URL_HEADER = "x-okapi-url";
+  private static final String VALIDATE_PATH = "/password/validate";
+  private static final String HISTORY_PATH = "/password/history";
+  private static final String TENANT_RULES_PATH = "/tenant/rules";
+  private static final String RULE_STATS_PATH = "/tenant/rules/stats?limit=10";
+  private static final String RULE_BENCHMARK_PATH = "/tenant/rules/benchmark";
+
+  private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 32);
+  private static final long WARM_UP_SECONDS = Long.getLong("load.warmup", 10);
+  private static final long DURATION_SECONDS = Long.getLong("load.duration", 30);
+  private static final long SEED = Long.getLong("load.seed", 20201018);
+  private static final int USERS = Integer.getInteger("load.users", 1000);
+  private static final double HISTORY_SHARE = Double.parseDouble(System.getProperty("load.history.share", "0.05"));
+  private static final double ADMIN_SHARE = Double.parseDouble(System.getProperty("load.admin.share", "0.1"));
+  private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.max.error.rate", "0.01"));
+  private static final double VALIDATE_P99_MILLIS = Double.parseDouble(System.getProperty("load.validate.p99.millis", "250"));
+  private static final double ADMIN_P99_MILLIS = Double.parseDouble(System.getProperty("load.admin.p99.millis", "1000"));
+  private static final double VALIDATE_MIN_THROUGHPUT =
+    Double.parseDouble(System.getProperty("load.validate.min.throughput", "100"));
+
+  private static final StubProfile USERS_PROFILE = StubProfile.fromSystemProperties("users", 5, 5);
+  private static final StubProfile REPEATABLE_PASSWORD_PROFILE = StubProfile.fromSystemProperties("repeatable", 10, 10);
+
+  private static final Map<String, String> ADMISSION_ARGS = Map.of(
+    "admission.rate", "1000000",
+    "admission.burst", "1000000",
+    "admission.concurrency", "100000");
+
+  // Module arguments set by this test, removed once it is done so the next test classes run with their own
+  private static final List<String> ADDED_MODULE_ARGS = new ArrayList<>();
+
+  private static Vertx moduleVertx;
+  private static Vertx loadVertx;
+  private static OkapiStub okapiStub;
+  private static WebClient client;
+  private static MultiMap headers;
+  private static int modulePort;
+  private static JsonObject updatedRule;
+
+  @org.junit.Rule
+  public Timeout timeout = Timeout.seconds(WARM_UP_SECONDS + DURATION_SECONDS + 300);
+
+  private final List<String> userIds = new ArrayList<>();
+  private final LatencyRecorder validate = new LatencyRecorder("validate", 200);
+  private final LatencyRecorder history = new LatencyRecorder("history", 204);
+  private final LatencyRecorder getRules = new LatencyRecorder("getRules", 200);
+  private final LatencyRecorder ruleStats = new LatencyRecorder("ruleStats", 200);
+  private final LatencyRecorder updateRule = new LatencyRecorder("updateRule", 200);
+  private final LatencyRecorder benchmarkRule = new LatencyRecorder("benchmarkRule", 200);
+
+  @BeforeClass
+  public static void setUpClass(final TestContext context) {
+    Async async = context.async();
+    // admission control would answer a saturating load with 429, it is not what is measured
+    ADMISSION_ARGS.forEach((key, value) -> {
+      if (MODULE_SPECIFIC_ARGS.putIfAbsent(key, value) == null) {
+        ADDED_MODULE_ARGS.add(key);
+      }
+    });
+    PostgresClient.setIsEmbedded(true);
+
+    moduleVertx = Vertx.vertx();
+    loadVertx = Vertx.vertx();
+    modulePort = NetworkUtils.nextFreePort();
+    int okapiPort = NetworkUtils.nextFreePort();
+    okapiStub = new OkapiStub(loadVertx, USERS_PROFILE, REPEATABLE_PASSWORD_PROFILE, SEED);
+    client = WebClient.create(loadVertx, new WebClientOptions()
+      .setDefaultHost(HOST)
+      .setDefaultPort(modulePort)
+      .setMaxPoolSize(CONCURRENCY)
+      .setKeepAlive(true));
+    headers = MultiMap.caseInsensitiveMultiMap()
+      .add(RestVerticle.OKAPI_HEADER_TENANT, TENANT)
+      .add(RestVerticle.OKAPI_HEADER_TOKEN, "token")
+      .add(OKAPI_URL_HEADER, "http://" + HOST + ":" + okapiPort)
+      .add("Content-Type", "application/json")
+      .add("Accept", "application/json, text/plain");
+
+    TenantClient tenantClient = new TenantClient("http://" + HOST + ":" + modulePort, TENANT, TENANT);
+    DeploymentOptions options = new DeploymentOptions().setConfig(new JsonObject().put("http.port", modulePort));
+    okapiStub.start(okapiPort).onComplete(context.asyncAssertSuccess(started ->
+      moduleVertx.deployVerticle(RestVerticle.class.getName(), options, context.asyncAssertSuccess(deployed -> {
+        try {
+          TenantAttributes attributes = new TenantAttributes()
+            .withModuleTo(String.format("mod-password-validator-%s", PomReader.INSTANCE.getVersion()));
+          tenantClient.postTenant(attributes, tenantResponse -> loadRuleToUpdate(context, async));
+        } catch (Exception e) {
+          context.fail(e);
+        }
+      }))));
+  }
+
+  @AfterClass
+  public static void tearDownClass(final TestContext context) {
+    Async async = context.async();
+    ADDED_MODULE_ARGS.forEach(MODULE_SPECIFIC_ARGS::remove);
+    ADDED_MODULE_ARGS.clear();
+    okapiStub.stop().onComplete(stopped -> loadVertx.close(loadClosed ->
+      moduleVertx.close(context.asyncAssertSuccess(res -> {
+        PostgresClient.stopEmbeddedPostgres();
+        async.complete();
+      }))));
+  }
+
+  @Test
+  public void shouldSustainConcurrentValidationAndRuleAdminTraffic() throws Exception {
+    Random random = new Random(SEED);
+    for (int i = 0; i < USERS; i++) {
+      userIds.add(new UUID(random.nextLong(), random.nextLong()).toString());
+    }
+    logger.info("Load test: {} virtual users, warm-up {} s, duration {} s, stubs [{}], [{}]",
+      CONCURRENCY, WARM_UP_SECONDS, DURATION_SECONDS, USERS_PROFILE, REPEATABLE_PASSWORD_PROFILE);
+
+    long start = System.nanoTime();
+    long measureStart = start + TimeUnit.SECONDS.toNanos(WARM_UP_SECONDS);
+    long end = measureStart + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    AtomicInteger running = new AtomicInteger(CONCURRENCY);
+    for (int i = 0; i < CONCURRENCY; i++) {
+      VirtualUser user = new VirtualUser(new Random(SEED + i), measureStart, end, () -> {
+        if (running.decrementAndGet() == 0) {
+          done.complete(null);
+        }
+      });
+      loadVertx.runOnContext(v -> user.next());
+    }
+    done.get(WARM_UP_SECONDS + DURATION_SECONDS + 120, TimeUnit.SECONDS);
+
+    JsonObject report = report(end - measureStart);
+    logger.info("Load test report:\n{}", report.encodePrettily());
+    File reportFile = new File("target/load-test/report.json");
+    reportFile.getParentFile().mkdirs();
+    Files.write(reportFile.toPath(), report.encodePrettily().getBytes(StandardCharsets.UTF_8));
+
+    // validations failing because a stub answered with an error are not regressions of the module
+    double allowedValidateErrorRate = MAX_ERROR_RATE + USERS_PROFILE.getErrorRate() + REPEATABLE_PASSWORD_PROFILE.getErrorRate();
+    assertThat("validate error rate", validate.getErrorRate(), lessThanOrEqualTo(allowedValidateErrorRate));
+    assertThat("validate p99", validate.percentileMillis(0.99), lessThanOrEqualTo(VALIDATE_P99_MILLIS));
+    assertThat("validate throughput", validate.getCount() / (double) DURATION_SECONDS,
+      greaterThanOrEqualTo(VALIDATE_MIN_THROUGHPUT));
+    for (LatencyRecorder recorder : List.of(history, getRules, ruleStats, updateRule, benchmarkRule)) {
+      assertThat(recorder.getOperation() + " error rate", recorder.getErrorRate(), lessThanOrEqualTo(MAX_ERROR_RATE));
+    }
+    for (LatencyRecorder recorder : List.of(getRules, ruleStats, updateRule, benchmarkRule)) {
+      assertThat(recorder.getOperation() + " p99", recorder.percentileMillis(0.99), lessThanOrEqualTo(ADMIN_P99_MILLIS));
+    }
+  }
+
+  private static void loadRuleToUpdate(TestContext context, Async async) {
+    client.get(TENANT_RULES_PATH + "?limit=100").putHeaders(headers).send(context.asyncAssertSuccess(response -> {
+      JsonArray rules = response.bodyAsJsonObject().getJsonArray("rules");
+      for (int i = 0; i < rules.size() && updatedRule == null; i++) {
+        if ("RegExp".equals(rules.getJsonObject(i).getString("type"))) {
+          updatedRule = rules.getJsonObject(i);
+          updatedRule.remove("metadata");
+        }
+      }
+      context.assertNotNull(updatedRule, "default rules of the tenant are not loaded");
+      async.complete();
+    }));
+  }
+
+  private JsonObject report(long measuredNanos) {
+    JsonArray operations = new JsonArray();
+    for (LatencyRecorder recorder : List.of(validate, history, getRules, ruleStats, updateRule, benchmarkRule)) {
+      operations.add(recorder.toJson(measuredNanos));
+    }
+    return new JsonObject()
+      .put("concurrency", CONCURRENCY)
+      .put("durationSeconds", DURATION_SECONDS)
+      .put("seed", SEED)
+      .put("stubs", new JsonObject()
+        .put("users", USERS_PROFILE.toString())
+        .put("repeatable", REPEATABLE_PASSWORD_PROFILE.toString())
+        .put("requests", okapiStub.getRequests())
+        .put("errors", okapiStub.getErrors()))
+      .put("operations", operations);
+  }
+
+  /**
+   * Sends the next request as soon as the previous one is answered, until the end of the test
+   */
+  private final class VirtualUser {
+
+    private final Random random;
+    private final long measureStart;
+    private final long end;
+    private final Runnable onDone;
+
+    private VirtualUser(Random random, long measureStart, long end, Runnable onDone) {
+      this.random = random;
+      this.measureStart = measureStart;
+      this.end = end;
+      this.onDone = onDone;
+    }
+
+    private void next() {
+      if (System.nanoTime() >= end) {
+        onDone.run();
+        return;
+      }
+      double operation = random.nextDouble();
+      if (operation < ADMIN_SHARE) {
+        sendAdminRequest(random.nextDouble());
+      } else if (operation < ADMIN_SHARE + HISTORY_SHARE) {
+        send(history, HttpMethod.POST, HISTORY_PATH, passwordEntity());
+      } else {
+        send(validate, HttpMethod.POST, VALIDATE_PATH, passwordEntity());
+      }
+    }
+
+    private void sendAdminRequest(double operation) {
+      if (operation < 0.4) {
+        send(getRules, HttpMethod.GET, TENANT_RULES_PATH, null);
+      } else if (operation < 0.7) {
+        send(ruleStats, HttpMethod.GET, RULE_STATS_PATH, null);
+      } else if (operation < 0.9) {
+        // every update invalidates the cached rules of the tenant, as an administrator editing the rules does
+        JsonObject rule = updatedRule.copy().put("description", "Updated by the load test " + random.nextInt(1000));
+        send(updateRule, HttpMethod.PUT, TENANT_RULES_PATH, rule);
+      } else {
+        JsonObject candidate = new JsonObject()
+          .put("name", "load_test_candidate")
+          .put("type", "RegExp")
+          .put("validationType", "Strong")
+          .put("state", "Enabled")
+          .put("moduleName", "mod-password-validator")
+          .put("expression", "^(?=.*[A-Z])(?=.*\\d).{8,}$")
+          .put("orderNo", 0);
+        send(benchmarkRule, HttpMethod.POST, RULE_BENCHMARK_PATH, new JsonObject().put("rule", candidate));
+      }
+    }
+
+    private void send(LatencyRecorder recorder, HttpMethod method, String path, JsonObject body) {
+      long start = System.nanoTime();
+      Handler<AsyncResult<HttpResponse<Buffer>>> handler = ar -> {
+        if (start >= measureStart) {
+          recorder.record(System.nanoTime() - start, ar.succeeded() ? ar.result().statusCode() : 0);
+        }
+        next();
+      };
+      if (body == null) {
+        client.request(method, path).putHeaders(headers).send(handler);
+      } else {
+        client.request(method, path).putHeaders(headers).sendJsonObject(body, handler);
+      }
+    }
+
+    private JsonObject passwordEntity() {
+      String userId = userIds.get(random.nextInt(userIds.size()));
+      return new JsonObject().put("password", password(userId)).put("userId", userId);
+    }
+
+    /**
+     * Mix of passwords passing all the default rules and passwords each failing a different one
+     */
+    private String password(String userId) {
+      switch (random.nextInt(5)) {
+        case 0:
+          return "Pa55-" + Integer.toString(random.nextInt(Integer.MAX_VALUE), 36) + "-Load";
+        case 1:
+          return "aB1!" + random.nextInt(100);
+        case 2:
+          return "onlylowercaseletters";
+        case 3:
+          return OkapiStub.userName(userId) + "-Pa55!";
+        default:
+          return "Pass word " + random.nextInt(1000) + "!";
+      }
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package org.folio.rest.impl.load;
+
+import java.util.Random;
+
+/**
+ * Latency and error profile of a stubbed endpoint, read from the system properties
+ * {@code load.stub.<name>.latency} (mean latency in milliseconds), {@code load.stub.<name>.jitter}
+ * (uniform jitter added to the latency in milliseconds) and {@code load.stub.<name>.errorRate}
+ * (share of requests answered with 500, from 0 to 1).
+ */
+final class StubProfile {
+
+  private final String name;
+  private final long latencyMillis;
+  private final long jitterMillis;
+  private final double errorRate;
+
+  private StubProfile(String name, long latencyMillis, long jitterMillis, double errorRate) {
+    this.name = name;
+    this.latencyMillis = latencyMillis;
+    this.jitterMillis = jitterMillis;
+    this.errorRate = errorRate;
+  }
+
+  static StubProfile fromSystemProperties(String name, long defaultLatencyMillis, long defaultJitterMillis) {
+    String prefix = "load.stub." + name + ".";
+    return new StubProfile(name,
+      Long.getLong(prefix + "latency", defaultLatencyMillis),
+      Long.getLong(prefix + "jitter", defaultJitterMillis),
+      Double.parseDouble(System.getProperty(prefix + "errorRate", "0")));
+  }
+
+  /**
+   * Draws the delay of the next response
+   *
+   * @param random random of the stub
+   * @return delay in milliseconds, 0 to answer at once
+   */
+  long nextDelayMillis(Random random) {
+    return latencyMillis + (jitterMillis > 0 ? (long) (random.nextDouble() * jitterMillis) : 0);
+  }
+
+  /**
+   * Draws whether the next response is an error
+   *
+   * @param random random of the stub
+   * @return true to answer with 500
+   */
+  boolean nextIsError(Random random) {
+    return errorRate > 0 && random.nextDouble() < errorRate;
+  }
+
+  double getErrorRate() {
+    return errorRate;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s: latency %d ms, jitter %d ms, error rate %.3f", name, latencyMillis, jitterMillis, errorRate);
+  }
+}
@@ -0,0 +1,70 @@
+package org.folio.services.validator.admission;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+
+public class AdmissionControllerTest {
+
+  private static final String TENANT = "diku";
+  private static final String NOISY_TENANT = "noisy";
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  public void shouldRejectTenantExceedingItsBurstUntilTokensAreRefilled() {
+    AdmissionController controller = new AdmissionController(100, tenantId -> new TokenBucket(2, 2, clock::get));
+
+    assertThat(controller.tryAcquire(TENANT), is(0L));
+    assertThat(controller.tryAcquire(TENANT), is(0L));
+    assertThat(controller.tryAcquire(TENANT), is(1L));
+
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+    assertThat(controller.tryAcquire(TENANT), is(0L));
+
+    JsonObject metrics = controller.getMetrics(TENANT);
+    assertThat(metrics.getLong("admitted"), is(3L));
+    assertThat(metrics.getLong("rejectedByRate"), is(1L));
+    assertThat(metrics.getInteger("inFlight"), is(3));
+  }
+
+  @Test
+  public void shouldNotLimitOtherTenantsWhenOneTenantIsRejected() {
+    Map<String, String> args = new HashMap<>();
+    args.put("admission.rate", "10");
+    args.put("admission.burst", "10");
+    args.put("admission.rate." + NOISY_TENANT, "1");
+    args.put("admission.burst." + NOISY_TENANT, "1");
+    AdmissionController controller = new AdmissionController(100, AdmissionController.configuredBuckets(args, clock::get));
+
+    assertThat(controller.tryAcquire(NOISY_TENANT), is(0L));
+    assertThat(controller.tryAcquire(NOISY_TENANT), greaterThan(0L));
+    for (int i = 0; i < 10; i++) {
+      assertThat(controller.tryAcquire(TENANT), is(0L));
+    }
+    assertThat(controller.getMetrics(NOISY_TENANT).getDouble("ratePerSecond"), is(1.0));
+    assertThat(controller.getMetrics(TENANT).getInteger("burst"), is(10));
+  }
+
+  @Test
+  public void shouldRejectWhenModuleConcurrencyIsExceededUntilReleased() {
+    AdmissionController controller = new AdmissionController(1, tenantId -> new TokenBucket(100, 100, clock::get));
+
+    assertThat(controller.tryAcquire(TENANT), is(0L));
+    assertThat(controller.tryAcquire(NOISY_TENANT), is(1L));
+    controller.release();
+    assertThat(controller.tryAcquire(NOISY_TENANT), is(0L));
+
+    assertThat(controller.getMetrics(NOISY_TENANT).getLong("rejectedByConcurrency"), is(1L));
+    assertThat(controller.getMetrics(TENANT).getInteger("availableTokens"), is(99));
+  }
+}
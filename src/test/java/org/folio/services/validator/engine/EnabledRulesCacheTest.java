@@ -0,0 +1,167 @@
+package org.folio.services.validator.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.folio.rest.jaxrs.model.Rule;
+import org.folio.rest.jaxrs.model.RuleCollection;
+import org.junit.Test;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Test for the cache of compiled enabled rules.
+ */
+public class EnabledRulesCacheTest {
+
+  private static final String TENANT_ID = "diku";
+  private static final long TTL_MILLIS = 60000;
+
+  private static final JsonObject RULES = JsonObject.mapFrom(new RuleCollection()
+    .withRules(Collections.singletonList(new Rule()
+      .withRuleId("5105b55a-b9a3-4f76-9402-a5243ea63c95")
+      .withType(Rule.Type.REG_EXP)
+      .withExpression("^.{8,}$")
+      .withOrderNo(0)))
+    .withTotalRecords(1));
+
+  @Test
+  public void shouldLoadRulesOnceAndCompileExpressions() {
+    AtomicInteger loads = new AtomicInteger();
+    EnabledRulesCache cache = new EnabledRulesCache((tenantId, traceparent) -> {
+      loads.incrementAndGet();
+      return Future.succeededFuture(RULES);
+    }, TTL_MILLIS);
+
+    CompiledRule rule = cache.get(TENANT_ID, null).result().getRules().get(0);
+    assertThat(cache.get(TENANT_ID, null).result().getRules().get(0), sameInstance(rule));
+    assertThat(loads.get(), is(1));
+    assertThat(rule.getExpression("jsmith"), sameInstance(rule.getExpression("other")));
+  }
+
+  @Test
+  public void shouldSharePendingLoad() {
+    AtomicInteger loads = new AtomicInteger();
+    Promise<JsonObject> loadPromise = Promise.promise();
+    EnabledRulesCache cache = new EnabledRulesCache((tenantId, traceparent) -> {
+      loads.incrementAndGet();
+      return loadPromise.future();
+    }, TTL_MILLIS);
+
+    Future<?> first = cache.get(TENANT_ID, null);
+    Future<?> second = cache.get(TENANT_ID, null);
+    loadPromise.complete(RULES);
+    assertThat(first.succeeded(), is(true));
+    assertThat(second.succeeded(), is(true));
+    assertThat(loads.get(), is(1));
+  }
+
+  @Test
+  public void shouldReloadRulesAfterInvalidation() {
+    AtomicInteger loads = new AtomicInteger();
+    EnabledRulesCache cache = new EnabledRulesCache((tenantId, traceparent) -> {
+      loads.incrementAndGet();
+      return Future.succeededFuture(RULES);
+    }, TTL_MILLIS);
+
+    cache.get(TENANT_ID, null);
+    cache.invalidate(TENANT_ID);
+    assertThat(cache.get(TENANT_ID, null).result().getRules(), hasSize(1));
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void shouldKeepCompiledRulesOfUnchangedRuleSetOnReload() {
+    AtomicInteger loads = new AtomicInteger();
+    EnabledRulesCache cache = new EnabledRulesCache((tenantId, traceparent) -> {
+      loads.incrementAndGet();
+      return Future.succeededFuture(RULES.copy());
+    }, 0);
+
+    CompiledRules rules = cache.get(TENANT_ID, null).result();
+    assertThat(cache.get(TENANT_ID, null).result(), sameInstance(rules));
+    cache.invalidate(TENANT_ID);
+    assertThat(cache.get(TENANT_ID, null).result(), sameInstance(rules));
+    assertThat(loads.get(), is(3));
+  }
+
+  @Test
+  public void shouldReuseCompiledExpressionsOfUnchangedRulesOnReload() {
+    Rule lengthRule = regExpRule("^.{8,}$", Rule.RegexBackend.JDK).withOrderNo(0);
+    Rule digitRule = regExpRule("(?=.*\\d).+", null).withOrderNo(1);
+    Rule alphabeticalRule = regExpRule("^[A-Za-z]+$", null).withOrderNo(1);
+    AtomicInteger loads = new AtomicInteger();
+    EnabledRulesCache cache = new EnabledRulesCache((tenantId, traceparent) -> Future.succeededFuture(JsonObject.mapFrom(
+      new RuleCollection().withRules(Arrays.asList(lengthRule, loads.incrementAndGet() == 1 ? digitRule : alphabeticalRule)))), 0);
+
+    CompiledRules rules = cache.get(TENANT_ID, null).result();
+    CompiledRules reloaded = cache.get(TENANT_ID, null).result();
+    assertThat(reloaded, not(sameInstance(rules)));
+    assertThat(reloaded.getRules().get(0).getExpression("jsmith"),
+      sameInstance(rules.getRules().get(0).getExpression("jsmith")));
+    assertThat(reloaded.getRules().get(1).getRule().getExpression(), is(alphabeticalRule.getExpression()));
+    assertThat(reloaded.matchMergedExpressions("password").matches(reloaded.getRules().get(1)), is(true));
+  }
+
+  @Test
+  public void shouldNotCacheFailedLoad() {
+    AtomicInteger loads = new AtomicInteger();
+    EnabledRulesCache cache = new EnabledRulesCache((tenantId, traceparent) -> loads.incrementAndGet() == 1
+      ? Future.failedFuture("db is not available") : Future.succeededFuture(RULES), TTL_MILLIS);
+
+    assertThat(cache.get(TENANT_ID, null).failed(), is(true));
+    assertThat(cache.get(TENANT_ID, null).succeeded(), is(true));
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void shouldCompileUserNameExpressionPerUser() {
+    CompiledRule rule = CompiledRule.compile(new Rule()
+      .withType(Rule.Type.REG_EXP)
+      .withExpression("^(?:(?!<USER_NAME>).)+$"));
+    assertThat(rule.getExpression("jsmith").matches("xjsmithx"), is(false));
+    assertThat(rule.getExpression("other").matches("xjsmithx"), is(true));
+  }
+
+  @Test
+  public void shouldMergeAutomatonExpressions() {
+    CompiledRules rules = CompiledRules.compile(Arrays.asList(
+      regExpRule("^.{8,}$", null),
+      regExpRule("(?=.*\\d).+", null),
+      regExpRule("[^\\s]+", null),
+      regExpRule("^(?:(?!<USER_NAME>).)+$", null),
+      regExpRule("\\w+", Rule.RegexBackend.JDK),
+      new Rule().withType(Rule.Type.STRENGTH)));
+    List<CompiledRule> compiledRules = rules.getRules();
+    assertThat(compiledRules.get(0).getMergedIndex(), is(0));
+    assertThat(compiledRules.get(1).getMergedIndex(), is(-1));
+    assertThat(compiledRules.get(2).getMergedIndex(), is(1));
+    assertThat(compiledRules.get(3).getMergedIndex(), is(-1));
+    assertThat(compiledRules.get(4).getMergedIndex(), is(-1));
+    assertThat(compiledRules.get(5).getMergedIndex(), is(-1));
+
+    CompiledRules.MergedMatches matches = rules.matchMergedExpressions("secret password");
+    assertThat(matches.matches(compiledRules.get(0)), is(true));
+    assertThat(matches.matches(compiledRules.get(2)), is(false));
+    matches = rules.matchMergedExpressions("secret");
+    assertThat(matches.matches(compiledRules.get(0)), is(false));
+    assertThat(matches.matches(compiledRules.get(2)), is(true));
+  }
+
+  private Rule regExpRule(String expression, Rule.RegexBackend regexBackend) {
+    return new Rule()
+      .withType(Rule.Type.REG_EXP)
+      .withExpression(expression)
+      .withRegexBackend(regexBackend);
+  }
+}
@@ -0,0 +1,103 @@
+package org.folio.services.validator.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.jaxrs.model.Rule;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Allocation check of the code running for every rule of every validation:
+ * disabled log calls, rule statistics and matching of compiled expressions must not allocate an object per call.
+ * <p>
+ * What is left per call depends on the JIT, its escape analysis and the agents attached to the test run,
+ * so the bound only catches an allocation on every call; the exact figures are measured by the JMH benchmark
+ * with the GC profiler as described in the README.
+ */
+public class HotPathAllocationTest {
+
+  private static final int WARM_UP_ITERATIONS = 20_000;
+  private static final int ITERATIONS = 100_000;
+  // less than the smallest object, e.g. a boxed long or an empty varargs array
+  private static final double MAX_BYTES_PER_CALL = 16.0;
+  private static final Rule RULE = new Rule()
+    .withRuleId("5105b55a-b9a3-4f76-9402-a5243ea63c95")
+    .withName("password_length")
+    .withType(Rule.Type.REG_EXP);
+
+  private static final PasswordChars PASSWORD = PasswordChars.of("Pa55w0rd-with-some-length");
+
+  private final Logger logger = LogManager.getLogger(HotPathAllocationTest.class);
+  private final com.sun.management.ThreadMXBean threadBean =
+    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  @Test
+  public void shouldNotAllocateOnDisabledLogCalls() {
+    assertThat(logger.isDebugEnabled(), is(false));
+
+    double bytesPerCall = measure(() -> {
+      logger.debug("Rule {} of tenant {} rejected the password", RULE.getRuleId(), "diku");
+      if (logger.isDebugEnabled()) {
+        logger.debug("Rule {} evaluated in {} ns", RULE.getRuleId(), System.nanoTime());
+      }
+    });
+
+    assertThat(bytesPerCall, lessThan(MAX_BYTES_PER_CALL));
+  }
+
+  @Test
+  public void shouldNotAllocateOnRecordingRuleStatistics() {
+    RuleStatistics statistics = new RuleStatistics(10);
+    long nanos = TimeUnit.MICROSECONDS.toNanos(20);
+
+    double bytesPerCall = measure(() -> statistics.record("diku", RULE, Rule.RegexBackend.DFA, nanos, false, false));
+
+    assertThat(bytesPerCall, lessThan(MAX_BYTES_PER_CALL));
+  }
+
+  @Test
+  public void shouldNotAllocateOnMatchingByJdkBackend() {
+    shouldNotAllocateOnMatching(Rule.RegexBackend.JDK);
+  }
+
+  @Test
+  public void shouldNotAllocateOnMatchingByDfaBackend() {
+    shouldNotAllocateOnMatching(Rule.RegexBackend.DFA);
+  }
+
+  private void shouldNotAllocateOnMatching(Rule.RegexBackend backend) {
+    CompiledRule compiledRule = CompiledRule.compile(new Rule()
+      .withRuleId(RULE.getRuleId())
+      .withName("letters_digits_and_dashes")
+      .withType(Rule.Type.REG_EXP)
+      .withRegexBackend(backend)
+      .withExpression("^[A-Za-z0-9-]{8,}$"));
+    assertThat(compiledRule.getRegexBackend(), is(backend));
+    assertThat(compiledRule.getExpression("user").matches(PASSWORD), is(true));
+
+    double bytesPerCall = measure(() -> compiledRule.getExpression("user").matches(PASSWORD));
+
+    assertThat(bytesPerCall, lessThan(MAX_BYTES_PER_CALL));
+  }
+
+  private double measure(Runnable hotPath) {
+    Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+    for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+      hotPath.run();
+    }
+    long threadId = Thread.currentThread().getId();
+    long start = threadBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < ITERATIONS; i++) {
+      hotPath.run();
+    }
+    long allocated = threadBean.getThreadAllocatedBytes(threadId) - start;
+    return (double) allocated / ITERATIONS;
+  }
+}
@@ -0,0 +1,108 @@
+package org.folio.services.validator.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+import org.folio.rest.jaxrs.model.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+
+/**
+ * Test for sequential and parallel evaluation of local rules.
+ */
+@RunWith(VertxUnitRunner.class)
+public class LocalRulesEvaluatorTest {
+
+  private static final int RULES_NUMBER = 100;
+
+  @Test
+  public void shouldReturnMessagesInRuleOrderWhenEvaluatedSequentially(TestContext testContext) {
+    List<Rule> rules = buildRules();
+    new LocalRulesEvaluator(RULES_NUMBER + 1).evaluate(rules, this::evaluate)
+      .onComplete(testContext.asyncAssertSuccess(errorMessages -> assertThat(errorMessages, is(expectedMessages(rules)))));
+  }
+
+  @Test
+  public void shouldReturnMessagesInRuleOrderWhenEvaluatedInParallel(TestContext testContext) {
+    List<Rule> rules = buildRules();
+    new LocalRulesEvaluator(1).evaluate(rules, this::evaluate)
+      .onComplete(testContext.asyncAssertSuccess(errorMessages -> assertThat(errorMessages, is(expectedMessages(rules)))));
+  }
+
+  @Test
+  public void shouldFailWhenRuleEvaluationFailsInParallel(TestContext testContext) {
+    List<Rule> rules = buildRules();
+    rules.get(RULES_NUMBER / 2).setExpression("(unclosed");
+    new LocalRulesEvaluator(1).evaluate(rules, this::evaluate)
+      .onComplete(testContext.asyncAssertFailure());
+  }
+
+  @Test
+  public void shouldFailOnlyAfterAllRulesInParallelAreEvaluated(TestContext testContext) {
+    List<Rule> rules = buildRules();
+    rules.get(0).setExpression("(unclosed");
+    AtomicBoolean failed = new AtomicBoolean();
+    AtomicInteger lateEvaluations = new AtomicInteger();
+    Async async = testContext.async();
+    new LocalRulesEvaluator(1).evaluate(rules, rule -> {
+      try {
+        // the rules of the other tasks are still running or queued when the first one fails
+        if (rule.getOrderNo() != 0) {
+          LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return evaluate(rule);
+      } finally {
+        if (failed.get()) {
+          lateEvaluations.incrementAndGet();
+        }
+      }
+    }).onComplete(testContext.asyncAssertFailure(e -> {
+      failed.set(true);
+      // no rule is evaluated once the failure is reported, checked off the pool threads
+      CompletableFuture.runAsync(() -> {
+        testContext.verify(v -> assertThat(lateEvaluations.get(), is(0)));
+        async.complete();
+      }, CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+    }));
+  }
+
+  private String evaluate(Rule rule) {
+    return Pattern.compile(rule.getExpression()).matcher("password1").matches() ? null : rule.getErrMessageId();
+  }
+
+  private List<Rule> buildRules() {
+    List<Rule> rules = new ArrayList<>(RULES_NUMBER);
+    for (int i = 0; i < RULES_NUMBER; i++) {
+      rules.add(new Rule()
+        .withType(Rule.Type.REG_EXP)
+        .withOrderNo(i)
+        // every third rule fails
+        .withExpression(i % 3 == 0 ? "^.{" + (10 + i) + ",}$" : "^.{" + (i % 9) + ",}$")
+        .withErrMessageId("password.rule" + i + ".invalid"));
+    }
+    return rules;
+  }
+
+  private List<String> expectedMessages(List<Rule> rules) {
+    List<String> messages = new ArrayList<>();
+    for (Rule rule : rules) {
+      if (rule.getOrderNo() % 3 == 0) {
+        messages.add(rule.getErrMessageId());
+      }
+    }
+    return messages;
+  }
+}
@@ -0,0 +1,52 @@
+package org.folio.services.validator.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * Test for the password chars evaluated by the engine.
+ */
+public class PasswordCharsTest {
+
+  @Test
+  public void shouldViewCharsWithoutCopying() {
+    char[] chars = "Zażółć1!".toCharArray();
+    PasswordChars password = PasswordChars.wrap(chars);
+    CharSequence tail = password.subSequence(5, 8);
+
+    assertThat(password.length(), is(8));
+    assertThat(password.charAt(2), is('ż'));
+    assertThat(tail.toString(), is("ć1!"));
+
+    chars[6] = '2';
+    assertThat(tail.charAt(1), is('2'));
+  }
+
+  @Test
+  public void shouldWipeChars() {
+    char[] chars = "secret".toCharArray();
+    PasswordChars password = PasswordChars.wrap(chars);
+
+    password.wipe();
+
+    assertThat(new String(chars), is("\0\0\0\0\0\0"));
+  }
+
+  @Test
+  public void shouldEncodeAndDecodeUtf8() {
+    PasswordChars password = PasswordChars.of("Zażółć1!");
+    byte[] bytes = password.encode();
+
+    assertThat(new String(bytes, StandardCharsets.UTF_8), is("Zażółć1!"));
+    assertThat(PasswordChars.decode(bytes).toString(), is("Zażółć1!"));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void shouldRejectIndexOutsideView() {
+    PasswordChars.of("secret").subSequence(1, 3).charAt(2);
+  }
+}
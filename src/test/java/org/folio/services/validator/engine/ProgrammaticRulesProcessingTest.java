@@ -146,8 +146,7 @@ public class ProgrammaticRulesProcessingTest {
       .put(RESPONSE_ERROR_MESSAGES_KEY, new JsonArray());
     Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertSuccess(response -> {
       assertThat(response, Matchers.is(expectedResult));
-      Mockito.verify(validatorRegistryService).getAllTenantRules(ArgumentMatchers.any(),
-        ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+      Mockito.verify(validatorRegistryService).getEnabledTenantRules(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
     });
 
     //when
@@ -180,8 +179,7 @@ public class ProgrammaticRulesProcessingTest {
       .put(ValidatorHelper.RESPONSE_ERROR_MESSAGES_KEY, new JsonArray().add(STRONG_PROGRAMMATIC_RULE.getErrMessageId()));
     Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertSuccess(response -> {
       assertThat(response, Matchers.is(expectedResult));
-      Mockito.verify(validatorRegistryService).getAllTenantRules(ArgumentMatchers.any(), ArgumentMatchers.anyInt(),
-        ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+      Mockito.verify(validatorRegistryService).getEnabledTenantRules(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
     });
 
     //when
@@ -213,8 +211,7 @@ public class ProgrammaticRulesProcessingTest {
       .put(RESPONSE_ERROR_MESSAGES_KEY, new JsonArray());
     Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertSuccess(response -> {
       assertThat(response, Matchers.is(expectedResult));
-      Mockito.verify(validatorRegistryService).getAllTenantRules(ArgumentMatchers.any(), ArgumentMatchers.anyInt(),
-        ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+      Mockito.verify(validatorRegistryService).getEnabledTenantRules(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
     });
 
     //when
@@ -238,8 +235,7 @@ public class ProgrammaticRulesProcessingTest {
 
     //expect
     Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertFailure(exception -> {
-      Mockito.verify(validatorRegistryService).getAllTenantRules(ArgumentMatchers.any(), ArgumentMatchers.anyInt(),
-        ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+      Mockito.verify(validatorRegistryService).getEnabledTenantRules(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
     });
 
     //when
@@ -250,10 +246,9 @@ public class ProgrammaticRulesProcessingTest {
 
   private void mockRegistryService(List<Rule> rules) {
     JsonObject registryResponse = JsonObject.mapFrom(new RuleCollection().withRules(rules));
-    Mockito.doAnswer(new GenericHandlerAnswer<>(Future.succeededFuture(JsonObject.mapFrom(registryResponse)), 4))
+    Mockito.doAnswer(new GenericHandlerAnswer<>(Future.succeededFuture(JsonObject.mapFrom(registryResponse)), 2))
       .when(validatorRegistryService)
-      .getAllTenantRules(ArgumentMatchers.any(), ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt(),
-        ArgumentMatchers.any(), ArgumentMatchers.any());
+      .getEnabledTenantRules(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
   }
 
   private void mockUserModule(int status, JsonObject response) {
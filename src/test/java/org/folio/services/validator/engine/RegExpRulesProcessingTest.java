@@ -7,11 +7,13 @@ import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
 import io.vertx.ext.web.client.WebClient;
@@ -21,6 +23,9 @@ import org.folio.rest.impl.GenericHandlerAnswer;
 import org.folio.rest.jaxrs.model.Rule;
 import org.folio.rest.jaxrs.model.RuleCollection;
 import org.folio.services.validator.registry.ValidatorRegistryService;
+import org.folio.services.validator.tracing.InMemorySpanExporter;
+import org.folio.services.validator.tracing.Span;
+import org.folio.services.validator.tracing.Tracer;
 import org.hamcrest.Matchers;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -91,6 +96,8 @@ public class RegExpRulesProcessingTest {
 
   @InjectMocks
   private ValidationEngineService validationEngineService = new ValidationEngineServiceImpl();
+  @InjectMocks
+  private ValidationEngineService otherValidationEngineService = new ValidationEngineServiceImpl();
   @Mock
   private ValidatorRegistryService validatorRegistryService;
   @Spy
@@ -141,8 +148,7 @@ public class RegExpRulesProcessingTest {
       JsonArray errorMessages = (JsonArray) response.getValue(RESPONSE_ERROR_MESSAGES_KEY);
       assertThat(validationResult, Matchers.is(VALIDATION_VALID_RESULT));
       assertThat(errorMessages, Matchers.emptyIterable());
-      Mockito.verify(validatorRegistryService).getAllTenantRules(ArgumentMatchers.any(), ArgumentMatchers.anyInt(),
-        ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+      Mockito.verify(validatorRegistryService).getEnabledTenantRules(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
     });
 
     //when
@@ -170,8 +176,7 @@ public class RegExpRulesProcessingTest {
       JsonArray errorMessages = (JsonArray) response.getValue(RESPONSE_ERROR_MESSAGES_KEY);
       assertThat(validationResult, Matchers.is(VALIDATION_INVALID_RESULT));
       assertThat(errorMessages, Matchers.contains(REGEXP_LIMITED_LENGTH_RULE.getErrMessageId()));
-      Mockito.verify(validatorRegistryService).getAllTenantRules(ArgumentMatchers.any(), ArgumentMatchers.anyInt(),
-        ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+      Mockito.verify(validatorRegistryService).getEnabledTenantRules(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
     });
 
     //when
@@ -199,8 +204,7 @@ public class RegExpRulesProcessingTest {
       JsonArray errorMessages = (JsonArray) response.getValue(RESPONSE_ERROR_MESSAGES_KEY);
       assertThat(validationResult, Matchers.is(VALIDATION_INVALID_RESULT));
       assertThat(errorMessages, Matchers.contains(REGEXP_ONLY_ALPHABETICAL_RULE.getErrMessageId()));
-      Mockito.verify(validatorRegistryService).getAllTenantRules(ArgumentMatchers.any(), ArgumentMatchers.anyInt(),
-        ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+      Mockito.verify(validatorRegistryService).getEnabledTenantRules(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
     });
 
     //when
@@ -230,14 +234,158 @@ public class RegExpRulesProcessingTest {
       assertThat(validationResult, Matchers.is(VALIDATION_INVALID_RESULT));
       assertThat(errorMessages, Matchers.containsInAnyOrder(
         regExpRuleCollection.getRules().stream().map(Rule::getErrMessageId).toArray()));
-      Mockito.verify(validatorRegistryService).getAllTenantRules(ArgumentMatchers.any(), ArgumentMatchers.anyInt(),
-        ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+      Mockito.verify(validatorRegistryService).getEnabledTenantRules(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
     });
 
     //when
     validationEngineService.validatePassword(USER_ID_VALUE, password, requestHeaders, checkingHandler);
   }
 
+  /**
+   * Testing the case when the same password of the same user is validated twice at the same time.
+   * Expected result is to receive the same result for both requests while the user is looked up once.
+   */
+  @Test
+  public void shouldShareEvaluationOfIdenticalConcurrentRequests(TestContext testContext) {
+    //given
+    String password = "9pass";
+    mockRegistryServiceResponse(JsonObject.mapFrom(regExpRuleCollection));
+    Async async = testContext.async(2);
+
+    //expect
+    Handler<AsyncResult<JsonObject>> checkingHandler = response -> testContext.verify(v -> {
+      testContext.assertTrue(response.succeeded());
+      assertThat(response.result().getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_INVALID_RESULT));
+      if (async.count() == 1) {
+        userMockServer.verify(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/users")));
+      }
+      async.countDown();
+    });
+
+    //when
+    validationEngineService.validatePassword(USER_ID_VALUE, password, requestHeaders, checkingHandler);
+    validationEngineService.validatePassword(USER_ID_VALUE, password, requestHeaders, checkingHandler);
+  }
+
+  /**
+   * Testing the case when the same password of the same user is validated at the same time with different tokens.
+   * Expected result is to evaluate both requests, each one calling the users module with its own token.
+   */
+  @Test
+  public void shouldNotShareEvaluationOfRequestsWithDifferentTokens(TestContext testContext) {
+    //given
+    String password = "9pass";
+    mockRegistryServiceResponse(JsonObject.mapFrom(regExpRuleCollection));
+    Map<String, String> otherRequestHeaders = new HashMap<>(requestHeaders);
+    otherRequestHeaders.put(RestVerticle.OKAPI_HEADER_TOKEN, "expired-token");
+    Async async = testContext.async(2);
+
+    //expect
+    Handler<AsyncResult<JsonObject>> checkingHandler = response -> testContext.verify(v -> {
+      testContext.assertTrue(response.succeeded());
+      if (async.count() == 1) {
+        userMockServer.verify(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/users"))
+          .withHeader(RestVerticle.OKAPI_HEADER_TOKEN, WireMock.equalTo(OKAPI_HEADER_TOKEN_VALUE)));
+        userMockServer.verify(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/users"))
+          .withHeader(RestVerticle.OKAPI_HEADER_TOKEN, WireMock.equalTo("expired-token")));
+      }
+      async.countDown();
+    });
+
+    //when
+    validationEngineService.validatePassword(USER_ID_VALUE, password, requestHeaders, checkingHandler);
+    validationEngineService.validatePassword(USER_ID_VALUE, password, otherRequestHeaders, checkingHandler);
+  }
+
+  /**
+   * Testing the case when the request joins the evaluation started by another engine instance.
+   * Expected result is to receive the shared result on the context of the joining instance.
+   */
+  @Test
+  public void shouldCompleteJoinedEvaluationOnContextOfJoiningInstance(TestContext testContext) {
+    //given
+    mockRegistryServiceResponse(JsonObject.mapFrom(regExpRuleCollection));
+    WireMock.stubFor(WireMock.get("/users?query=id==" + USER_ID_VALUE)
+      .willReturn(WireMock.okJson(USER_SERVICE_MOCK_RESPONSE.toString()).withFixedDelay(200)));
+    Vertx vertx = Vertx.vertx();
+    Context firstContext = vertx.getOrCreateContext();
+    Context joiningContext = vertx.getOrCreateContext();
+    Async async = testContext.async();
+
+    //expect
+    Handler<AsyncResult<JsonObject>> joiningHandler = response -> testContext.verify(v -> {
+      testContext.assertTrue(response.succeeded());
+      assertThat(Vertx.currentContext(), Matchers.sameInstance(joiningContext));
+      userMockServer.verify(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/users")));
+      vertx.close(testContext.asyncAssertSuccess(closed -> async.complete()));
+    });
+
+    //when
+    firstContext.runOnContext(v -> {
+      validationEngineService.validatePassword(USER_ID_VALUE, "9pass", requestHeaders, response -> { });
+      joiningContext.runOnContext(w ->
+        otherValidationEngineService.validatePassword(USER_ID_VALUE, "9pass", requestHeaders, joiningHandler));
+    });
+  }
+
+  /**
+   * Testing the case when the request carries the trace context of the caller.
+   * Expected result is to receive the engine and /users spans in the trace of the caller
+   * and to send the trace context to the users module.
+   */
+  @Test
+  public void shouldTraceValidationInTraceOfCaller(TestContext testContext) {
+    //given
+    String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+    requestHeaders.put(Tracer.TRACEPARENT_HEADER, "00-" + traceId + "-00f067aa0ba902b7-01");
+    InMemorySpanExporter exporter = new InMemorySpanExporter();
+    Tracer.setExporter(exporter);
+    mockRegistryServiceResponse(JsonObject.mapFrom(regExpRuleCollection));
+
+    //expect
+    Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertSuccess(response -> {
+      Tracer.setExporter(span -> { });
+      Map<String, Span> spans = new HashMap<>();
+      exporter.getFinishedSpans().forEach(span -> spans.put(span.getName(), span));
+      Span engineSpan = spans.get("validation-engine validate");
+      Span usersSpan = spans.get("HTTP GET /users");
+      assertThat(engineSpan.getTraceId(), Matchers.is(traceId));
+      assertThat(engineSpan.getParentSpanId(), Matchers.is("00f067aa0ba902b7"));
+      assertThat(usersSpan.getParentSpanId(), Matchers.is(engineSpan.getSpanId()));
+      assertThat(usersSpan.getAttributes().get("http.status_code"), Matchers.is(HttpStatus.SC_OK));
+      userMockServer.verify(WireMock.getRequestedFor(WireMock.urlPathEqualTo("/users"))
+        .withHeader(Tracer.TRACEPARENT_HEADER, WireMock.equalTo(usersSpan.getTraceparent())));
+      // the registry starts its database span as a child of the span of the rules lookup
+      Span rulesSpan = spans.get("validation-engine enabled rules");
+      assertThat(rulesSpan.getParentSpanId(), Matchers.is(engineSpan.getSpanId()));
+      Mockito.verify(validatorRegistryService).getEnabledTenantRules(ArgumentMatchers.eq(OKAPI_HEADER_TENANT_VALUE),
+        ArgumentMatchers.eq(rulesSpan.getTraceparent()), ArgumentMatchers.any());
+    });
+
+    //when
+    validationEngineService.validatePassword(USER_ID_VALUE, "Password", requestHeaders, checkingHandler);
+  }
+
+  /**
+   * Testing the case when the validation completes.
+   * Expected result is to find the password chars of the request zeroed.
+   */
+  @Test
+  public void shouldWipePasswordAfterValidation(TestContext testContext) {
+    //given
+    mockRegistryServiceResponse(JsonObject.mapFrom(regExpRuleCollection));
+    PasswordChars password = PasswordChars.of("9pass");
+    ValidationRequest request = new ValidationRequest(USER_ID_VALUE, password, RequestContext.fromHeaders(requestHeaders));
+
+    //when
+    ((ValidationEngineServiceImpl) validationEngineService).validate(request)
+      .onComplete(testContext.asyncAssertSuccess(result -> {
+        //then
+        assertThat(result.isValid(), Matchers.is(false));
+        assertThat(password.toString(), Matchers.is("\0\0\0\0\0"));
+      }));
+  }
+
   private static void initRegExpRules() {
     regExpRuleCollection = new RuleCollection()
       .withRules(Arrays.asList(REGEXP_LIMITED_LENGTH_RULE, REGEXP_ONLY_ALPHABETICAL_RULE));
@@ -250,8 +398,7 @@ public class RegExpRulesProcessingTest {
   }
 
   private void mockRegistryServiceResponse(JsonObject jsonObject) {
-    Mockito.doAnswer(new GenericHandlerAnswer<>(Future.succeededFuture(jsonObject), 4))
-      .when(validatorRegistryService).getAllTenantRules(ArgumentMatchers.any(), ArgumentMatchers.anyInt(),
-      ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    Mockito.doAnswer(new GenericHandlerAnswer<>(Future.succeededFuture(jsonObject), 2))
+      .when(validatorRegistryService).getEnabledTenantRules(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
   }
 }
@@ -0,0 +1,124 @@
+package org.folio.services.validator.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.rest.jaxrs.model.Rule;
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Test for the dry run of the candidate RegExp rules.
+ */
+public class RuleBenchmarkTest {
+
+  private final RuleBenchmark ruleBenchmark = new RuleBenchmark(50);
+
+  @Test
+  public void shouldReportPassRateOfGivenPasswords() {
+    Rule rule = regExpRule("^(?=.*\\d)(?=.*[a-z]).{8,}$");
+
+    JsonObject result = ruleBenchmark.run(rule, Arrays.asList("password1", "password", "pass1", "Secret12"), null);
+
+    assertThat(result.getInteger("samples"), is(4));
+    assertThat(result.getBoolean("generatedSamples"), is(false));
+    assertThat(result.getInteger("passed"), is(2));
+    assertThat(result.getDouble("passRate"), is(0.5));
+    assertThat(result.getInteger("timedOut"), is(0));
+    assertThat(result.getString("backtrackingRisk"), is(RuleBenchmark.RISK_LOW));
+  }
+
+  @Test
+  public void shouldSubstituteUserName() {
+    Rule rule = regExpRule("^(?:(?!<USER_NAME>).)*$");
+
+    JsonObject result = ruleBenchmark.run(rule, Arrays.asList("jsmith2024", "Secret12"), "jsmith");
+
+    assertThat(result.getInteger("passed"), is(1));
+  }
+
+  @Test
+  public void shouldFindCatastrophicBacktrackingOnGeneratedSamples() {
+    Rule rule = regExpRule("^(.*a){12}$").withRegexBackend(Rule.RegexBackend.JDK);
+
+    JsonObject result = ruleBenchmark.run(rule, Collections.emptyList(), null);
+
+    assertThat(result.getBoolean("generatedSamples"), is(true));
+    assertThat(result.getInteger("samples"), greaterThan(200));
+    assertThat(result.getInteger("timedOut"), greaterThan(0));
+    assertThat(result.getString("regexBackend"), is("Jdk"));
+    assertThat(result.getString("backtrackingRisk"), is(RuleBenchmark.RISK_HIGH));
+  }
+
+  @Test
+  public void shouldMatchBacktrackingExpressionInLinearTimeByDfaBackend() {
+    Rule rule = regExpRule("^(.*a){12}$").withRegexBackend(Rule.RegexBackend.DFA);
+
+    JsonObject result = ruleBenchmark.run(rule, Collections.emptyList(), null);
+
+    assertThat(result.getString("regexBackend"), is("Dfa"));
+    assertThat(result.getInteger("timedOut"), is(0));
+    assertThat(result.getString("backtrackingRisk"), is(RuleBenchmark.RISK_LOW));
+    assertThat(result.getJsonArray("riskReasons").getString(0), startsWith("Nested"));
+  }
+
+  @Test
+  public void shouldFallBackToJdkBackendForLookarounds() {
+    Rule rule = regExpRule("^(?=.*\\d).{8,}$").withRegexBackend(Rule.RegexBackend.DFA);
+
+    JsonObject result = ruleBenchmark.run(rule, Collections.singletonList("password1"), null);
+
+    assertThat(result.getString("regexBackend"), is("Jdk"));
+    assertThat(result.getInteger("passed"), is(1));
+  }
+
+  @Test
+  public void shouldSkipSamplesOnceTimeBudgetIsSpent() {
+    Rule rule = regExpRule("^(.*a){12}$").withRegexBackend(Rule.RegexBackend.JDK);
+    List<String> samples = Collections.nCopies(20, "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa\u0000");
+
+    long start = System.nanoTime();
+    JsonObject result = new RuleBenchmark(50, 120).run(rule, samples, null);
+
+    assertThat(result.getInteger("samples"), is(20));
+    assertThat(result.getInteger("timedOut"), greaterThan(0));
+    assertThat(result.getInteger("skipped"), greaterThan(10));
+    assertThat(result.getInteger("timedOut") + result.getInteger("skipped"), is(20));
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(1_000L + 24 * 50));
+  }
+
+  @Test
+  public void shouldAnalyzeExpression() {
+    assertThat(RuleBenchmark.analyzeExpression("^.{6,12}$"), empty());
+    assertThat(RuleBenchmark.analyzeExpression("^(?=.*[A-Z])(?=.*\\d)[^\\s]{8,}$"), empty());
+    assertThat(RuleBenchmark.analyzeExpression("^[a-z]++[a-z]++$"), empty());
+
+    List<String> nested = RuleBenchmark.analyzeExpression("^(\\w+\\s?)*$");
+    assertThat(nested, hasSize(1));
+    assertThat(nested.get(0), startsWith("Nested"));
+    assertThat(RuleBenchmark.analyzeExpression("^(.*a){12}$").get(0), startsWith("Nested"));
+    assertThat(RuleBenchmark.analyzeExpression("^(a+){1}$"), empty());
+    assertThat(RuleBenchmark.analyzeExpression("^(a|ab)*$").get(0), startsWith("Alternation"));
+    assertThat(RuleBenchmark.analyzeExpression("^\\d+\\d*$").get(0), startsWith("Adjacent"));
+  }
+
+  private Rule regExpRule(String expression) {
+    return new Rule()
+      .withRuleId("d4f2ccba-6d25-4a7c-8ea2-d39d4e18a1c3")
+      .withName("candidate")
+      .withType(Rule.Type.REG_EXP)
+      .withValidationType(Rule.ValidationType.STRONG)
+      .withExpression(expression);
+  }
+}
@@ -0,0 +1,107 @@
+package org.folio.services.validator.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.concurrent.TimeUnit;
+
+import org.folio.rest.jaxrs.model.Rule;
+import org.junit.Test;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Test for the evaluation statistics of the rules.
+ */
+public class RuleStatisticsTest {
+
+  private static final String TENANT = "diku";
+
+  private static final Rule FAST_RULE = new Rule()
+    .withRuleId("5105b55a-b9a3-4f76-9402-a5243ea63c95")
+    .withName("password_length")
+    .withType(Rule.Type.REG_EXP);
+
+  private static final Rule SLOW_RULE = new Rule()
+    .withRuleId("dc653de8-f0df-48ab-9630-13aecbe3b2a6")
+    .withName("no_user_name")
+    .withType(Rule.Type.PROGRAMMATIC);
+
+  @Test
+  public void shouldReturnSlowestRulesFirst() {
+    RuleStatistics statistics = new RuleStatistics(10);
+    for (int i = 0; i < 100; i++) {
+      statistics.record(TENANT, FAST_RULE, Rule.RegexBackend.DFA, TimeUnit.MICROSECONDS.toNanos(20), i % 4 == 0, false);
+    }
+    statistics.record(TENANT, SLOW_RULE, null, TimeUnit.MILLISECONDS.toNanos(30), false, false);
+    statistics.record(TENANT, SLOW_RULE, null, TimeUnit.MILLISECONDS.toNanos(70), false, true);
+
+    JsonObject stats = statistics.getSlowestRules(TENANT, 10);
+    assertThat(stats.getInteger("totalRecords"), is(2));
+    assertThat(stats.getDouble("warningThresholdMillis"), is(10.0));
+
+    JsonObject slowRule = stats.getJsonArray("rules").getJsonObject(0);
+    assertThat(slowRule.getString("ruleId"), is(SLOW_RULE.getRuleId()));
+    assertThat(slowRule.getString("type"), is("Programmatic"));
+    assertThat(slowRule.getLong("evaluations"), is(2L));
+    assertThat(slowRule.getDouble("errorRate"), is(0.5));
+    assertThat(slowRule.getDouble("meanMillis"), is(50.0));
+    assertThat(slowRule.getDouble("p99Millis"), is(70.0));
+    assertThat(slowRule.getDouble("maxMillis"), is(70.0));
+    assertThat(slowRule.getBoolean("slow"), is(true));
+
+    JsonObject fastRule = stats.getJsonArray("rules").getJsonObject(1);
+    assertThat(fastRule.getString("name"), is(FAST_RULE.getName()));
+    assertThat(fastRule.getString("regexBackend"), is("Dfa"));
+    assertThat(fastRule.getDouble("rejectionRate"), is(0.25));
+    assertThat(fastRule.getDouble("p50Millis"), is(0.02));
+    assertThat(fastRule.getBoolean("slow"), is(false));
+    JsonArray histogram = fastRule.getJsonArray("histogram");
+    assertThat(histogram.getJsonObject(1).getLong("count"), is(100L));
+    assertThat(histogram.getJsonObject(histogram.size() - 1).containsKey("upperBoundMillis"), is(false));
+  }
+
+  @Test
+  public void shouldLimitRulesAndSeparateTenants() {
+    RuleStatistics statistics = new RuleStatistics(10);
+    statistics.record(TENANT, FAST_RULE, Rule.RegexBackend.DFA, 1_000, false, false);
+    statistics.record(TENANT, SLOW_RULE, null, 2_000, false, false);
+    statistics.record("other", FAST_RULE, Rule.RegexBackend.DFA, 1_000, false, false);
+
+    JsonObject stats = statistics.getSlowestRules(TENANT, 1);
+    assertThat(stats.getJsonArray("rules").size(), is(1));
+    assertThat(stats.getInteger("totalRecords"), is(2));
+    assertThat(statistics.getSlowestRules("unknown", 10).getJsonArray("rules").size(), is(0));
+  }
+
+  @Test
+  public void shouldRemoveStatisticsOfTenant() {
+    RuleStatistics statistics = new RuleStatistics(10);
+    statistics.record(TENANT, FAST_RULE, Rule.RegexBackend.DFA, 1_000, false, false);
+    statistics.record(TENANT, SLOW_RULE, null, 2_000, false, false);
+    statistics.record("other", FAST_RULE, Rule.RegexBackend.DFA, 1_000, false, false);
+
+    statistics.removeTenant(TENANT);
+
+    assertThat(statistics.getSlowestRules(TENANT, 10).getInteger("totalRecords"), is(0));
+    assertThat(statistics.getSlowestRules("other", 10).getInteger("totalRecords"), is(1));
+    statistics.record(TENANT, FAST_RULE, Rule.RegexBackend.JDK, 1_000, false, false);
+    JsonObject rule = statistics.getSlowestRules(TENANT, 10).getJsonArray("rules").getJsonObject(0);
+    assertThat(rule.getLong("evaluations"), is(1L));
+    assertThat(rule.getString("regexBackend"), is("Jdk"));
+  }
+
+  @Test
+  public void shouldKeepDescriptiveFieldsOfFirstRecord() {
+    RuleStatistics statistics = new RuleStatistics(10);
+    statistics.record(TENANT, FAST_RULE, Rule.RegexBackend.DFA, 1_000, false, false);
+    statistics.record(TENANT, new Rule().withRuleId(FAST_RULE.getRuleId()), null, 1_000, false, false);
+
+    JsonObject rule = statistics.getSlowestRules(TENANT, 10).getJsonArray("rules").getJsonObject(0);
+    assertThat(rule.getString("name"), is(FAST_RULE.getName()));
+    assertThat(rule.getString("type"), is("RegExp"));
+    assertThat(rule.getString("regexBackend"), is("Dfa"));
+    assertThat(rule.getLong("evaluations"), is(2L));
+  }
+}
@@ -0,0 +1,221 @@
+package org.folio.services.validator.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.ext.web.client.WebClient;
+import org.folio.rest.RestVerticle;
+import org.folio.rest.impl.GenericHandlerAnswer;
+import org.folio.rest.jaxrs.model.Rule;
+import org.folio.rest.jaxrs.model.RuleCollection;
+import org.folio.services.validator.registry.ValidatorRegistryService;
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.folio.services.validator.util.ValidatorHelper.RESPONSE_ERROR_MESSAGES_KEY;
+import static org.folio.services.validator.util.ValidatorHelper.RESPONSE_VALIDATION_RESULT_KEY;
+import static org.folio.services.validator.util.ValidatorHelper.VALIDATION_INVALID_RESULT;
+import static org.folio.services.validator.util.ValidatorHelper.VALIDATION_VALID_RESULT;
+
+/**
+ * Test for Validation Engine component. Testing password processing by Similarity rules
+ * against the user record returned by the users module.
+ */
+@RunWith(VertxUnitRunner.class)
+public class SimilarityRulesProcessingTest {
+
+  private static final String USER_ID_VALUE = "db6ffb67-3160-43bf-8e2f-ecf9a420288b";
+
+  private static final JsonObject USER = new JsonObject()
+    .put("username", "jsmith")
+    .put("id", USER_ID_VALUE)
+    .put("active", true)
+    .put("personal", new JsonObject()
+      .put("firstName", "Johanna")
+      .put("lastName", "Kowalczyk")
+      .put("email", "jo.kowal@example.org"));
+
+  private static final Rule SIMILARITY_RULE = new Rule()
+    .withRuleId("8e2d6a0c-1f3b-4c55-9d7e-2a4b6c8d0e13")
+    .withName("no_user_data")
+    .withType(Rule.Type.SIMILARITY)
+    .withValidationType(Rule.ValidationType.STRONG)
+    .withState(Rule.State.ENABLED)
+    .withModuleName("mod-password-validator")
+    .withMaxEditDistance(1)
+    .withDescription("Password must not be based on the user name, first name, last name or email")
+    .withOrderNo(0)
+    .withErrMessageId("password.similarity.invalid");
+
+  private static final String OKAPI_HEADER_TENANT_VALUE = "tenant";
+  private static final String OKAPI_HEADER_TOKEN_VALUE = "token";
+
+  private static final String OKAPI_URL_HEADER = "x-okapi-url";
+
+  @InjectMocks
+  private ValidationEngineService validationEngineService = new ValidationEngineServiceImpl();
+  @Mock
+  private ValidatorRegistryService validatorRegistryService;
+  @Spy
+  private WebClient webClient = WebClient.create(Vertx.vertx());
+
+  private Map<String, String> requestHeaders;
+
+  @org.junit.Rule
+  public WireMockRule userMockServer = new WireMockRule(
+    WireMockConfiguration.wireMockConfig()
+      .dynamicPort()
+      .notifier(new ConsoleNotifier(true)));
+
+  @Before
+  public void setUp() throws Exception {
+    MockitoAnnotations.openMocks(this).close();
+    requestHeaders = new HashMap<>();
+    requestHeaders.put(RestVerticle.OKAPI_HEADER_TENANT, OKAPI_HEADER_TENANT_VALUE);
+    requestHeaders.put(RestVerticle.OKAPI_HEADER_TOKEN, OKAPI_HEADER_TOKEN_VALUE);
+    requestHeaders.put(RestVerticle.OKAPI_USERID_HEADER, USER_ID_VALUE);
+    requestHeaders.put(OKAPI_URL_HEADER, "http://localhost:" + userMockServer.port());
+    mockUserModule(USER);
+  }
+
+  /**
+   * Testing the case when received password contains the user name.
+   * Expected result is to receive the invalid validation result with the error message of the Similarity rule:
+   * {
+   * "result" : "invalid"
+   * "messages": ["password.similarity.invalid"]
+   * }
+   */
+  @Test
+  public void shouldReturnInvalidResultForPasswordContainingUserName(TestContext testContext) {
+    mockRegistryServiceResponse(SIMILARITY_RULE);
+    validationEngineService.validatePassword(USER_ID_VALUE, "jsmith2024!", requestHeaders, invalidResultHandler(testContext));
+  }
+
+  /**
+   * Testing the case when received password contains the first name with one substitution.
+   * Expected result is to receive the invalid validation result.
+   */
+  @Test
+  public void shouldReturnInvalidResultForPasswordSimilarToFirstName(TestContext testContext) {
+    mockRegistryServiceResponse(SIMILARITY_RULE);
+    validationEngineService.validatePassword(USER_ID_VALUE, "Johann4-x9!", requestHeaders, invalidResultHandler(testContext));
+  }
+
+  /**
+   * Testing the case when received password contains the last name with one substitution, in another case.
+   * Expected result is to receive the invalid validation result.
+   */
+  @Test
+  public void shouldReturnInvalidResultForPasswordSimilarToLastName(TestContext testContext) {
+    mockRegistryServiceResponse(SIMILARITY_RULE);
+    validationEngineService.validatePassword(USER_ID_VALUE, "77-KOWALCZIK", requestHeaders, invalidResultHandler(testContext));
+  }
+
+  /**
+   * Testing the case when received password contains the local part of the user email.
+   * Expected result is to receive the invalid validation result.
+   */
+  @Test
+  public void shouldReturnInvalidResultForPasswordContainingEmailLocalPart(TestContext testContext) {
+    mockRegistryServiceResponse(SIMILARITY_RULE);
+    validationEngineService.validatePassword(USER_ID_VALUE, "1jo.kowal!", requestHeaders, invalidResultHandler(testContext));
+  }
+
+  /**
+   * Testing the case when received password is not based on the user data.
+   * Expected result is to receive the valid validation result.
+   */
+  @Test
+  public void shouldReturnValidResultForPasswordUnrelatedToUser(TestContext testContext) {
+    mockRegistryServiceResponse(SIMILARITY_RULE);
+    validationEngineService.validatePassword(USER_ID_VALUE, "xK#9vT!qLm2$wZ", requestHeaders, validResultHandler(testContext));
+  }
+
+  /**
+   * Testing the case when the user name is too short for the edit distance of the rule:
+   * "jdoe" is within 2 edits of any "do" in the password.
+   * Expected result is to skip the user name, so the password is valid.
+   */
+  @Test
+  public void shouldSkipFieldsTooShortForEditDistance(TestContext testContext) {
+    mockUserModule(new JsonObject()
+      .put("username", "jdoe")
+      .put("id", USER_ID_VALUE)
+      .put("active", true));
+    mockRegistryServiceResponse(new Rule()
+      .withRuleId(SIMILARITY_RULE.getRuleId())
+      .withName(SIMILARITY_RULE.getName())
+      .withType(Rule.Type.SIMILARITY)
+      .withValidationType(Rule.ValidationType.STRONG)
+      .withState(Rule.State.ENABLED)
+      .withMaxEditDistance(2)
+      .withOrderNo(0)
+      .withErrMessageId(SIMILARITY_RULE.getErrMessageId()));
+    validationEngineService.validatePassword(USER_ID_VALUE, "Vq7#do!Lm9x", requestHeaders, validResultHandler(testContext));
+  }
+
+  /**
+   * Testing the case when the same short user name is checked with the edit distance it is long enough for.
+   * Expected result is to receive the invalid validation result.
+   */
+  @Test
+  public void shouldCheckShortFieldsLongEnoughForEditDistance(TestContext testContext) {
+    mockUserModule(new JsonObject()
+      .put("username", "jdoe")
+      .put("id", USER_ID_VALUE)
+      .put("active", true));
+    mockRegistryServiceResponse(SIMILARITY_RULE);
+    validationEngineService.validatePassword(USER_ID_VALUE, "Vq7#doe!Lm9x", requestHeaders, invalidResultHandler(testContext));
+  }
+
+  private Handler<AsyncResult<JsonObject>> invalidResultHandler(TestContext testContext) {
+    return testContext.asyncAssertSuccess(response -> {
+      assertThat(response.getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_INVALID_RESULT));
+      assertThat((JsonArray) response.getValue(RESPONSE_ERROR_MESSAGES_KEY), Matchers.contains(SIMILARITY_RULE.getErrMessageId()));
+    });
+  }
+
+  private Handler<AsyncResult<JsonObject>> validResultHandler(TestContext testContext) {
+    return testContext.asyncAssertSuccess(response -> {
+      assertThat(response.getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_VALID_RESULT));
+      assertThat((JsonArray) response.getValue(RESPONSE_ERROR_MESSAGES_KEY), Matchers.emptyIterable());
+    });
+  }
+
+  private void mockUserModule(JsonObject user) {
+    WireMock.stubFor(WireMock.get("/users?query=id==" + USER_ID_VALUE)
+      .willReturn(WireMock.okJson(new JsonObject()
+        .put("users", new JsonArray().add(user))
+        .put("totalRecords", 1).toString())));
+  }
+
+  private void mockRegistryServiceResponse(Rule rule) {
+    JsonObject ruleCollection = JsonObject.mapFrom(new RuleCollection().withRules(Collections.singletonList(rule)));
+    Mockito.doAnswer(new GenericHandlerAnswer<>(Future.succeededFuture(ruleCollection), 2))
+      .when(validatorRegistryService).getEnabledTenantRules(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+  }
+}
@@ -0,0 +1,204 @@
+package org.folio.services.validator.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.ext.web.client.WebClient;
+import org.folio.rest.RestVerticle;
+import org.folio.rest.impl.GenericHandlerAnswer;
+import org.folio.rest.jaxrs.model.Rule;
+import org.folio.rest.jaxrs.model.RuleCollection;
+import org.folio.services.validator.registry.ValidatorRegistryService;
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.folio.services.validator.util.ValidatorHelper.RESPONSE_ERROR_MESSAGES_KEY;
+import static org.folio.services.validator.util.ValidatorHelper.RESPONSE_STRENGTH_SCORE_KEY;
+import static org.folio.services.validator.util.ValidatorHelper.RESPONSE_VALIDATION_RESULT_KEY;
+import static org.folio.services.validator.util.ValidatorHelper.VALIDATION_INVALID_RESULT;
+import static org.folio.services.validator.util.ValidatorHelper.VALIDATION_VALID_RESULT;
+
+/**
+ * Test for Validation Engine component. Testing password processing by Strength rules.
+ */
+@RunWith(VertxUnitRunner.class)
+public class StrengthRulesProcessingTest {
+
+  private static final JsonObject USER_SERVICE_MOCK_RESPONSE = new JsonObject()
+    .put("users", new JsonArray()
+      .add(new JsonObject()
+        .put("username", "jsmith")
+        .put("id", "9d990cae-2685-4868-9fca-d0ad013c0640")
+        .put("active", true)))
+    .put("totalRecords", 1);
+
+  private static final Rule STRENGTH_RULE = new Rule()
+    .withRuleId("3a3bf4f6-4d27-4b0b-8f0e-6f1b5e0c6a11")
+    .withName("strength")
+    .withType(Rule.Type.STRENGTH)
+    .withValidationType(Rule.ValidationType.STRONG)
+    .withState(Rule.State.ENABLED)
+    .withModuleName("mod-password-validator")
+    .withMinScore(3)
+    .withDescription("Password must not be easy to guess")
+    .withOrderNo(0)
+    .withErrMessageId("password.strength.invalid");
+
+  private static final Rule REGEXP_LENGTH_RULE = new Rule()
+    .withRuleId("5105b55a-b9a3-4f76-9402-a5243ea63c95")
+    .withName("password_length")
+    .withType(Rule.Type.REG_EXP)
+    .withValidationType(Rule.ValidationType.STRONG)
+    .withState(Rule.State.ENABLED)
+    .withModuleName("mod-password-validator")
+    .withExpression("^.{8,}$")
+    .withDescription("The password length must be at least 8 characters long")
+    .withOrderNo(1)
+    .withErrMessageId("password.length.invalid");
+
+  private static final String OKAPI_HEADER_TENANT_VALUE = "tenant";
+  private static final String OKAPI_HEADER_TOKEN_VALUE = "token";
+  private static final String USER_ID_VALUE = "db6ffb67-3160-43bf-8e2f-ecf9a420288b";
+
+  private static final String OKAPI_URL_HEADER = "x-okapi-url";
+
+  @InjectMocks
+  private ValidationEngineService validationEngineService = new ValidationEngineServiceImpl();
+  @Mock
+  private ValidatorRegistryService validatorRegistryService;
+  @Spy
+  private WebClient webClient = WebClient.create(Vertx.vertx());
+
+  private Map<String, String> requestHeaders;
+
+  @org.junit.Rule
+  public WireMockRule userMockServer = new WireMockRule(
+    WireMockConfiguration.wireMockConfig()
+      .dynamicPort()
+      .notifier(new ConsoleNotifier(true)));
+
+  @Before
+  public void setUp() throws Exception {
+    MockitoAnnotations.openMocks(this).close();
+    requestHeaders = new HashMap<>();
+    requestHeaders.put(RestVerticle.OKAPI_HEADER_TENANT, OKAPI_HEADER_TENANT_VALUE);
+    requestHeaders.put(RestVerticle.OKAPI_HEADER_TOKEN, OKAPI_HEADER_TOKEN_VALUE);
+    requestHeaders.put(RestVerticle.OKAPI_USERID_HEADER, USER_ID_VALUE);
+    requestHeaders.put(OKAPI_URL_HEADER, "http://localhost:" + userMockServer.port());
+    WireMock.stubFor(WireMock.get("/users?query=id==" + USER_ID_VALUE)
+      .willReturn(WireMock.okJson(USER_SERVICE_MOCK_RESPONSE.toString())));
+  }
+
+  /**
+   * Testing the case when received password is one of the most common passwords.
+   * Expected result is to receive the invalid validation result with the error message of the Strength rule
+   * and the lowest score:
+   * {
+   * "result" : "invalid"
+   * "messages": ["password.strength.invalid"]
+   * "score": 0
+   * }
+   */
+  @Test
+  public void shouldReturnInvalidResultWithScoreOfCommonPassword(TestContext testContext) {
+    //given
+    mockRegistryServiceResponse(STRENGTH_RULE, REGEXP_LENGTH_RULE);
+
+    //expect
+    Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertSuccess(response -> {
+      assertThat(response.getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_INVALID_RESULT));
+      assertThat(response.getJsonArray(RESPONSE_ERROR_MESSAGES_KEY), Matchers.contains(STRENGTH_RULE.getErrMessageId()));
+      assertThat(response.getInteger(RESPONSE_STRENGTH_SCORE_KEY), Matchers.is(0));
+    });
+
+    //when
+    validationEngineService.validatePassword(USER_ID_VALUE, "password", requestHeaders, checkingHandler);
+  }
+
+  /**
+   * Testing the case when received password is random.
+   * Expected result is to receive the valid validation result with the highest score.
+   */
+  @Test
+  public void shouldReturnValidResultWithScoreOfRandomPassword(TestContext testContext) {
+    //given
+    mockRegistryServiceResponse(STRENGTH_RULE, REGEXP_LENGTH_RULE);
+
+    //expect
+    Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertSuccess(response -> {
+      assertThat(response.getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_VALID_RESULT));
+      assertThat(response.getJsonArray(RESPONSE_ERROR_MESSAGES_KEY), Matchers.emptyIterable());
+      assertThat(response.getInteger(RESPONSE_STRENGTH_SCORE_KEY), Matchers.is(4));
+    });
+
+    //when
+    validationEngineService.validatePassword(USER_ID_VALUE, "xK#9vT!qLm2$wZ", requestHeaders, checkingHandler);
+  }
+
+  /**
+   * Testing the case when the password is based on the user name.
+   * Expected result is to receive the user name treated as the most common word, so the score is low.
+   */
+  @Test
+  public void shouldScoreLowPasswordBasedOnUserName(TestContext testContext) {
+    //given
+    mockRegistryServiceResponse(STRENGTH_RULE);
+
+    //expect
+    Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertSuccess(response -> {
+      assertThat(response.getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_INVALID_RESULT));
+      assertThat(response.getInteger(RESPONSE_STRENGTH_SCORE_KEY), Matchers.lessThan(STRENGTH_RULE.getMinScore()));
+    });
+
+    //when
+    validationEngineService.validatePassword(USER_ID_VALUE, "Jsmith2024", requestHeaders, checkingHandler);
+  }
+
+  /**
+   * Testing the case when the tenant has no Strength rules.
+   * Expected result is to receive no score in the validation result.
+   */
+  @Test
+  public void shouldReturnNoScoreWithoutStrengthRules(TestContext testContext) {
+    //given
+    mockRegistryServiceResponse(REGEXP_LENGTH_RULE);
+
+    //expect
+    Handler<AsyncResult<JsonObject>> checkingHandler = testContext.asyncAssertSuccess(response -> {
+      assertThat(response.getString(RESPONSE_VALIDATION_RESULT_KEY), Matchers.is(VALIDATION_VALID_RESULT));
+      assertThat(response.containsKey(RESPONSE_STRENGTH_SCORE_KEY), Matchers.is(false));
+    });
+
+    //when
+    validationEngineService.validatePassword(USER_ID_VALUE, "password", requestHeaders, checkingHandler);
+  }
+
+  private void mockRegistryServiceResponse(Rule... rules) {
+    JsonObject ruleCollection = JsonObject.mapFrom(new RuleCollection().withRules(Arrays.asList(rules)));
+    Mockito.doAnswer(new GenericHandlerAnswer<>(Future.succeededFuture(ruleCollection), 2))
+      .when(validatorRegistryService).getEnabledTenantRules(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+  }
+}
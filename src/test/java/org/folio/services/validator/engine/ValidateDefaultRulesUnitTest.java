@@ -431,8 +431,7 @@ public class ValidateDefaultRulesUnitTest {
   }
 
   private void mockRegistryServiceResponse(JsonObject jsonObject) {
-    Mockito.doAnswer(new GenericHandlerAnswer<>(Future.succeededFuture(jsonObject), 4))
-      .when(validatorRegistryService).getAllTenantRules(ArgumentMatchers.any(), ArgumentMatchers.anyInt(),
-      ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    Mockito.doAnswer(new GenericHandlerAnswer<>(Future.succeededFuture(jsonObject), 2))
+      .when(validatorRegistryService).getEnabledTenantRules(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
   }
 }
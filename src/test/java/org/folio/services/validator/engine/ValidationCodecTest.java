@@ -0,0 +1,93 @@
+package org.folio.services.validator.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Test for the binary event bus codecs of validation requests and results.
+ */
+public class ValidationCodecTest {
+
+  private final ValidationRequestCodec requestCodec = new ValidationRequestCodec();
+  private final ValidationResultCodec resultCodec = new ValidationResultCodec();
+
+  @Test
+  public void shouldEncodeAndDecodeRequest() {
+    ValidationRequest request = new ValidationRequest("db6ffcc2-cf0b-4d4e-a5a8-b4a4c8f2a2b1", "Zażółć1!",
+      new RequestContext("http://localhost:9130", "diku", null, "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01"));
+    Buffer buffer = Buffer.buffer("prefix");
+    requestCodec.encodeToWire(buffer, request);
+
+    ValidationRequest decoded = requestCodec.decodeFromWire("prefix".length(), buffer);
+    assertThat(decoded.getUserId(), is(request.getUserId()));
+    assertThat(decoded.getPassword().toString(), is("Zażółć1!"));
+    assertThat(decoded.getContext().getOkapiUrl(), is("http://localhost:9130"));
+    assertThat(decoded.getContext().getTenantId(), is("diku"));
+    assertThat(decoded.getContext().getToken(), nullValue());
+    assertThat(decoded.getContext().getTraceparent(), is(request.getContext().getTraceparent()));
+    assertThat(requestCodec.transform(request), sameInstance(request));
+  }
+
+  @Test
+  public void shouldTakeOnlyNeededHeadersIgnoringCase() {
+    Map<String, String> headers = new HashMap<>();
+    headers.put("X-Okapi-Url", "http://localhost:9130");
+    headers.put("x-okapi-tenant", "diku");
+    headers.put("X-OKAPI-TOKEN", "token");
+    headers.put("x-okapi-request-id", "123456/password");
+
+    RequestContext context = RequestContext.fromHeaders(headers);
+    assertThat(context.getOkapiUrl(), is("http://localhost:9130"));
+    assertThat(context.getTenantId(), is("diku"));
+    assertThat(context.getToken(), is("token"));
+  }
+
+  @Test
+  public void shouldEncodeAndDecodeResult() {
+    ValidationResult result = new ValidationResult(Arrays.asList("password.length.invalid",
+      "password.usernameDuplicate.invalid"), 2);
+    Buffer buffer = Buffer.buffer();
+    resultCodec.encodeToWire(buffer, result);
+
+    ValidationResult decoded = resultCodec.decodeFromWire(0, buffer);
+    assertThat(decoded.isValid(), is(false));
+    assertThat(decoded.getMessages(), contains("password.length.invalid", "password.usernameDuplicate.invalid"));
+    assertThat(decoded.getScore(), is(2));
+    assertThat(resultCodec.transform(result), sameInstance(result));
+  }
+
+  @Test
+  public void shouldEncodeValidResultWithoutScore() {
+    Buffer buffer = Buffer.buffer();
+    resultCodec.encodeToWire(buffer, new ValidationResult(Collections.emptyList(), null));
+
+    ValidationResult decoded = resultCodec.decodeFromWire(0, buffer);
+    assertThat(decoded.isValid(), is(true));
+    assertThat(decoded.getMessages(), empty());
+    assertThat(decoded.getScore(), nullValue());
+  }
+
+  @Test
+  public void shouldEncodeResultInValidationTemplateFormat() {
+    ValidationResult invalid = new ValidationResult(Collections.singletonList("password.length.invalid"), 1);
+    ValidationResult valid = new ValidationResult(Collections.emptyList(), null);
+
+    assertThat(invalid.encode(),
+      is("{\"result\":\"invalid\",\"messages\":[\"password.length.invalid\"],\"score\":1}"));
+    assertThat(invalid.encode(), sameInstance(invalid.encode()));
+    assertThat(valid.encode(), is("{\"result\":\"valid\",\"messages\":[]}"));
+  }
+}
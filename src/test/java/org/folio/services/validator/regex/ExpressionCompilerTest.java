@@ -0,0 +1,98 @@
+package org.folio.services.validator.regex;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.folio.rest.jaxrs.model.Rule;
+import org.junit.Test;
+
+/**
+ * Test for the automaton and java.util.regex backends of the RegExp rules.
+ */
+public class ExpressionCompilerTest {
+
+  private static final List<String> AUTOMATON_EXPRESSIONS = Arrays.asList(
+    "^.{8,}$",
+    "[^\\s]+",
+    ".{2,5}",
+    "^[a-zA-Z0-9!@#]{3,}$",
+    "(a|ab)*c?",
+    "^(?:\\d+|[A-Z]\\w*)$",
+    "(?<head>a+)b{0,3}",
+    "a*?b+?",
+    "[\\d\\-x]+",
+    "^\\x41\\u0062[^ab]*$",
+    "(.*a){3}",
+    "a|^b|c$",
+    "ż+ó?");
+  private static final List<String> UNSUPPORTED_EXPRESSIONS = Arrays.asList(
+    "(?=.*\\d).+",
+    "^(?:(.)(?!\\1))*$",
+    "\\bword\\b",
+    "a++",
+    "(?i)abc",
+    "[a-z&&[^q]]+",
+    "\\p{Lu}+",
+    "a$b");
+
+  @Test
+  public void shouldMatchLikeJavaUtilRegex() {
+    Random random = new Random(42);
+    String alphabet = "aAbBcxz019 !\t\nżó-";
+    for (String expression : AUTOMATON_EXPRESSIONS) {
+      CompiledExpression dfa = ExpressionCompiler.compile(expression, Rule.RegexBackend.DFA);
+      assertThat(expression, dfa.getBackend(), is(Rule.RegexBackend.DFA));
+      Pattern pattern = Pattern.compile(expression);
+      for (int i = 0; i < 500; i++) {
+        StringBuilder input = new StringBuilder();
+        int length = random.nextInt(12);
+        for (int j = 0; j < length; j++) {
+          input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        assertThat(expression + " / " + input, dfa.matches(input), is(pattern.matcher(input).matches()));
+      }
+    }
+  }
+
+  @Test
+  public void shouldFallBackToJavaUtilRegex() {
+    for (String expression : UNSUPPORTED_EXPRESSIONS) {
+      CompiledExpression expressionWithFallback = ExpressionCompiler.compile(expression, Rule.RegexBackend.DFA);
+      assertThat(expression, expressionWithFallback.getBackend(), is(Rule.RegexBackend.JDK));
+    }
+    assertThat(ExpressionCompiler.compile("(?=.*\\d).+", Rule.RegexBackend.DFA).matches("abc1"), is(true));
+    assertThat(ExpressionCompiler.compile("^(?:(.)(?!\\1))*$", Rule.RegexBackend.DFA).matches("abba"), is(false));
+  }
+
+  @Test
+  public void shouldUseRequestedJdkBackend() {
+    assertThat(ExpressionCompiler.compile("^.{8,}$", Rule.RegexBackend.JDK).getBackend(), is(Rule.RegexBackend.JDK));
+  }
+
+  @Test(expected = PatternSyntaxException.class)
+  public void shouldRejectInvalidExpression() {
+    ExpressionCompiler.compile("(abc", Rule.RegexBackend.DFA);
+  }
+
+  @Test
+  public void shouldMatchBacktrackingExpressionInLinearTime() {
+    CompiledExpression dfa = ExpressionCompiler.compile("^(.*a){12}$", Rule.RegexBackend.DFA);
+    StringBuilder input = new StringBuilder();
+    for (int i = 0; i < 10_000; i++) {
+      input.append('a');
+    }
+    input.append('\u0000');
+
+    long start = System.nanoTime();
+    assertThat(dfa.matches(input), is(false));
+    assertThat(System.nanoTime() - start, lessThan(TimeUnit.SECONDS.toNanos(1)));
+  }
+}
@@ -0,0 +1,64 @@
+package org.folio.services.validator.regex;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.folio.rest.jaxrs.model.Rule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time and allocation of matching a password by a compiled expression, run with the GC profiler
+ * as described in the README: {@code gc.alloc.rate.norm} of {@link #newMatcher()} is the matcher and its group arrays
+ * allocated per rule per validation, {@link #reusedMatcher()} and {@link #automaton()} should report about zero.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpressionMatchingBenchmark {
+
+  @Param({"^[A-Za-z0-9-]{8,}$", "^(?=.*[A-Za-z])(?=.*\\d).+$"})
+  public String expression;
+
+  private final CharSequence password = "Pa55w0rd-with-some-length";
+  private Pattern pattern;
+  private CompiledExpression reused;
+  private CompiledExpression automaton;
+
+  @Setup
+  public void setUp() {
+    pattern = Pattern.compile(expression);
+    reused = ExpressionCompiler.compile(expression, Rule.RegexBackend.JDK);
+    automaton = ExpressionCompiler.compile(expression, Rule.RegexBackend.DFA);
+  }
+
+  @Benchmark
+  public boolean newMatcher() {
+    return pattern.matcher(password).matches();
+  }
+
+  @Benchmark
+  public boolean reusedMatcher() {
+    return reused.matches(password);
+  }
+
+  /**
+   * Expressions an automaton cannot match fall back to the reused matcher
+   */
+  @Benchmark
+  public boolean automaton() {
+    return automaton.matches(password);
+  }
+}
@@ -0,0 +1,63 @@
+package org.folio.services.validator.regex;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * Test for the expressions merged into one automaton.
+ */
+public class ExpressionSetTest {
+
+  @Test
+  public void shouldReportMatchingExpressionsInOneScan() {
+    List<String> expressions = Arrays.asList("^.{8,}$", "[^\\s]+", "\\d*", "(a|ab)*c?", "^[a-z]{2,4}$", ".*1.*");
+    ExpressionSet.Builder builder = ExpressionSet.builder();
+    for (int i = 0; i < expressions.size(); i++) {
+      assertThat(builder.add(expressions.get(i)), is(i));
+    }
+    ExpressionSet expressionSet = builder.build();
+    assertThat(expressionSet.size(), is(expressions.size()));
+
+    Random random = new Random(7);
+    String alphabet = "abcz019 !";
+    for (int i = 0; i < 1000; i++) {
+      StringBuilder input = new StringBuilder();
+      int length = random.nextInt(12);
+      for (int j = 0; j < length; j++) {
+        input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      BitSet expected = new BitSet();
+      for (int j = 0; j < expressions.size(); j++) {
+        expected.set(j, Pattern.matches(expressions.get(j), input));
+      }
+      assertThat(input.toString(), expressionSet.match(input), is(expected));
+    }
+  }
+
+  @Test
+  public void shouldSkipUnsupportedExpressions() {
+    ExpressionSet.Builder builder = ExpressionSet.builder();
+    assertThat(builder.add("(?=.*\\d).+"), is(-1));
+    assertThat(builder.add("a+"), is(0));
+    assertThat(builder.add("^(?:(.)(?!\\1))*$"), is(-1));
+    assertThat(builder.add("b+"), is(1));
+    ExpressionSet expressionSet = builder.build();
+
+    assertThat(expressionSet.size(), is(2));
+    assertThat(expressionSet.match("bbb").get(1), is(true));
+    assertThat(expressionSet.match("bbb").get(0), is(false));
+  }
+
+  @Test
+  public void shouldMatchNothingWhenEmpty() {
+    assertThat(ExpressionSet.builder().build().match("password").isEmpty(), is(true));
+  }
+}
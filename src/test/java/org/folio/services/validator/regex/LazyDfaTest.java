@@ -0,0 +1,37 @@
+package org.folio.services.validator.regex;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * Test for the lazily built deterministic automaton.
+ */
+public class LazyDfaTest {
+
+  @Test
+  public void shouldBoundCachedTransitionsOnManyDistinctCodePoints() {
+    String expression = "^[^\\d]*\\d?$";
+    LazyDfa dfa = new LazyDfa(ExpressionParser.parse(expression));
+    StringBuilder input = new StringBuilder();
+    for (int codePoint = 0x4E00; codePoint < 0x4E00 + 10_000; codePoint++) {
+      input.appendCodePoint(codePoint);
+    }
+    for (int codePoint = 0x20000; codePoint < 0x20000 + 10_000; codePoint++) {
+      input.appendCodePoint(codePoint);
+    }
+
+    for (int i = 0; i < 3; i++) {
+      LazyDfa.State state = dfa.run(input);
+      assertThat(state.isAccepting(), is(true));
+      assertThat(state.getOtherTransitionsCount(), lessThanOrEqualTo(LazyDfa.OTHER_TRANSITIONS));
+    }
+    assertThat(dfa.run(input + "1").isAccepting(), is(Pattern.matches(expression, input + "1")));
+    assertThat(dfa.run(input + "12").isAccepting(), is(Pattern.matches(expression, input + "12")));
+    assertThat(dfa.run("一乀一").isAccepting(), is(true));
+  }
+}
@@ -0,0 +1,64 @@
+package org.folio.services.validator.registry;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.folio.cql2pgjson.exception.QueryValidationException;
+import org.junit.Test;
+
+/**
+ * Test for the SQL translations of the rule listing queries.
+ */
+public class CqlTranslationCacheTest {
+
+  private final List<String> translated = new ArrayList<>();
+  private final CqlTranslationCache cache = new CqlTranslationCache(2, query -> {
+    translated.add(query);
+    return "WHERE translation of " + query;
+  });
+
+  @Test
+  public void shouldTranslateRepeatedQueryOnce() throws QueryValidationException {
+    assertThat(cache.getFilter("state==Enabled", 10, 0), is("WHERE translation of state==Enabled LIMIT 10 OFFSET 0"));
+    assertThat(cache.getFilter("state==Enabled", 20, 40), is("WHERE translation of state==Enabled LIMIT 20 OFFSET 40"));
+
+    assertThat(translated, is(List.of("state==Enabled")));
+  }
+
+  @Test
+  public void shouldNotTranslateEmptyQuery() throws QueryValidationException {
+    assertThat(cache.getFilter(null, 10, 0), is(" LIMIT 10 OFFSET 0"));
+    assertThat(cache.getFilter(" ", 10, 0), is(" LIMIT 10 OFFSET 0"));
+
+    assertThat(translated.isEmpty(), is(true));
+    assertThat(cache.size(), is(0));
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedTranslation() throws QueryValidationException {
+    cache.getFilter("type==RegExp", 10, 0);
+    cache.getFilter("state==Enabled", 10, 0);
+    cache.getFilter("type==RegExp", 10, 0);
+    cache.getFilter("name==password_length", 10, 0);
+    cache.getFilter("type==RegExp", 10, 0);
+    cache.getFilter("state==Enabled", 10, 0);
+
+    assertThat(cache.size(), is(2));
+    assertThat(translated, is(List.of("type==RegExp", "state==Enabled", "name==password_length", "state==Enabled")));
+  }
+
+  @Test(expected = QueryValidationException.class)
+  public void shouldNotCacheInvalidQuery() throws QueryValidationException {
+    CqlTranslationCache failingCache = new CqlTranslationCache(2, query -> {
+      throw new QueryValidationException("invalid query " + query);
+    });
+    try {
+      failingCache.getFilter("state==", 10, 0);
+    } finally {
+      assertThat(failingCache.size(), is(0));
+    }
+  }
+}
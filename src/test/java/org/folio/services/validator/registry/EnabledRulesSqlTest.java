@@ -0,0 +1,62 @@
+package org.folio.services.validator.registry;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.vertx.core.Vertx;
+
+/**
+ * Test for the statement of the enabled rules lookup on the validation path.
+ */
+public class EnabledRulesSqlTest {
+
+  private static final String INDEXES_SCRIPT = "templates/db_scripts/create-rules-indexes.sql";
+
+  private static Vertx vertx;
+  private static ValidatorRegistryServiceImpl registryService;
+
+  @BeforeClass
+  public static void setUpClass() {
+    vertx = Vertx.vertx();
+    registryService = new ValidatorRegistryServiceImpl(vertx);
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    vertx.close();
+  }
+
+  @Test
+  public void shouldBuildStatementOncePerTenant() {
+    String sql = registryService.getEnabledRulesSql("diku");
+
+    assertThat(registryService.getEnabledRulesSql("diku"), sameInstance(sql));
+    assertThat(registryService.getEnabledRulesSql("other"), not(sameInstance(sql)));
+  }
+
+  @Test
+  public void shouldMatchPartialIndexOfEnabledRules() throws Exception {
+    String script;
+    try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(INDEXES_SCRIPT)) {
+      script = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+    assertThat(script, containsString("WHERE jsonb->>'state' = 'Enabled'"));
+    assertThat(script, containsString("(((jsonb->>'orderNo')::integer))"));
+
+    String sql = registryService.getEnabledRulesSql("diku");
+
+    // a literal state, not a bind parameter, lets the planner use the partial index
+    assertThat(sql, containsString("WHERE jsonb->>'state' = 'Enabled'"));
+    assertThat(sql, containsString("ORDER BY (jsonb->>'orderNo')::integer"));
+    assertThat(sql, not(containsString("$")));
+  }
+}
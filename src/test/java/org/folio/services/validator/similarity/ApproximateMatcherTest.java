@@ -0,0 +1,85 @@
+package org.folio.services.validator.similarity;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Test for bit-parallel approximate matching of user fields in the password.
+ */
+public class ApproximateMatcherTest {
+
+  @Test
+  public void shouldFindExactOccurrence() {
+    assertThat(ApproximateMatcher.containsApproximately("jsmith2024!", "jsmith", 0), is(true));
+    assertThat(ApproximateMatcher.containsApproximately("2024JSmith!", "jsmith", 0), is(true));
+  }
+
+  @Test
+  public void shouldFindOccurrenceWithinDistance() {
+    assertThat(ApproximateMatcher.containsApproximately("jsm1th2024!", "jsmith", 1), is(true));
+    assertThat(ApproximateMatcher.containsApproximately("jsmth2024!", "jsmith", 1), is(true));
+    assertThat(ApproximateMatcher.containsApproximately("j5m1th2024!", "jsmith", 1), is(false));
+    assertThat(ApproximateMatcher.containsApproximately("j5m1th2024!", "jsmith", 2), is(true));
+  }
+
+  @Test
+  public void shouldNotFindUnrelatedPattern() {
+    assertThat(ApproximateMatcher.containsApproximately("Tr0ub4dor&3", "jsmith", 2), is(false));
+    assertThat(ApproximateMatcher.containsApproximately("", "jsmith", 2), is(false));
+  }
+
+  @Test
+  public void shouldHandleNonAsciiAndLongPatterns() {
+    assertThat(ApproximateMatcher.containsApproximately("zażółć123", "ZAŻÓŁĆ", 0), is(true));
+    String longPattern = "abcdefghijklmnopqrstuvwxyz0123456789abcdefghijklmnopqrstuvwxyz0123456789";
+    assertThat(ApproximateMatcher.containsApproximately("!" + longPattern + "!", longPattern, 0), is(true));
+  }
+
+  @Test
+  public void shouldAgreeWithDynamicProgramming() {
+    Random random = new Random(42);
+    for (int run = 0; run < 2000; run++) {
+      String text = randomString(random, random.nextInt(16));
+      String pattern = randomString(random, 1 + random.nextInt(8));
+      int distance = random.nextInt(3);
+      assertThat(text + " / " + pattern + " / " + distance,
+        ApproximateMatcher.containsApproximately(text, pattern, distance),
+        is(minSubstringDistance(text, pattern) <= distance));
+    }
+  }
+
+  private static String randomString(Random random, int length) {
+    StringBuilder builder = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      builder.append("abcA".charAt(random.nextInt(4)));
+    }
+    return builder.toString();
+  }
+
+  private static int minSubstringDistance(String text, String pattern) {
+    String t = text.toLowerCase();
+    String p = pattern.toLowerCase();
+    int[] previous = new int[p.length() + 1];
+    int[] current = new int[p.length() + 1];
+    for (int i = 0; i <= p.length(); i++) {
+      previous[i] = i;
+    }
+    int best = previous[p.length()];
+    for (int j = 1; j <= t.length(); j++) {
+      current[0] = 0;
+      for (int i = 1; i <= p.length(); i++) {
+        int cost = p.charAt(i - 1) == t.charAt(j - 1) ? 0 : 1;
+        current[i] = Math.min(Math.min(current[i - 1] + 1, previous[i] + 1), previous[i - 1] + cost);
+      }
+      best = Math.min(best, current[p.length()]);
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+    return best;
+  }
+}
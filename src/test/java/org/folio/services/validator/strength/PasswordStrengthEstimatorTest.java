@@ -0,0 +1,167 @@
+package org.folio.services.validator.strength;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+/**
+ * Test for password strength estimator based on the default ranked dictionaries.
+ */
+public class PasswordStrengthEstimatorTest {
+
+  private final PasswordStrengthEstimator estimator = PasswordStrengthEstimator.getInstance();
+
+  @Test
+  public void shouldGiveLowestScoreToCommonPasswords() {
+    assertThat(score("password"), is(0));
+    assertThat(score("123456"), is(0));
+    assertThat(score("qwerty"), is(0));
+  }
+
+  @Test
+  public void shouldRecognizeL33tAndCapitalizedDictionaryWords() {
+    assertThat(score("P4ssw0rd"), lessThanOrEqualTo(1));
+    assertThat(score("Monkey"), is(0));
+  }
+
+  @Test
+  public void shouldRecognizeSequencesRepeatsAndDates() {
+    assertThat(score("abcdefgh"), is(0));
+    assertThat(score("aaaaaaaaaa"), is(0));
+    assertThat(score("19840312"), lessThanOrEqualTo(1));
+    assertThat(score("12/03/1984"), lessThanOrEqualTo(1));
+  }
+
+  @Test
+  public void shouldGiveHighScoreToRandomPasswords() {
+    assertThat(score("xK#9vT!qLm2$wZ"), is(4));
+    assertThat(score("correct-horse-battery-staple"), greaterThanOrEqualTo(3));
+  }
+
+  @Test
+  public void shouldPenalizeUserInputs() {
+    String password = "jsmithkowalczyk";
+    double withoutInputs = estimator.estimate(password, Collections.emptyList()).getGuesses();
+    double withInputs = estimator.estimate(password, Arrays.asList("jsmith", "Kowalczyk")).getGuesses();
+    assertThat(withInputs, lessThan(withoutInputs));
+  }
+
+  @Test
+  public void shouldGrowWithPasswordLength() {
+    assertThat(estimator.estimate("x7Rq", Collections.emptyList()).getGuesses(),
+      lessThan(estimator.estimate("x7Rq9pLv", Collections.emptyList()).getGuesses()));
+  }
+
+  @Test
+  public void shouldLookUpRankedWords() throws Exception {
+    RankedDictionary dictionary = RankedDictionary.load("test",
+      new ByteArrayInputStream("# comment\nfirst\nsecond\n\nFirst\n".getBytes(StandardCharsets.UTF_8)));
+    assertThat(dictionary.rank("first"), is(1));
+    assertThat(dictionary.rank("second"), is(2));
+    assertThat(dictionary.rank("third"), is(0));
+    assertThat(dictionary.rank("fir"), is(0));
+    assertThat(new PasswordStrengthEstimator(Collections.singletonList(dictionary))
+      .estimate("second", Collections.emptyList()).getGuesses(), greaterThan(0d));
+  }
+
+  @Test
+  public void shouldLoadRankedListsFromDirectory() throws Exception {
+    Path directory = Files.createTempDirectory("dictionaries");
+    try {
+      Files.write(directory.resolve("passwords.txt"), Arrays.asList("# ranked list", "123456", "trustno1x"));
+      Files.write(directory.resolve("surnames.txt"), Arrays.asList("kowalczyk"));
+      Files.write(directory.resolve("README.md"), Arrays.asList("not a dictionary"));
+      PasswordStrengthEstimator fromDirectory = PasswordStrengthEstimator.load(directory);
+
+      // missing from the bundled sample, so the sample estimates it as random
+      assertThat(estimator.estimate("trustno1x", Collections.emptyList()).getScore(), greaterThan(0));
+      assertThat(fromDirectory.estimate("trustno1x", Collections.emptyList()).getScore(), is(0));
+      assertThat(fromDirectory.estimate("Kowalczyk", Collections.emptyList()).getScore(), is(0));
+    } finally {
+      try (Stream<Path> files = Files.list(directory)) {
+        for (Path file : (Iterable<Path>) files::iterator) {
+          Files.delete(file);
+        }
+      }
+      Files.delete(directory);
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldFailOnDirectoryWithoutRankedLists() throws Exception {
+    Path directory = Files.createTempDirectory("dictionaries");
+    try {
+      PasswordStrengthEstimator.load(directory);
+    } finally {
+      Files.delete(directory);
+    }
+  }
+
+  @Test
+  public void shouldEstimateCharsWithoutStringCopy() {
+    for (String password : Arrays.asList("password", "drowssaP", "P4ssw0rd", "12/03/1984", "abcabcabc", "jsmith2024",
+      "xK#9vT!qLm2$wZ", "correct-horse-battery-staple-correct-horse-battery-staple-correct-horse")) {
+      StrengthEstimate expected = estimator.estimate(password, Collections.singletonList("jsmith"));
+      StrengthEstimate actual = estimator
+        .estimate(new NoStringChars(password.toCharArray()), Collections.singletonList("jsmith"));
+      assertThat(password, actual.getGuesses(), is(expected.getGuesses()));
+      assertThat(password, actual.getScore(), is(expected.getScore()));
+    }
+  }
+
+  private int score(String password) {
+    return estimator.estimate(password, Collections.emptyList()).getScore();
+  }
+
+  /**
+   * Chars failing the test if the estimator makes a string of them
+   */
+  private static final class NoStringChars implements CharSequence {
+    private final char[] chars;
+    private final int offset;
+    private final int length;
+
+    private NoStringChars(char[] chars) {
+      this(chars, 0, chars.length);
+    }
+
+    private NoStringChars(char[] chars, int offset, int length) {
+      this.chars = chars;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      return chars[offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return new NoStringChars(chars, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+      throw new AssertionError("the password is copied into a string");
+    }
+  }
+}
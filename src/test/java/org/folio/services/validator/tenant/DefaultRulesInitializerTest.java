@@ -0,0 +1,61 @@
+package org.folio.services.validator.tenant;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.folio.rest.jaxrs.model.Rule;
+import org.junit.Test;
+
+/**
+ * Test for loading of the default rules populated on tenant initialization.
+ */
+public class DefaultRulesInitializerTest {
+
+  private static final String DEFAULT_RULES_PATH = "defaultRules/defaultRules.json";
+  private static final String REPEATABLE_PASSWORD_RULE_ID = "5e515a3c-c27a-4304-a33b-b260ce15ffaf";
+  // id of the row populate-rules.sql of the earlier versions added the rule with
+  private static final String REPEATABLE_PASSWORD_ID = "0ff6678f-53cd-4a32-9937-504c28f14077";
+
+  @Test
+  public void shouldLoadDefaultRulesWithIds() throws Exception {
+    try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(DEFAULT_RULES_PATH)) {
+      List<Rule> rules = DefaultRulesInitializer.loadDefaultRules(inputStream).stream()
+        .map(Rule.class::cast)
+        .collect(Collectors.toList());
+      assertThat(rules, hasSize(10));
+      assertThat(rules.stream().map(Rule::getRuleId).collect(Collectors.toList()), everyItem(notNullValue()));
+      assertThat(rules.stream().map(Rule::getId).distinct().filter(id -> id != null).count(), is(10L));
+      for (Rule rule : rules) {
+        String expectedId = REPEATABLE_PASSWORD_RULE_ID.equals(rule.getRuleId()) ? REPEATABLE_PASSWORD_ID : rule.getRuleId();
+        assertThat(rule.getId(), is(expectedId));
+      }
+    }
+  }
+
+  @Test
+  public void shouldPopulateWhenModuleIsEnabled() {
+    assertThat(DefaultRulesInitializer.shouldPopulate(null), is(true));
+    assertThat(DefaultRulesInitializer.shouldPopulate(""), is(true));
+  }
+
+  @Test
+  public void shouldPopulateOnUpgradeFromVersionWithoutRulesTable() {
+    assertThat(DefaultRulesInitializer.shouldPopulate("mod-password-validator-1.6.2"), is(true));
+    assertThat(DefaultRulesInitializer.shouldPopulate("mod-password-validator-0.9.10-SNAPSHOT.3"), is(true));
+  }
+
+  @Test
+  public void shouldKeepRulesOnUpgradeFromVersionWithRulesTable() {
+    assertThat(DefaultRulesInitializer.shouldPopulate("mod-password-validator-1.7.0"), is(false));
+    assertThat(DefaultRulesInitializer.shouldPopulate("mod-password-validator-1.10.1"), is(false));
+    assertThat(DefaultRulesInitializer.shouldPopulate("mod-password-validator-2.0.0-SNAPSHOT.41"), is(false));
+    assertThat(DefaultRulesInitializer.shouldPopulate("mod-password-validator"), is(false));
+  }
+}